@@ -0,0 +1,236 @@
+package org.jyr.postbox.account;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.ai.backfill.AiBackfillJobService;
+import org.jyr.postbox.cache.BoxLookupCache;
+import org.jyr.postbox.cache.UserAuthCache;
+import org.jyr.postbox.domain.*;
+import org.jyr.postbox.repository.*;
+import org.jyr.postbox.service.BoxStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 계정 삭제 작업의 DB 작업 모음.
+ * - 탈퇴 요청: 유저를 DELETING 으로 바꾸고 작업 1행만 등록 (바로 응답)
+ * - 워커가 runChunk 를 반복 호출: chunk 하나 = 짧은 트랜잭션 하나 (락을 오래 잡지 않음)
+ * - 진행 위치(phase, lastId)는 삭제와 같은 트랜잭션으로 저장 → 중간에 죽어도 이어서 진행
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountDeletionJobService {
+
+    private final AccountDeletionJobRepository accountDeletionJobRepository;
+    private final UserRepository userRepository;
+    private final BoxRepository boxRepository;
+    private final MessageRepository messageRepository;
+    private final NotificationRepository notificationRepository;
+    private final ReplyRepository replyRepository;
+    private final BlackListRepository blackListRepository;
+    private final AiReplyJobRepository aiReplyJobRepository;
+    private final AiBackfillJobRepository aiBackfillJobRepository;
+    private final AiBackfillJobService aiBackfillJobService;
+    private final BroadcastNoticeReadRepository broadcastNoticeReadRepository;
+    private final BoxStatsService boxStatsService;
+    private final BoxLookupCache boxLookupCache;
+    private final UserAuthCache userAuthCache;
+
+    @Value("${app.account.deletion.chunk-size:500}")
+    private int chunkSize;
+
+    // =============== 탈퇴 요청 (요청 트랜잭션 안에서 호출) ===============
+    @Transactional
+    public AccountDeletionJob begin(User user) {
+        Optional<AccountDeletionJob> existing = accountDeletionJobRepository.findByUserId(user.getId());
+        if (existing.isPresent()) {
+            return existing.get();   // 이미 진행 중
+        }
+
+        Optional<Box> box = boxRepository.findByOwner(user);
+
+        // 로그인 / 인증 / 박스 조회에서 바로 빠지도록
+        user.setStatus(UserStatus.DELETING);
+        userAuthCache.evict(user.getUserId());
+        box.ifPresent(b -> {
+            boxLookupCache.evict(user.getId(), user.getUserId(), b.getUrlKey());
+            // 지울 박스에 AI 답변을 계속 다는 일이 없도록 진행 중인 일괄 작성 작업은 멈춤
+            aiBackfillJobService.cancelIfActive(b.getId());
+        });
+
+        return accountDeletionJobRepository.save(AccountDeletionJob.builder()
+                .userId(user.getId())
+                .boxId(box.map(Box::getId).orElse(null))
+                .build());
+    }
+
+    // =============== 처리할 작업 선점 ===============
+    @Transactional
+    public List<Long> claim(int limit, LocalDateTime staleBefore) {
+        if (limit <= 0) return List.of();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new ArrayList<>();
+        for (Long id : accountDeletionJobRepository.findClaimableIds(staleBefore, PageRequest.of(0, limit))) {
+            // 다른 노드가 먼저 가져갔으면 0
+            if (accountDeletionJobRepository.claim(id, now, staleBefore) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed;
+    }
+
+    // =============== 중단: 다음 poll 에서 (이 노드든 다른 노드든) 이어서 ===============
+    @Transactional
+    public void release(Long jobId, String error) {
+        accountDeletionJobRepository.findById(jobId).ifPresent(job -> {
+            if (job.getStatus() == AccountDeletionJobStatus.DONE) return;
+            job.setStatus(AccountDeletionJobStatus.PENDING);
+            job.setLockedAt(null);
+            if (error != null) {
+                job.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            }
+        });
+    }
+
+    /**
+     * chunk 하나 처리.
+     * @return 작업이 끝났으면 true
+     */
+    @Transactional
+    public boolean runChunk(Long jobId) {
+        AccountDeletionJob job = accountDeletionJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("계정 삭제 작업이 없습니다. id=" + jobId));
+        if (job.getStatus() == AccountDeletionJobStatus.DONE) return true;
+
+        switch (job.getPhase()) {
+            case BOX_MESSAGES -> deleteBoxMessages(job);
+            case AUTHORED_MESSAGES -> deleteAuthoredMessages(job);
+            case NOTIFICATIONS -> deleteNotifications(job);
+            case FINALIZE -> finish(job);
+        }
+
+        job.setLockedAt(LocalDateTime.now());   // 진행 중 표시 (stale 판단 기준)
+        return job.getStatus() == AccountDeletionJobStatus.DONE;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AccountDeletionJob> findByUserId(Long userId) {
+        return accountDeletionJobRepository.findByUserId(userId);
+    }
+
+    public long countPending() {
+        return accountDeletionJobRepository.countByStatus(AccountDeletionJobStatus.PENDING)
+                + accountDeletionJobRepository.countByStatus(AccountDeletionJobStatus.RUNNING);
+    }
+
+    // ===================== 단계별 chunk =====================
+
+    // 1) 내 박스의 메시지 (박스가 곧 지워지므로 카운트는 건드리지 않음)
+    private void deleteBoxMessages(AccountDeletionJob job) {
+        if (job.getBoxId() == null) {
+            job.moveTo(AccountDeletionPhase.AUTHORED_MESSAGES);
+            return;
+        }
+
+        List<Long> ids = messageRepository.findIdsByBoxIdAfter(
+                job.getBoxId(), job.getLastId(), PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            job.moveTo(AccountDeletionPhase.AUTHORED_MESSAGES);
+            return;
+        }
+
+        deleteMessages(job, ids);
+    }
+
+    // 2) 내가 다른 박스에 쓴 메시지 (그 박스 카운트 차감)
+    private void deleteAuthoredMessages(AccountDeletionJob job) {
+        List<MessageRepository.AuthoredMessageRow> rows = messageRepository.findAuthoredAfter(
+                job.getUserId(), job.getBoxId(), job.getLastId(), PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            job.moveTo(AccountDeletionPhase.NOTIFICATIONS);
+            return;
+        }
+
+        for (MessageRepository.AuthoredMessageRow row : rows) {
+            boxStatsService.onMessageDeleted(row.getBoxId(), row.isHidden(), row.isReplied());
+        }
+        deleteMessages(job, rows.stream().map(MessageRepository.AuthoredMessageRow::getId).toList());
+    }
+
+    // 3) 나에게 온 알림
+    private void deleteNotifications(AccountDeletionJob job) {
+        List<Long> ids = notificationRepository.findIdsByTargetUserIdAfter(
+                job.getUserId(), job.getLastId(), PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            job.moveTo(AccountDeletionPhase.FINALIZE);
+            return;
+        }
+
+        job.setDeletedNotifications(job.getDeletedNotifications() + notificationRepository.deleteAllByIdIn(ids));
+        job.setLastId(ids.get(ids.size() - 1));
+    }
+
+    // 4) 나머지 (행 수가 적은 것들) + 박스 + 유저
+    private void finish(AccountDeletionJob job) {
+        // DELETING 으로 바뀌기 직전에 들어온 메시지가 있으면 처음 단계부터 다시
+        if ((job.getBoxId() != null && messageRepository.existsByBox_Id(job.getBoxId()))
+                || messageRepository.existsByAuthorUser_Id(job.getUserId())) {
+            log.info("account deletion found late messages, restarting. userId={}", job.getUserId());
+            job.moveTo(AccountDeletionPhase.BOX_MESSAGES);
+            return;
+        }
+        // 알림 단계가 지난 뒤 들어온 알림 (버퍼에서 늦게 저장됐거나, id 가 다른 노드 범위라 커서보다 작은 것)
+        // → 남겨두면 유저 삭제가 FK 에 걸리므로 알림 단계를 처음부터 다시
+        if (notificationRepository.existsByTargetUser_Id(job.getUserId())) {
+            log.info("account deletion found late notifications, restarting notifications. userId={}", job.getUserId());
+            job.moveTo(AccountDeletionPhase.NOTIFICATIONS);
+            return;
+        }
+
+        User user = userRepository.findById(job.getUserId()).orElse(null);
+        if (user != null) {
+            Box box = job.getBoxId() != null ? boxRepository.findById(job.getBoxId()).orElse(null) : null;
+
+            // 내 박스에서 차단해둔 기록 / 내가 차단당한 기록
+            if (box != null) {
+                blackListRepository.deleteAllByBox(box);
+            }
+            blackListRepository.deleteAllByBlockedUser(user);
+            broadcastNoticeReadRepository.deleteAllByUserId(user.getId());
+
+            if (box != null) {
+                boxStatsService.delete(box.getId());
+                aiBackfillJobRepository.deleteByBoxId(box.getId());
+                boxRepository.delete(box);
+                boxLookupCache.evict(user.getId(), user.getUserId(), box.getUrlKey());
+            }
+
+            userRepository.delete(user);
+            userAuthCache.evict(user.getUserId());
+        }
+
+        job.setStatus(AccountDeletionJobStatus.DONE);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setLastError(null);
+    }
+
+    // 메시지에 딸린 행부터 지우고 메시지 삭제
+    private void deleteMessages(AccountDeletionJob job, List<Long> ids) {
+        notificationRepository.deleteAllByMessage_IdIn(ids);
+        aiReplyJobRepository.deleteAllByMessageIdIn(ids);
+        replyRepository.deleteAllByMessageIdIn(ids);
+        int deleted = messageRepository.deleteAllByIdIn(ids);
+
+        job.setDeletedMessages(job.getDeletedMessages() + deleted);
+        job.setLastId(ids.get(ids.size() - 1));
+    }
+}
@@ -0,0 +1,103 @@
+package org.jyr.postbox.account;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 계정 삭제 작업을 백그라운드에서 chunk 단위로 처리하는 워커.
+ * - poll 1번에 작업 1건을 선점해서 max-chunks-per-run 개까지 처리하고, 남았으면 다시 대기열로 돌려둔다
+ *   (스케줄러 스레드를 오래 잡지 않고, 큰 계정 하나가 다른 작업을 막지 않도록)
+ * - chunk 사이에 pause-ms 만큼 쉬어서 다른 요청과 락 경합을 줄인다
+ * - 노드가 죽어 RUNNING 으로 남은 작업은 stale-after-ms 가 지나면 다시 선점 가능
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountDeletionJobWorker {
+
+    private final AccountDeletionJobService accountDeletionJobService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.account.deletion.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    @Value("${app.account.deletion.pause-ms:50}")
+    private long pauseMs;
+
+    @Value("${app.account.deletion.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    private volatile boolean accepting = true;
+
+    private Counter chunkCounter;
+    private Counter completedCounter;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("account.deletion.jobs.pending", accountDeletionJobService, AccountDeletionJobService::countPending)
+                .description("끝나지 않은 계정 삭제 작업 수")
+                .register(meterRegistry);
+        chunkCounter = meterRegistry.counter("account.deletion.chunks");
+        completedCounter = meterRegistry.counter("account.deletion.jobs", "result", "completed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.account.deletion.poll-interval-ms:5000}")
+    public void poll() {
+        if (!accepting) return;
+
+        LocalDateTime staleBefore = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000L);
+        List<Long> jobIds = accountDeletionJobService.claim(1, staleBefore);
+        for (Long jobId : jobIds) {
+            process(jobId);
+        }
+    }
+
+    // =============== 작업 1건: chunk 반복 ===============
+    private void process(Long jobId) {
+        try {
+            for (int i = 0; i < maxChunksPerRun; i++) {
+                boolean done = accountDeletionJobService.runChunk(jobId);
+                chunkCounter.increment();
+                if (done) {
+                    completedCounter.increment();
+                    return;
+                }
+                if (!accepting || !pause()) break;
+            }
+            // 이번 차례 끝 → 다음 poll 에서 이어서
+            accountDeletionJobService.release(jobId, null);
+
+        } catch (Exception e) {
+            log.warn("account deletion chunk failed. jobId={}", jobId, e);
+            accountDeletionJobService.release(jobId, e.toString());
+        }
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) return true;
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // =============== 종료: 진행 중인 chunk 까지만 하고 멈춤 ===============
+    @PreDestroy
+    void shutdown() {
+        accepting = false;
+    }
+}
@@ -0,0 +1,275 @@
+package org.jyr.postbox.ai.backfill;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.domain.*;
+import org.jyr.postbox.repository.AiBackfillJobRepository;
+import org.jyr.postbox.repository.BoxRepository;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.security.LoginUser;
+import org.jyr.postbox.service.BoxStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 박스의 답변 없는 메시지에 AI 답변을 몰아서 다는 작업의 DB 작업 모음.
+ * - 시작: AI 모드를 켤 때 (또는 주인이 직접) 박스당 작업 1행만 등록
+ * - 워커가 nextChunk → (트랜잭션 밖에서 AI 호출) → applyChunk 를 반복: chunk 하나 = 짧은 트랜잭션 두 개
+ * - 커서(lastId)는 답변 저장과 같은 트랜잭션으로 저장 → 취소 / 중단 후 재개하면 이어서 진행
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AiBackfillJobService {
+
+    private final AiBackfillJobRepository aiBackfillJobRepository;
+    private final MessageRepository messageRepository;
+    private final BoxRepository boxRepository;
+    private final BoxStatsService boxStatsService;
+
+    @Value("${app.ai.backfill.chunk-size:20}")
+    private int chunkSize;
+
+    @Value("${app.ai.backfill.auto-start:true}")
+    private boolean autoStart;
+
+    @Value("${app.ai.reply.claim-stale-ms:120000}")
+    private long claimStaleMs;
+
+    /**
+     * chunk 하나 (선점까지 끝난 상태).
+     * @param finished 더 처리할 메시지가 없어 작업이 DONE 이 됨
+     * @param lastId   이번 chunk 의 마지막 메시지 id (저장 시 커서)
+     * @param messages 이번에 선점한 메시지 (box 로딩됨)
+     * @param skipped  다른 곳이 선점 중이라 건너뛴 수
+     * @param ownerId / answeredCount 완료 알림용
+     */
+    public record Chunk(boolean finished, long lastId, List<Message> messages, int skipped,
+                        Long ownerId, long answeredCount) {
+    }
+
+    /**
+     * chunk 저장 결과.
+     * @param answered  실제로 저장된 답변 수 (그 사이 주인이 답한 메시지는 제외)
+     * @param skipped   건너뛴 수 (선점 중 + 저장 시점에 이미 답변 있음)
+     * @param keepGoing 계속 진행해도 되면 true (그 사이 취소됐으면 false)
+     */
+    public record Applied(int answered, int skipped, boolean keepGoing) {
+    }
+
+    // =============== 시작 / 재개 ===============
+    @Transactional
+    public AiBackfillJob start(LoginUser owner) {
+        Box box = findMyBox(owner);
+        if (!box.isAiMode()) {
+            throw new IllegalStateException("AI 모드가 꺼져 있습니다. boxId=" + box.getId());
+        }
+        return begin(box);
+    }
+
+    // AI 모드 토글 (BoxService 의 트랜잭션 안에서 호출)
+    @Transactional
+    public void onAiModeChanged(Box box, boolean enabled) {
+        if (enabled) {
+            if (autoStart) begin(box);
+        } else {
+            cancelIfActive(box.getId());
+        }
+    }
+
+    /**
+     * - 없으면 새로 / 진행 중이면 그대로
+     * - 취소된 작업은 커서 그대로 재개
+     * - 끝난 작업은 처음부터 다시 (그 사이 쌓인 메시지 + 지난번 실패한 메시지)
+     */
+    private AiBackfillJob begin(Box box) {
+        Optional<AiBackfillJob> existing = aiBackfillJobRepository.findByBoxId(box.getId());
+        if (existing.isEmpty()) {
+            return aiBackfillJobRepository.save(AiBackfillJob.builder()
+                    .boxId(box.getId())
+                    .ownerId(box.getOwner().getId())
+                    .totalCount(messageRepository.countUnansweredForBackfill(box.getId()))
+                    .build());
+        }
+
+        AiBackfillJob job = existing.get();
+        switch (job.getStatus()) {
+            case PENDING, RUNNING -> { }
+            case CANCELLED -> {
+                job.setStatus(AiBackfillJobStatus.PENDING);
+                job.setLockedAt(null);
+            }
+            case DONE -> job.restart(messageRepository.countUnansweredForBackfill(box.getId()));
+        }
+        return job;
+    }
+
+    // =============== 취소: 진행 중인 chunk 까지만 저장하고 멈춤 ===============
+    @Transactional
+    public AiBackfillJob cancel(LoginUser owner) {
+        Box box = findMyBox(owner);
+        cancelIfActive(box.getId());
+        return aiBackfillJobRepository.findByBoxId(box.getId())
+                .orElseThrow(() -> new IllegalArgumentException("AI 답변 일괄 작성 작업이 없습니다. boxId=" + box.getId()));
+    }
+
+    // 박스 기준 취소 (AI 모드 끔 / 계정 삭제 시작), 호출한 쪽 트랜잭션 안에서
+    @Transactional
+    public void cancelIfActive(Long boxId) {
+        aiBackfillJobRepository.findByBoxId(boxId).ifPresent(job -> {
+            if (!job.isActive()) return;
+            job.setStatus(AiBackfillJobStatus.CANCELLED);
+            job.setLockedAt(null);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AiBackfillJob> findMine(LoginUser owner) {
+        if (owner.getBoxId() == null) return Optional.empty();
+        return aiBackfillJobRepository.findByBoxId(owner.getBoxId());
+    }
+
+    // =============== 처리할 작업 선점 ===============
+    @Transactional
+    public List<Long> claim(int limit, LocalDateTime staleBefore) {
+        if (limit <= 0) return List.of();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new ArrayList<>();
+        for (Long id : aiBackfillJobRepository.findClaimableIds(staleBefore, PageRequest.of(0, limit))) {
+            // 다른 노드가 먼저 가져갔으면 0
+            if (aiBackfillJobRepository.claim(id, now, staleBefore) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed;
+    }
+
+    // =============== 이번 차례 끝: 다음 poll 에서 (이 노드든 다른 노드든) 이어서 ===============
+    // 취소 / 완료된 작업은 그대로 둔다
+    @Transactional
+    public void release(Long jobId, String error) {
+        aiBackfillJobRepository.findById(jobId).ifPresent(job -> {
+            if (job.getStatus() != AiBackfillJobStatus.RUNNING) return;
+            job.setStatus(AiBackfillJobStatus.PENDING);
+            job.setLockedAt(null);
+            if (error != null) job.setLastError(truncate(error));
+        });
+    }
+
+    // AI 쪽 장애로 chunk 전체가 실패: 선점만 풀고 커서는 그대로 (다음 poll 에서 같은 chunk 부터)
+    @Transactional
+    public void postpone(Long jobId, List<Long> claimedIds, String error) {
+        if (!claimedIds.isEmpty()) {
+            messageRepository.releaseAiReplyClaims(claimedIds);
+        }
+        release(jobId, error);
+    }
+
+    /**
+     * 다음 chunk 를 읽고 선점까지 (행 잠금 → 선점 UPDATE 한 번 → 커밋).
+     * @return 작업이 RUNNING 이 아니면 (취소 / 다른 노드가 가져감) null
+     */
+    @Transactional
+    public Chunk nextChunk(Long jobId) {
+        AiBackfillJob job = aiBackfillJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != AiBackfillJobStatus.RUNNING) return null;
+
+        // 박스를 먼저 올려둬서 메시지의 box 가 프록시가 아닌 실제 엔티티로 (트랜잭션 밖에서 캐시 설정을 읽음)
+        Box box = boxRepository.findById(job.getBoxId()).orElse(null);
+        List<Message> rows = box == null
+                ? List.of()
+                : messageRepository.findUnansweredForBackfill(box.getId(), job.getLastId(), PageRequest.of(0, chunkSize));
+
+        if (rows.isEmpty()) {
+            job.setStatus(AiBackfillJobStatus.DONE);
+            job.setLockedAt(null);
+            job.setFinishedAt(LocalDateTime.now());
+            return new Chunk(true, job.getLastId(), List.of(), 0, job.getOwnerId(), job.getAnsweredCount());
+        }
+
+        // 다른 요청 / 답변 작업이 잡고 있는 메시지는 건너뜀 (오래 멈춘 선점은 가져옴)
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusNanos(claimStaleMs * 1_000_000L);
+        List<Message> claimable = new ArrayList<>();
+        for (Message m : rows) {
+            if (m.getAiReplyClaimedAt() == null || m.getAiReplyClaimedAt().isBefore(staleBefore)) {
+                claimable.add(m);
+            }
+        }
+        if (!claimable.isEmpty()) {
+            messageRepository.claimAiReplies(claimable.stream().map(Message::getId).toList(), now);
+        }
+
+        job.setLockedAt(now);
+        return new Chunk(false, rows.get(rows.size() - 1).getId(), claimable, rows.size() - claimable.size(),
+                job.getOwnerId(), job.getAnsweredCount());
+    }
+
+    /**
+     * chunk 결과 저장 (트랜잭션 하나): 답변 + 선점 해제 + 박스 카운트 + 커서/진행 상황.
+     * @param replies   메시지 id → AI 답변
+     * @param failedIds AI 호출이 실패한 메시지 (선점만 풀고 이번 작업에선 건너뜀)
+     */
+    @Transactional
+    public Applied applyChunk(Long jobId, Chunk chunk, Map<Long, String> replies, List<Long> failedIds, String error) {
+        AiBackfillJob job = aiBackfillJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("AI 답변 일괄 작성 작업이 없습니다. id=" + jobId));
+
+        int answered = 0;
+        int skipped = chunk.skipped();
+        List<Long> releaseIds = new ArrayList<>(failedIds);
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, String> reply : replies.entrySet()) {
+            // 그 사이 주인이 직접 답했으면 덮어쓰지 않는다 (조건부 UPDATE 가 1 일 때만 답변 수에 포함)
+            if (messageRepository.writeReplyIfAbsent(reply.getKey(), reply.getValue(), ReplyAuthorType.AI, now) == 1) {
+                answered++;
+            } else {
+                skipped++;
+                releaseIds.add(reply.getKey());
+            }
+        }
+        if (!releaseIds.isEmpty()) {
+            messageRepository.releaseAiReplyClaims(releaseIds);
+        }
+        boxStatsService.onRepliesAdded(job.getBoxId(), answered);
+
+        // 취소 → 재개 사이에 다른 노드가 먼저 앞서 나갔으면 커서를 되돌리지 않도록
+        job.setLastId(Math.max(job.getLastId(), chunk.lastId()));
+        job.setAnsweredCount(job.getAnsweredCount() + answered);
+        job.setSkippedCount(job.getSkippedCount() + skipped);
+        job.setFailedCount(job.getFailedCount() + failedIds.size());
+        if (error != null) job.setLastError(truncate(error));
+
+        if (job.getStatus() != AiBackfillJobStatus.RUNNING) {
+            return new Applied(answered, skipped, false);
+        }
+        job.setLockedAt(LocalDateTime.now());   // 진행 중 표시 (stale 판단 기준)
+        return new Applied(answered, skipped, true);
+    }
+
+    public long countPending() {
+        return aiBackfillJobRepository.countByStatus(AiBackfillJobStatus.PENDING)
+                + aiBackfillJobRepository.countByStatus(AiBackfillJobStatus.RUNNING);
+    }
+
+    private Box findMyBox(LoginUser owner) {
+        if (owner.getBoxId() == null) {
+            throw new IllegalStateException("박스 없음. userId=" + owner.getUserId());
+        }
+        return boxRepository.findById(owner.getBoxId())
+                .orElseThrow(() -> new IllegalStateException("박스 없음. userId=" + owner.getUserId()));
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
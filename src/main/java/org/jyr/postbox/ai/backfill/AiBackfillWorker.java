@@ -0,0 +1,224 @@
+package org.jyr.postbox.ai.backfill;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.ai.service.AiReplyService;
+import org.jyr.postbox.domain.Message;
+import org.jyr.postbox.domain.NotificationType;
+import org.jyr.postbox.exception.AiUnavailableException;
+import org.jyr.postbox.service.NotificationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 박스 단위 AI 답변 일괄 작성 워커.
+ * - poll 은 빈 슬롯(max-concurrent-jobs)만큼 작업을 선점해서 넘기기만 한다
+ *   (작업은 워커 전용 가상 스레드에서 → 공용 @Scheduled 풀을 AI 호출 대기로 붙잡지 않음)
+ * - 작업 1건은 max-chunks-per-run 개까지 처리하고, 남았으면 다시 대기열로 돌려둔다
+ * - chunk 안의 AI 호출은 가상 스레드로 동시에, 단 parallelism 개까지만
+ *   (HttpAiClient 의 동시 요청 상한을 혼자 다 쓰지 않도록 → 실시간 답변 요청 자리를 남겨둠)
+ * - 결과는 chunk 단위로 한 번에 저장, 그 사이 취소됐으면 거기서 멈춤
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiBackfillWorker {
+
+    private final AiBackfillJobService aiBackfillJobService;
+    private final AiReplyService aiReplyService;
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.ai.backfill.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${app.ai.backfill.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    @Value("${app.ai.backfill.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${app.ai.backfill.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean accepting = true;
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private Counter answeredCounter;
+    private Counter failedCounter;
+    private Counter skippedCounter;
+    private Counter completedCounter;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        permits = new Semaphore(Math.max(1, parallelism));
+
+        Gauge.builder("ai.backfill.jobs.pending", aiBackfillJobService, AiBackfillJobService::countPending)
+                .description("끝나지 않은 AI 답변 일괄 작성 작업 수")
+                .register(meterRegistry);
+        answeredCounter = meterRegistry.counter("ai.backfill.messages", "result", "answered");
+        failedCounter = meterRegistry.counter("ai.backfill.messages", "result", "failed");
+        skippedCounter = meterRegistry.counter("ai.backfill.messages", "result", "skipped");
+        completedCounter = meterRegistry.counter("ai.backfill.jobs", "result", "completed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.ai.backfill.poll-interval-ms:5000}")
+    public void poll() {
+        dispatch();
+    }
+
+    // =============== 폴링: 빈 슬롯만큼 선점해서 워커 스레드로 넘김 ===============
+    // 넘긴 작업의 Future 목록 (테스트에서 끝날 때까지 기다리는 용도)
+    List<Future<?>> dispatch() {
+        if (!accepting) return List.of();
+
+        int free = maxConcurrentJobs - inFlight.get();
+        if (free <= 0) return List.of();
+
+        LocalDateTime staleBefore = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000L);
+        List<Future<?>> started = new ArrayList<>();
+        for (Long jobId : aiBackfillJobService.claim(free, staleBefore)) {
+            inFlight.incrementAndGet();
+            try {
+                started.add(executor.submit(() -> {
+                    try {
+                        process(jobId);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                // 이미 종료 중 → 다음 poll (다른 노드) 에서 이어서
+                inFlight.decrementAndGet();
+                aiBackfillJobService.release(jobId, "executor rejected");
+            }
+        }
+        return started;
+    }
+
+    // =============== 작업 1건: chunk 반복 ===============
+    void process(Long jobId) {
+        try {
+            for (int i = 0; i < maxChunksPerRun; i++) {
+                AiBackfillJobService.Chunk chunk = aiBackfillJobService.nextChunk(jobId);
+                if (chunk == null) return;   // 취소됨 / 다른 노드가 가져감
+                if (chunk.finished()) {
+                    completedCounter.increment();
+                    notifyFinished(chunk);
+                    return;
+                }
+                if (!runChunk(jobId, chunk)) return;
+                if (!accepting || !pause()) break;
+            }
+            // 이번 차례 끝 → 다음 poll 에서 이어서
+            aiBackfillJobService.release(jobId, null);
+
+        } catch (Exception e) {
+            log.warn("AI backfill chunk failed. jobId={}", jobId, e);
+            aiBackfillJobService.release(jobId, e.toString());
+        }
+    }
+
+    /**
+     * chunk 하나: AI 호출(트랜잭션 밖) → 한 번에 저장.
+     * @return 계속 진행해도 되면 true
+     */
+    private boolean runChunk(Long jobId, AiBackfillJobService.Chunk chunk) throws InterruptedException {
+        List<Message> messages = chunk.messages();
+        List<Future<String>> futures = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            futures.add(executor.submit(() -> generate(message)));
+        }
+
+        Map<Long, String> replies = new HashMap<>();
+        List<Long> failedIds = new ArrayList<>();
+        String error = null;
+        boolean upstreamDown = true;
+        for (int i = 0; i < messages.size(); i++) {
+            Long messageId = messages.get(i).getId();
+            try {
+                replies.put(messageId, futures.get(i).get());
+            } catch (ExecutionException e) {
+                failedIds.add(messageId);
+                error = e.getCause().toString();
+                upstreamDown &= e.getCause() instanceof AiUnavailableException;
+                log.warn("AI backfill reply failed. messageId={}", messageId, e.getCause());
+            }
+        }
+
+        // 전부 AI 쪽 장애(서킷 열림 / 동시 요청 초과 / 마감)로 실패 → 커서를 넘기지 않고 다음 poll 에서 다시
+        if (replies.isEmpty() && !failedIds.isEmpty() && upstreamDown) {
+            aiBackfillJobService.postpone(jobId, failedIds, error);
+            return false;
+        }
+
+        AiBackfillJobService.Applied applied = aiBackfillJobService.applyChunk(jobId, chunk, replies, failedIds, error);
+        answeredCounter.increment(applied.answered());
+        failedCounter.increment(failedIds.size());
+        skippedCounter.increment(applied.skipped());
+        return applied.keepGoing();
+    }
+
+    private String generate(Message message) throws InterruptedException {
+        permits.acquire();
+        try {
+            return aiReplyService.generateReply(message);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 메시지마다가 아니라 작업 끝에 알림 1건
+    private void notifyFinished(AiBackfillJobService.Chunk chunk) {
+        if (chunk.answeredCount() <= 0) return;
+        notificationService.createNotification(
+                chunk.ownerId(),
+                NotificationType.AI_REPLY,
+                "AI 답변 " + chunk.answeredCount() + "개가 도착했어요!",
+                "/me/box",
+                null
+        );
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) return true;
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // =============== 종료: 진행 중인 chunk 까지만 하고 멈춤 ===============
+    @PreDestroy
+    void shutdown() {
+        accepting = false;
+        executor.shutdown();
+    }
+}
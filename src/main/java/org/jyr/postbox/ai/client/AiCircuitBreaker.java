@@ -0,0 +1,78 @@
+package org.jyr.postbox.ai.client;
+
+import java.util.function.LongSupplier;
+
+/**
+ * AI 업스트림용 서킷 브레이커 (연속 실패 횟수 기준).
+ * - CLOSED: 정상. 연속 실패가 임계치에 닿으면 OPEN
+ * - OPEN: 호출하지 않고 바로 실패. open 시간이 지나면 HALF_OPEN
+ * - HALF_OPEN: 시험 호출 1건만 통과. 성공하면 CLOSED, 실패하면 다시 OPEN
+ * tryAcquire() 가 true 였다면 반드시 onSuccess / onFailure / onIgnored 중 하나로 끝내야 한다.
+ */
+public class AiCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public AiCircuitBreaker(int failureThreshold, long openMs) {
+        this(failureThreshold, openMs, System::nanoTime);
+    }
+
+    AiCircuitBreaker(int failureThreshold, long openMs, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openMs * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                // HALF_OPEN: 시험 호출이 이미 나가 있으면 나머지는 바로 실패
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    // 업스트림 상태와 무관하게 끝난 호출 (인터럽트 등): 시험 호출 자리만 돌려준다
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -1,9 +1,21 @@
 package org.jyr.postbox.ai.client;
 
+import java.util.function.Consumer;
+
 public interface AiClient {
 
     /**
      * 프롬프트를 받아 AI 답변을 생성한다.
      */
     String generateReply(String prompt);
+
+    /**
+     * 답변을 만들어지는 대로 조각(토큰)씩 onDelta 로 흘려보내고, 끝나면 전체 답변을 반환한다.
+     * 스트리밍을 지원하지 않는 구현은 전체 답변을 한 조각으로 보낸다.
+     */
+    default String streamReply(String prompt, Consumer<String> onDelta) {
+        String reply = generateReply(prompt);
+        onDelta.accept(reply);
+        return reply;
+    }
 }
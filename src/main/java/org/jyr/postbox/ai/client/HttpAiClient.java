@@ -1,14 +1,327 @@
 package org.jyr.postbox.ai.client;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.ai.dto.AiApiRequest;
+import org.jyr.postbox.ai.dto.AiApiResponse;
+import org.jyr.postbox.exception.AiUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * chat/completions(OpenAI 호환) HTTP 로 답변을 만드는 AiClient.
+ * - HttpClient 하나를 공유 (HTTP/2 우선, 연결은 클라이언트 내부 풀에서 재사용)
+ * - 호출마다 연결/전체 응답 마감 시간 (스트리밍은 첫 응답 / 스트림 전체 마감 시간)
+ * - 동시에 나가는 요청 수 제한 (빈 자리를 잠깐만 기다리고 없으면 바로 실패)
+ * - 업스트림이 연달아 실패하면 서킷을 열어 한동안 호출 없이 바로 실패
+ * base-url 이 비어 있으면 외부 호출 없이 고정 답변 (로컬 개발용)
+ */
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class HttpAiClient implements AiClient {
 
+    private static final String CANNED_REPLY =
+            "🦁 사자왕자: 마음이 많이 무거웠겠다. 지금은 숨 고르는 게 먼저야. "
+                    + "1) 잠깐 물 한 잔  2) 5분만 쉬기  3) 내일 할 일 하나만 적기";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.client.base-url:}")
+    private String baseUrl;
+
+    @Value("${app.ai.client.api-key:}")
+    private String apiKey;
+
+    @Value("${app.ai.client.model:gpt-4o-mini}")
+    private String model;
+
+    @Value("${app.ai.client.max-tokens:400}")
+    private int maxTokens;
+
+    @Value("${app.ai.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.ai.client.request-timeout-ms:20000}")
+    private long requestTimeoutMs;
+
+    @Value("${app.ai.client.stream-timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.ai.client.max-in-flight:16}")
+    private int maxInFlight;
+
+    @Value("${app.ai.client.acquire-timeout-ms:500}")
+    private long acquireTimeoutMs;
+
+    @Value("${app.ai.client.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${app.ai.client.circuit.open-ms:30000}")
+    private long circuitOpenMs;
+
+    private HttpClient httpClient;
+    private URI endpoint;
+    private Semaphore permits;
+    private AiCircuitBreaker circuitBreaker;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxInFlight);
+        circuitBreaker = new AiCircuitBreaker(failureThreshold, circuitOpenMs);
+
+        if (baseUrl == null || baseUrl.isBlank()) {
+            log.info("app.ai.client.base-url is empty. AI replies use the canned response.");
+        } else {
+            endpoint = URI.create(baseUrl.replaceAll("/+$", "") + "/v1/chat/completions");
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .build();
+        }
+
+        Gauge.builder("ai.client.in-flight", permits, p -> maxInFlight - p.availablePermits())
+                .description("AI 업스트림으로 나가 있는 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("ai.client.circuit.open", circuitBreaker,
+                        cb -> cb.state() == AiCircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("서킷이 열려 있으면 1")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void close() {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+
     @Override
     public String generateReply(String prompt) {
-        // ✅ 1차 MVP: 더미 응답 (외부 API 붙이기 전)
-        return "🦁 사자왕자: 마음이 많이 무거웠겠다. 지금은 숨 고르는 게 먼저야. "
-                + "1) 잠깐 물 한 잔  2) 5분만 쉬기  3) 내일 할 일 하나만 적기";
+        if (endpoint == null) {
+            return CANNED_REPLY;
+        }
+        return guarded(() -> call(prompt));
+    }
+
+    @Override
+    public String streamReply(String prompt, Consumer<String> onDelta) {
+        if (endpoint == null) {
+            onDelta.accept(CANNED_REPLY);
+            return CANNED_REPLY;
+        }
+        return guarded(() -> callStreaming(prompt, onDelta));
+    }
+
+    // =============== 동시 요청 자리 + 서킷 확인 후 실행 ===============
+    private String guarded(Supplier<String> call) {
+        // 1) 동시 요청 자리 확보
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiUnavailableException("AI 요청이 중단되었습니다.", e);
+        }
+        if (!acquired) {
+            record("busy", 0);
+            throw new AiUnavailableException("AI 요청이 밀려 있습니다. 잠시 후 다시 시도해 주세요.");
+        }
+
+        try {
+            // 2) 서킷이 열려 있으면 호출 없이 바로 실패
+            if (!circuitBreaker.tryAcquire()) {
+                record("circuit_open", 0);
+                throw new AiUnavailableException("AI 서비스가 일시적으로 불안정합니다. 잠시 후 다시 시도해 주세요.");
+            }
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // =============== 실제 호출 (결과는 반드시 서킷에 알린다) ===============
+    private String call(String prompt) {
+        long start = System.nanoTime();
+
+        CompletableFuture<HttpResponse<byte[]>> future =
+                httpClient.sendAsync(newRequest(prompt, false), HttpResponse.BodyHandlers.ofByteArray());
+
+        // 헤더뿐 아니라 본문까지 포함한 전체 마감 시간
+        HttpResponse<byte[]> response = await(future, requestTimeoutMs, start, future);
+
+        checkStatus(response.statusCode(), start);
+
+        String content = objectMapper.readValue(response.body(), AiApiResponse.class).firstContent();
+        if (content == null || content.isBlank()) {
+            record("empty", start);
+            throw new IllegalStateException("AI 응답이 비어 있습니다.");
+        }
+
+        record("success", start);
+        return content.strip();
+    }
+
+    // =============== 스트리밍 호출: SSE 줄을 받는 대로 조각 전달 ===============
+    // 첫 응답(헤더)까지 request-timeout, 스트림 전체는 stream-timeout
+    private String callStreaming(String prompt, Consumer<String> onDelta) {
+        long start = System.nanoTime();
+
+        DeltaSubscriber subscriber = new DeltaSubscriber(onDelta);
+        CompletableFuture<Integer> status = new CompletableFuture<>();
+        HttpResponse.BodyHandler<Void> handler = info -> {
+            status.complete(info.statusCode());
+            // 오류 응답 본문은 버린다
+            return info.statusCode() / 100 == 2
+                    ? HttpResponse.BodySubscribers.fromLineSubscriber(subscriber)
+                    : HttpResponse.BodySubscribers.replacing(null);
+        };
+
+        CompletableFuture<HttpResponse<Void>> future = httpClient.sendAsync(newRequest(prompt, true), handler);
+        future.whenComplete((r, e) -> {
+            if (e != null) {
+                status.completeExceptionally(e);
+                subscriber.done.completeExceptionally(e);
+            }
+        });
+
+        checkStatus(await(status, requestTimeoutMs, start, future), start);
+
+        String content = await(subscriber.done, streamTimeoutMs, start, future);
+        if (content.isBlank()) {
+            record("empty", start);
+            throw new IllegalStateException("AI 응답이 비어 있습니다.");
+        }
+
+        record("success", start);
+        return content;
+    }
+
+    private HttpRequest newRequest(String prompt, boolean stream) {
+        return HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Content-Type", "application/json")
+                .header("Accept", stream ? "text/event-stream" : "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                        objectMapper.writeValueAsBytes(AiApiRequest.ofPrompt(model, prompt, maxTokens, stream))))
+                .build();
+    }
+
+    // 마감 시간 안에 결과를 기다림. 시간 초과 / 연결 오류는 서킷 실패로 센다
+    private <T> T await(CompletableFuture<T> result, long timeoutMs, long start, CompletableFuture<?> exchange) {
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            circuitBreaker.onFailure();
+            record("timeout", start);
+            throw new AiUnavailableException("AI 응답 시간이 초과되었습니다.", e);
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            record("io_error", start);
+            throw new AiUnavailableException("AI 서버에 연결할 수 없습니다.", e.getCause());
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            circuitBreaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new AiUnavailableException("AI 요청이 중단되었습니다.", e);
+        }
+    }
+
+    private void checkStatus(int status, long start) {
+        if (status == 429 || status >= 500) {
+            circuitBreaker.onFailure();
+            record("upstream_error", start);
+            throw new AiUnavailableException("AI 서버 오류입니다. status=" + status);
+        }
+
+        // 여기부터는 업스트림이 살아 있는 것
+        circuitBreaker.onSuccess();
+        if (status >= 400) {
+            record("rejected", start);
+            throw new IllegalStateException("AI 요청이 거절되었습니다. status=" + status);
+        }
+    }
+
+    // SSE 본문을 줄 단위로 받아 "data: {...}" 의 delta 텍스트만 모은다 ("data: [DONE]" 이면 끝)
+    private final class DeltaSubscriber implements Flow.Subscriber<String> {
+
+        private final Consumer<String> onDelta;
+        private final StringBuilder text = new StringBuilder();
+        private final CompletableFuture<String> done = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        private DeltaSubscriber(Consumer<String> onDelta) {
+            this.onDelta = onDelta;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (done.isDone() || !line.startsWith("data:")) return;
+
+            String data = line.substring(5).strip();
+            if (data.isEmpty()) return;
+            if ("[DONE]".equals(data)) {
+                done.complete(text.toString());
+                return;
+            }
+
+            try {
+                String delta = objectMapper.readValue(data, AiApiResponse.class).firstDelta();
+                if (delta != null && !delta.isEmpty()) {
+                    text.append(delta);
+                    onDelta.accept(delta);
+                }
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(text.toString());
+        }
+    }
+
+    private void record(String result, long startNanos) {
+        Timer.builder("ai.client.requests")
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(startNanos == 0 ? 0 : System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
     }
 }
@@ -1,4 +1,34 @@
 package org.jyr.postbox.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+// chat/completions 요청 본문 (OpenAI 호환 형식)
+@Getter
+@Builder
 public class AiApiRequest {
+
+    private String model;
+    private List<Message> messages;
+
+    @JsonProperty("max_tokens")
+    private int maxTokens;
+
+    // true 면 응답이 SSE(data: {...} 줄) 로 조각조각 온다
+    private boolean stream;
+
+    public record Message(String role, String content) {
+    }
+
+    public static AiApiRequest ofPrompt(String model, String prompt, int maxTokens, boolean stream) {
+        return AiApiRequest.builder()
+                .model(model)
+                .messages(List.of(new Message("user", prompt)))
+                .maxTokens(maxTokens)
+                .stream(stream)
+                .build();
+    }
 }
@@ -1,4 +1,47 @@
 package org.jyr.postbox.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// chat/completions 응답 본문 중 필요한 부분만 (나머지 필드는 무시)
+// 스트리밍이면 SSE 한 줄(data: {...}) 이 이 형태이고 message 대신 delta 가 온다
+@Getter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class AiApiResponse {
+
+    private List<Choice> choices;
+
+    @Getter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Choice {
+        private Message message;
+        private Message delta;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Message {
+        private String role;
+        private String content;
+    }
+
+    // 첫 번째 답변 텍스트 (없으면 null)
+    public String firstContent() {
+        if (choices == null || choices.isEmpty()) return null;
+        Message message = choices.get(0).getMessage();
+        return message == null ? null : message.getContent();
+    }
+
+    // 스트리밍 조각의 텍스트 (없으면 null)
+    public String firstDelta() {
+        if (choices == null || choices.isEmpty()) return null;
+        Message delta = choices.get(0).getDelta();
+        return delta == null ? null : delta.getContent();
+    }
 }
@@ -0,0 +1,153 @@
+package org.jyr.postbox.ai.job;
+
+import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.domain.*;
+import org.jyr.postbox.repository.AiReplyJobRepository;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.service.BoxStatsService;
+import org.jyr.postbox.service.NotificationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * AI 답변 작업 큐의 DB 작업 모음.
+ * 워커는 AI 호출을 트랜잭션 밖에서 하고, 선점/완료/실패 기록만 여기서 짧게 커밋한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class AiReplyJobService {
+
+    private final AiReplyJobRepository aiReplyJobRepository;
+    private final MessageRepository messageRepository;
+    private final NotificationService notificationService;
+    private final BoxStatsService boxStatsService;
+
+    @Value("${app.ai.job.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.ai.job.initial-backoff-ms:2000}")
+    private long initialBackoffMs;
+
+    @Value("${app.ai.job.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    // =============== 작업 등록 (메시지 작성 트랜잭션 안에서 호출) ===============
+    @Transactional
+    public Long enqueue(Long messageId) {
+        AiReplyJob job = aiReplyJobRepository.save(
+                AiReplyJob.builder()
+                        .messageId(messageId)
+                        .status(AiReplyJobStatus.PENDING)
+                        .attempts(0)
+                        .build()
+        );
+        return job.getId();
+    }
+
+    // =============== 처리 가능한 작업 선점 ===============
+    @Transactional
+    public List<AiReplyJob> claimDueJobs(int limit) {
+        if (limit <= 0) return List.of();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AiReplyJob> candidates = aiReplyJobRepository
+                .findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                        AiReplyJobStatus.PENDING, now, PageRequest.of(0, limit));
+
+        List<AiReplyJob> claimed = new ArrayList<>();
+        for (AiReplyJob job : candidates) {
+            // 다른 노드가 먼저 가져갔으면 0
+            if (aiReplyJobRepository.claim(job.getId(), now) == 1) {
+                claimed.add(job);
+            }
+        }
+        return claimed;
+    }
+
+    // =============== 멈춘 작업 복구 ===============
+    @Transactional
+    public int requeueStale(LocalDateTime staleBefore) {
+        return aiReplyJobRepository.requeueStale(staleBefore, LocalDateTime.now());
+    }
+
+    // =============== AI 호출용 메시지 조회 ===============
+    @Transactional(readOnly = true)
+    public Optional<Message> findMessage(Long messageId) {
+        // 트랜잭션 밖에서 box 설정(캐시 사용 여부)을 읽으므로 같이 로딩
+        return messageRepository.findWithBoxById(messageId);
+    }
+
+    // =============== 성공: 답변 저장 + 알림 ===============
+    @Transactional
+    public void complete(Long jobId, Long messageId, String aiText) {
+        AiReplyJob job = aiReplyJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("AI 작업을 찾을 수 없습니다. id=" + jobId));
+
+        Message message = messageRepository.findWithBoxById(messageId).orElse(null);
+
+        // 그 사이에 주인이 직접 답변했으면 덮어쓰지 않는다 (조건부 UPDATE 가 1 일 때만 카운트 / 알림)
+        if (message != null
+                && messageRepository.writeReplyIfAbsent(messageId, aiText, ReplyAuthorType.AI, LocalDateTime.now()) == 1) {
+            boxStatsService.onReplyAdded(message.getBox().getId());
+
+            notificationService.createNotification(
+                    message.getBox().getOwner().getId(),
+                    NotificationType.AI_REPLY,
+                    "AI 답변이 도착했어요!",
+                    "/me/messages/" + message.getId(),
+                    message.getId()
+            );
+        }
+
+        job.setStatus(AiReplyJobStatus.DONE);
+        job.setLockedAt(null);
+        job.setLastError(null);
+    }
+
+    // =============== 건너뜀: 이미 답변이 있음 (AI 호출 없이 완료) ===============
+    @Transactional
+    public void skip(Long jobId) {
+        aiReplyJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(AiReplyJobStatus.DONE);
+            job.setLockedAt(null);
+            job.setLastError(null);
+        });
+    }
+
+    // =============== 실패: 백오프 후 재시도 or 포기 ===============
+    /**
+     * @return 재시도 예약이면 true, 최종 실패면 false
+     */
+    @Transactional
+    public boolean fail(Long jobId, String error, boolean retryable) {
+        AiReplyJob job = aiReplyJobRepository.findById(jobId).orElse(null);
+        if (job == null) return false;
+
+        job.setLockedAt(null);
+        job.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 500)));
+
+        if (!retryable || job.getAttempts() >= maxAttempts) {
+            job.setStatus(AiReplyJobStatus.FAILED);
+            return false;
+        }
+
+        // 지수 백오프: initial * 2^(attempts-1), 상한 maxBackoff
+        long backoff = initialBackoffMs << Math.min(job.getAttempts() - 1, 20);
+        backoff = Math.min(backoff, maxBackoffMs);
+
+        job.setStatus(AiReplyJobStatus.PENDING);
+        job.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff * 1_000_000L));
+        return true;
+    }
+
+    public long countPending() {
+        return aiReplyJobRepository.countByStatus(AiReplyJobStatus.PENDING);
+    }
+}
@@ -0,0 +1,162 @@
+package org.jyr.postbox.ai.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.ai.service.AiReplyClaim;
+import org.jyr.postbox.ai.service.AiReplyClaimService;
+import org.jyr.postbox.ai.service.AiReplyService;
+import org.jyr.postbox.domain.AiReplyJob;
+import org.jyr.postbox.domain.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI 답변 작업 큐를 백그라운드에서 처리하는 워커.
+ * - 주기적으로 DB 에서 처리 가능한 작업을 "빈 슬롯 수"만큼만 선점해서 고정 크기 풀에 넘긴다.
+ * - 종료 시에는 새 작업 선점을 멈추고, 이미 돌고 있는 작업이 끝날 때까지 기다린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiReplyJobWorker {
+
+    private final AiReplyJobService aiReplyJobService;
+    private final AiReplyService aiReplyService;
+    private final AiReplyClaimService aiReplyClaimService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.job.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.ai.job.stale-after-ms:600000}")
+    private long staleAfterMs;
+
+    @Value("${app.ai.job.shutdown-timeout-seconds:30}")
+    private int shutdownTimeoutSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean accepting = true;
+
+    private ThreadPoolTaskExecutor executor;
+    private Counter completedCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ai-reply-");
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        // 빈 슬롯만큼만 선점해서 넘기므로 큐가 길어질 일은 없다
+        executor.setQueueCapacity(concurrency);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(shutdownTimeoutSeconds);
+        executor.initialize();
+
+        Gauge.builder("ai.reply.jobs.pending", aiReplyJobService, AiReplyJobService::countPending)
+                .description("DB 에서 대기 중인 AI 답변 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("ai.reply.jobs.in-flight", inFlight, AtomicInteger::get)
+                .description("이 노드에서 처리 중인 AI 답변 작업 수")
+                .register(meterRegistry);
+
+        completedCounter = meterRegistry.counter("ai.reply.jobs", "result", "completed");
+        retriedCounter = meterRegistry.counter("ai.reply.jobs", "result", "retried");
+        failedCounter = meterRegistry.counter("ai.reply.jobs", "result", "failed");
+    }
+
+    // =============== 폴링: 빈 슬롯만큼 선점 ===============
+    @Scheduled(fixedDelayString = "${app.ai.job.poll-interval-ms:1000}")
+    public void poll() {
+        if (!accepting) return;
+
+        int free = concurrency - inFlight.get();
+        if (free <= 0) return;
+
+        List<AiReplyJob> jobs = aiReplyJobService.claimDueJobs(free);
+        for (AiReplyJob job : jobs) {
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> process(job.getId(), job.getMessageId()));
+            } catch (RuntimeException e) {
+                // 풀이 이미 닫혔으면 다시 대기열로 돌려둔다
+                inFlight.decrementAndGet();
+                aiReplyJobService.fail(job.getId(), "executor rejected", true);
+            }
+        }
+    }
+
+    // =============== 멈춘 작업 복구 ===============
+    @Scheduled(fixedDelayString = "${app.ai.job.recover-interval-ms:60000}")
+    public void recoverStale() {
+        if (!accepting) return;
+
+        int requeued = aiReplyJobService.requeueStale(
+                LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000L));
+        if (requeued > 0) {
+            log.warn("AI reply jobs requeued after stale lock. count={}", requeued);
+        }
+    }
+
+    // =============== 작업 1건 처리 (AI 호출은 트랜잭션 밖) ===============
+    private void process(Long jobId, Long messageId) {
+        try {
+            Message message = aiReplyJobService.findMessage(messageId).orElse(null);
+            if (message == null) {
+                // 그 사이 메시지가 삭제됨 → 재시도 의미 없음
+                aiReplyJobService.fail(jobId, "message not found", false);
+                failedCounter.increment();
+                return;
+            }
+
+            // 수동 생성 요청(다른 노드 포함)과 같은 메시지로 AI 를 두 번 부르지 않도록 선점
+            AiReplyClaim claim = aiReplyClaimService.tryClaim(messageId);
+            if (claim == AiReplyClaim.ANSWERED) {
+                aiReplyJobService.skip(jobId);
+                completedCounter.increment();
+                return;
+            }
+            if (claim == AiReplyClaim.IN_PROGRESS) {
+                // 다른 쪽이 만드는 중 → 백오프 후 다시 확인
+                aiReplyJobService.fail(jobId, "ai reply in progress elsewhere", true);
+                retriedCounter.increment();
+                return;
+            }
+
+            try {
+                String aiText = aiReplyService.generateReply(message);
+                aiReplyJobService.complete(jobId, messageId, aiText);
+                completedCounter.increment();
+            } finally {
+                aiReplyClaimService.release(messageId);
+            }
+
+        } catch (Exception e) {
+            log.warn("AI reply job failed. jobId={}, messageId={}", jobId, messageId, e);
+            boolean retry = aiReplyJobService.fail(jobId, e.toString(), true);
+            (retry ? retriedCounter : failedCounter).increment();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // =============== 종료: 새 작업 중단 + 처리 중인 작업 마무리 ===============
+    @PreDestroy
+    void shutdown() {
+        accepting = false;
+        log.info("AI reply worker draining. inFlight={}", inFlight.get());
+        executor.shutdown();
+    }
+}
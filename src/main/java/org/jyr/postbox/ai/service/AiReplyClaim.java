@@ -0,0 +1,8 @@
+package org.jyr.postbox.ai.service;
+
+// 메시지 단위 AI 답변 선점 결과
+public enum AiReplyClaim {
+    CLAIMED,        // 내가 잡음 → AI 호출 후 complete / release
+    ANSWERED,       // 이미 답변이 있음
+    IN_PROGRESS     // 다른 요청(다른 노드, AI 작업 큐 포함)이 생성 중
+}
@@ -0,0 +1,60 @@
+package org.jyr.postbox.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.domain.Message;
+import org.jyr.postbox.domain.ReplyAuthorType;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.service.BoxStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 메시지 단위 AI 답변 선점 (DB 조건부 UPDATE).
+ * - 선점 → (트랜잭션 밖에서 AI 호출) → 저장 + 해제 / 실패 시 해제
+ * - 선점한 노드가 죽어도 stale 시간이 지나면 다른 요청이 다시 잡을 수 있다
+ * 각 메서드는 짧은 트랜잭션 하나 (AI 호출 동안 커넥션을 잡지 않도록)
+ */
+@Service
+@RequiredArgsConstructor
+public class AiReplyClaimService {
+
+    private final MessageRepository messageRepository;
+    private final BoxStatsService boxStatsService;
+
+    @Value("${app.ai.reply.claim-stale-ms:120000}")
+    private long claimStaleMs;
+
+    @Transactional
+    public AiReplyClaim tryClaim(Long messageId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (messageRepository.claimAiReply(messageId, now, now.minusNanos(claimStaleMs * 1_000_000L)) == 1) {
+            return AiReplyClaim.CLAIMED;
+        }
+        return messageRepository.existsByIdAndReplyContentIsNotNull(messageId)
+                ? AiReplyClaim.ANSWERED
+                : AiReplyClaim.IN_PROGRESS;
+    }
+
+    // AI 답변 저장 + 선점 해제. 그 사이 주인이 직접 답했으면 덮어쓰지 않는다
+    // (답변 유무 확인과 저장을 조건부 UPDATE 한 번으로 → 저장된 경우에만 박스 답변 수 +1)
+    @Transactional
+    public boolean complete(Long messageId, String aiText) {
+        Message message = messageRepository.findWithBoxById(messageId).orElse(null);
+        if (message == null) return false;
+
+        if (messageRepository.writeReplyIfAbsent(messageId, aiText, ReplyAuthorType.AI, LocalDateTime.now()) == 0) {
+            messageRepository.releaseAiReplyClaim(messageId);
+            return false;
+        }
+        boxStatsService.onReplyAdded(message.getBox().getId());
+        return true;
+    }
+
+    @Transactional
+    public void release(Long messageId) {
+        messageRepository.releaseAiReplyClaim(messageId);
+    }
+}
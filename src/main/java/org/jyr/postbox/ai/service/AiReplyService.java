@@ -2,21 +2,51 @@ package org.jyr.postbox.ai.service;
 
 import lombok.RequiredArgsConstructor;
 import org.jyr.postbox.ai.client.AiClient;
+import org.jyr.postbox.cache.AiReplyCache;
 import org.jyr.postbox.domain.Message;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
 @Service
 @RequiredArgsConstructor
 public class AiReplyService {
 
     private final AiClient aiClient;
+    private final AiReplyCache aiReplyCache;
 
     /**
      * 메시지를 받아 AI 답변 텍스트만 생성
+     * 박스가 캐시를 끄지 않았으면 같은 프롬프트의 답변을 재사용 (message.box 가 로딩돼 있어야 함)
      */
     public String generateReply(Message message) {
         String prompt = buildPrompt(message.getContent());
-        return aiClient.generateReply(prompt);
+        if (!message.getBox().isAiReplyCacheEnabled()) {
+            return aiClient.generateReply(prompt);
+        }
+        return aiReplyCache.get(prompt, aiClient::generateReply);
+    }
+
+    /**
+     * 답변을 조각씩 onDelta 로 흘려보내고 전체 답변을 반환
+     * 캐시에 있던 답변은 한 조각으로 바로 보낸다
+     */
+    public String streamReply(Message message, Consumer<String> onDelta) {
+        String prompt = buildPrompt(message.getContent());
+        if (!message.getBox().isAiReplyCacheEnabled()) {
+            return aiClient.streamReply(prompt, onDelta);
+        }
+
+        AtomicBoolean streamed = new AtomicBoolean(false);
+        String reply = aiReplyCache.get(prompt, p -> {
+            streamed.set(true);
+            return aiClient.streamReply(p, onDelta);
+        });
+        if (!streamed.get()) {
+            onDelta.accept(reply);
+        }
+        return reply;
     }
 
     private String buildPrompt(String content) {
@@ -0,0 +1,67 @@
+package org.jyr.postbox.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 노드에서 같은 메시지로 동시에 들어온 AI 답변 요청을 하나로 합친다 (더블클릭 / 재시도).
+ * - 먼저 온 요청만 실제로 실행하고, 나머지는 그 결과(또는 예외)를 같이 받는다
+ * - 끝나면 바로 지우므로 결과를 캐시하지는 않음 (다른 노드와의 경쟁은 AiReplyClaimService 가 막음)
+ */
+@Component
+@RequiredArgsConstructor
+public class AiReplySingleFlight {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Long, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter leaderCounter;
+    private Counter joinedCounter;
+
+    @PostConstruct
+    void init() {
+        leaderCounter = meterRegistry.counter("ai.reply.single-flight", "role", "leader");
+        joinedCounter = meterRegistry.counter("ai.reply.single-flight", "role", "joined");
+    }
+
+    public String execute(Long messageId, Supplier<String> call) {
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(messageId, mine);
+
+        if (running != null) {
+            joinedCounter.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error err) throw err;
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        leaderCounter.increment();
+        try {
+            String result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (Throwable t) {
+            // Error(OOM / AssertionError 등)도 넘겨줘야 기다리던 요청이 영원히 막히지 않음
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(messageId, mine);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,136 @@
+package org.jyr.postbox.ai.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.domain.Message;
+import org.jyr.postbox.exception.AiUnavailableException;
+import org.jyr.postbox.service.MessageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 답변을 SSE 로 조각씩 내려보낸다.
+ * - 검증 + 선점은 요청 스레드에서 (실패하면 스트림을 열기 전에 4xx)
+ * - AI 호출은 가상 스레드에서, 받는 조각마다 "delta" 이벤트 → 끝나면 저장 후 "done"
+ * - 중간에 클라이언트가 끊겨도 생성은 끝까지 받아서 저장 (이미 비용을 낸 답변을 버리지 않도록)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AiReplyStreamService {
+
+    private final MessageService messageService;
+    private final AiReplyClaimService aiReplyClaimService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.client.stream-timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    private ExecutorService executor;
+    private Timer firstDeltaTimer;
+    private Timer completedTimer;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        firstDeltaTimer = Timer.builder("ai.reply.stream.first-delta")
+                .description("스트리밍 시작부터 첫 조각을 보낼 때까지")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        completedTimer = Timer.builder("ai.reply.stream.completed")
+                .description("스트리밍 시작부터 저장까지")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter stream(Long messageId, String loginUserId) {
+        Message message = messageService.claimAiReply(messageId, loginUserId);
+
+        // AI 스트림 마감 시간 + 여유
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs + 5_000);
+        try {
+            executor.execute(() -> run(message, emitter));
+        } catch (RejectedExecutionException e) {
+            // 종료 중이라 실행 못 함 → 선점을 풀어둬야 stale 시간까지 기다리지 않고 다시 요청 가능
+            aiReplyClaimService.release(messageId);
+            throw new AiUnavailableException("서버가 종료 중입니다. 잠시 후 다시 시도해 주세요.", e);
+        }
+        return emitter;
+    }
+
+    private void run(Message message, SseEmitter emitter) {
+        long start = System.nanoTime();
+        ClientSink sink = new ClientSink(emitter);
+
+        try {
+            String replyContent = messageService.streamClaimedAiReply(message, delta -> {
+                if (sink.firstSent()) {
+                    firstDeltaTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                sink.send(SseEmitter.event().name("delta").data(delta, MediaType.TEXT_PLAIN));
+            });
+            completedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            sink.send(SseEmitter.event().name("done")
+                    .data(Map.of("messageId", message.getId(), "replyContent", replyContent)));
+        } catch (RuntimeException e) {
+            log.warn("AI reply stream failed. messageId={}", message.getId(), e);
+            // Map.of 는 null 값을 받지 않음
+            String reason = e.getMessage() != null ? e.getMessage() : "AI 답변 생성에 실패했습니다.";
+            sink.send(SseEmitter.event().name("error").data(Map.of("message", reason)));
+        } finally {
+            sink.complete();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // 클라이언트가 끊기면 이후 전송만 건너뛴다 (생성은 계속)
+    private static final class ClientSink {
+
+        private final SseEmitter emitter;
+        private boolean connected = true;
+        private boolean anySent;
+
+        private ClientSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        boolean firstSent() {
+            boolean first = !anySent;
+            anySent = true;
+            return first;
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            if (!connected) return;
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                connected = false;
+            }
+        }
+
+        void complete() {
+            if (connected) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.jyr.postbox.ai.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 부하 테스트용 로컬 AI 서버 (chat/completions 흉내).
+ * - POST /v1/chat/completions 에 고정 답변을 돌려준다
+ * - 지연(latency + 0~jitter ms), 오류 비율(error-rate, 응답 코드 error-status) 을 실행 중에도 바꿀 수 있다
+ * - 요청에 "stream":true 가 있으면 SSE 로 단어 단위 조각을 token-delay 간격으로 보낸다 (지연은 첫 조각 전)
+ * - 요청마다 가상 스레드 하나 → 지연을 크게 줘도 동시 요청이 막히지 않음
+ * 외부 API 없이 HttpAiClient 의 처리량 / 꼬리 지연 / 서킷 동작을 재볼 때 쓴다.
+ */
+@Slf4j
+public class StubAiServer {
+
+    static final String REPLY = "🦁 사자왕자(stub): 많이 힘들었겠다. 오늘은 푹 쉬어도 괜찮아.";
+
+    private static final Pattern STREAM_FLAG = Pattern.compile("\"stream\"\\s*:\\s*true");
+
+    private final int port;
+
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+    private volatile long tokenDelayMs = 30;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    // port 0 이면 빈 포트를 잡는다 (port() 로 확인)
+    public StubAiServer(int port, long latencyMs, long jitterMs, double errorRate) {
+        this.port = port;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) return;
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("Stub AI server started. baseUrl={}", baseUrl());
+    }
+
+    public synchronized void stop() {
+        if (server == null) return;
+
+        server.stop(0);
+        executor.close();
+        server = null;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long errorCount() {
+        return errors.get();
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public void setJitterMs(long jitterMs) {
+        this.jitterMs = jitterMs;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public void setTokenDelayMs(long tokenDelayMs) {
+        this.tokenDelayMs = tokenDelayMs;
+    }
+
+    // =============== 요청 1건 ===============
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+
+            // 본문은 stream 여부만 보고 버린다 (연결 재사용을 위해 끝까지 소비)
+            String requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            boolean stream = STREAM_FLAG.matcher(requestBody).find();
+
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            sleep(latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0));
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                respond(exchange, errorStatus, "{\"error\":{\"message\":\"injected error\"}}");
+                return;
+            }
+
+            if (stream) {
+                respondStream(exchange);
+                return;
+            }
+
+            respond(exchange, 200, """
+                    {"id":"stub-%d","object":"chat.completion",\
+                    "choices":[{"index":0,"message":{"role":"assistant","content":"%s"},"finish_reason":"stop"}]}"""
+                    .formatted(requests.get(), REPLY));
+        }
+    }
+
+    // 단어 하나(뒤 공백 포함)씩 data: 줄로 보내고 [DONE] 으로 끝
+    private void respondStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            String[] tokens = REPLY.split("(?<= )");
+            for (int i = 0; i < tokens.length; i++) {
+                if (i > 0) sleep(tokenDelayMs);
+                out.write(("data: {\"choices\":[{\"index\":0,\"delta\":{\"content\":\"%s\"}}]}\n\n"
+                        .formatted(tokens[i])).getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void sleep(long delay) {
+        if (delay <= 0) return;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
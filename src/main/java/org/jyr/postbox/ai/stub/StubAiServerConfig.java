@@ -0,0 +1,26 @@
+package org.jyr.postbox.ai.stub;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// app.ai.stub.enabled=true 일 때만 앱 안에 stub AI 서버를 띄운다
+// (이때 app.ai.client.base-url=http://127.0.0.1:${app.ai.stub.port} 로 붙이면 오프라인 부하 테스트 가능)
+@Configuration
+@ConditionalOnProperty(name = "app.ai.stub.enabled", havingValue = "true")
+public class StubAiServerConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public StubAiServer stubAiServer(
+            @Value("${app.ai.stub.port:18080}") int port,
+            @Value("${app.ai.stub.latency-ms:800}") long latencyMs,
+            @Value("${app.ai.stub.jitter-ms:400}") long jitterMs,
+            @Value("${app.ai.stub.error-rate:0.0}") double errorRate,
+            @Value("${app.ai.stub.token-delay-ms:30}") long tokenDelayMs
+    ) {
+        StubAiServer server = new StubAiServer(port, latencyMs, jitterMs, errorRate);
+        server.setTokenDelayMs(tokenDelayMs);
+        return server;
+    }
+}
@@ -0,0 +1,113 @@
+package org.jyr.postbox.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 같은 프롬프트의 AI 답변을 재사용하는 캐시 ("힘들어", "우울해" 처럼 짧고 반복되는 상담 글).
+ * - 키: 공백을 하나로 합치고 앞뒤를 자른 프롬프트의 SHA-256 (프롬프트 원문은 들고 있지 않음)
+ * - 항목 수 + 대략적인 바이트 합계 두 가지로 크기를 제한, TTL 이 지나면 다시 생성
+ * - 실패(예외)는 캐시하지 않음
+ */
+@Component
+@RequiredArgsConstructor
+public class AiReplyCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // 키(hex 64자) + 엔트리/노드 오버헤드 대략치
+    private static final int ENTRY_OVERHEAD_BYTES = 64 * 2 + 96;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.reply-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ai.reply-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.ai.reply-cache.max-weight-bytes:16777216}")
+    private long maxWeightBytes;
+
+    @Value("${app.ai.reply-cache.ttl-ms:21600000}")
+    private long ttlMs;
+
+    private TtlLruCache<String, String> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new TtlLruCache<>(maxEntries, ttlMs, maxWeightBytes,
+                reply -> ENTRY_OVERHEAD_BYTES + reply.length() * 2);
+
+        FunctionCounter.builder("ai.reply.cache.requests", cache, TtlLruCache::hitCount)
+                .tags("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.reply.cache.requests", cache, TtlLruCache::missCount)
+                .tags("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.reply.cache.evictions", cache, TtlLruCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("ai.reply.cache.size", cache, TtlLruCache::size)
+                .register(meterRegistry);
+        Gauge.builder("ai.reply.cache.weight", cache, TtlLruCache::weight)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("ai.reply.cache.hit-ratio", cache, AiReplyCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    // 캐시에 있으면 바로, 없으면 generator 로 만들어서 넣고 반환
+    public String get(String prompt, Function<String, String> generator) {
+        if (!enabled) {
+            return generator.apply(prompt);
+        }
+
+        String key = keyOf(prompt);
+        String cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        String reply = generator.apply(prompt);
+        if (reply != null && !reply.isBlank()) {
+            cache.put(key, reply);
+        }
+        return reply;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    static String normalize(String prompt) {
+        return WHITESPACE.matcher(prompt).replaceAll(" ").strip();
+    }
+
+    static String keyOf(String prompt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(normalize(prompt).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double hitRatio(TtlLruCache<?, ?> cache) {
+        long hits = cache.hitCount();
+        long total = hits + cache.missCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
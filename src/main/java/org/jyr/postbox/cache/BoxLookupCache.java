@@ -0,0 +1,108 @@
+package org.jyr.postbox.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.repository.BoxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * urlKey / 주인 PK / 주인 userId 로 박스 메타데이터를 찾는 캐시.
+ * - 공개 페이지 조회, 메시지 작성, 주인 화면마다 나가던 박스 조회를 줄인다
+ * - 박스 설정 변경(익명 허용, AI 모드) / 계정 삭제 시 evict 로 바로 무효화
+ * - 다른 노드에서 바뀐 값은 TTL 이 지나면 반영됨
+ */
+@Component
+@RequiredArgsConstructor
+public class BoxLookupCache {
+
+    private final BoxRepository boxRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.cache.box.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.cache.box.ttl-ms:300000}")
+    private long ttlMs;
+
+    private TtlLruCache<String, BoxSnapshot> byUrlKey;
+    private TtlLruCache<Long, BoxSnapshot> byOwnerId;
+    private TtlLruCache<String, BoxSnapshot> byOwnerUserId;
+
+    @PostConstruct
+    void init() {
+        byUrlKey = new TtlLruCache<>(maxSize, ttlMs);
+        byOwnerId = new TtlLruCache<>(maxSize, ttlMs);
+        byOwnerUserId = new TtlLruCache<>(maxSize, ttlMs);
+
+        register("urlKey", byUrlKey);
+        register("ownerId", byOwnerId);
+        register("ownerUserId", byOwnerUserId);
+    }
+
+    public Optional<BoxSnapshot> findByUrlKey(String urlKey) {
+        return Optional.ofNullable(byUrlKey.get(urlKey,
+                key -> boxRepository.findSnapshotByUrlKey(key).map(this::putAll).orElse(null)));
+    }
+
+    public Optional<BoxSnapshot> findByOwnerId(Long ownerId) {
+        return Optional.ofNullable(byOwnerId.get(ownerId,
+                key -> boxRepository.findSnapshotByOwnerId(key).map(this::putAll).orElse(null)));
+    }
+
+    public Optional<BoxSnapshot> findByOwnerUserId(String ownerUserId) {
+        return Optional.ofNullable(byOwnerUserId.get(ownerUserId,
+                key -> boxRepository.findSnapshotByOwnerUserId(key).map(this::putAll).orElse(null)));
+    }
+
+    // 어느 키로 읽었든 세 키 모두 채워둔다 (무효화 때 한 번에 지우기 위해)
+    private BoxSnapshot putAll(BoxSnapshot snapshot) {
+        byUrlKey.put(snapshot.urlKey(), snapshot);
+        byOwnerId.put(snapshot.ownerId(), snapshot);
+        byOwnerUserId.put(snapshot.ownerUserId(), snapshot);
+        return snapshot;
+    }
+
+    // 박스 설정 변경 / 박스 삭제 시 호출
+    // 커밋 전에 다른 요청이 옛 값을 다시 채울 수 있으므로 커밋 후에 한 번 더 지운다
+    public void evict(Long ownerId, String ownerUserId, String urlKey) {
+        invalidate(ownerId, ownerUserId, urlKey);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(ownerId, ownerUserId, urlKey);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long ownerId, String ownerUserId, String urlKey) {
+        if (urlKey != null) byUrlKey.invalidate(urlKey);
+        if (ownerId != null) byOwnerId.invalidate(ownerId);
+        if (ownerUserId != null) byOwnerUserId.invalidate(ownerUserId);
+    }
+
+    private void register(String key, TtlLruCache<?, ?> cache) {
+        FunctionCounter.builder("box.cache.requests", cache, TtlLruCache::hitCount)
+                .tags("key", key, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("box.cache.requests", cache, TtlLruCache::missCount)
+                .tags("key", key, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("box.cache.evictions", cache, TtlLruCache::evictionCount)
+                .tags("key", key)
+                .register(meterRegistry);
+        Gauge.builder("box.cache.size", cache, TtlLruCache::size)
+                .tags("key", key)
+                .register(meterRegistry);
+    }
+}
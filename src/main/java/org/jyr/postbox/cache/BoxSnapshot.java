@@ -0,0 +1,16 @@
+package org.jyr.postbox.cache;
+
+/**
+ * 캐시용 박스 메타데이터 (거의 바뀌지 않는 값만).
+ * 주인 닉네임/프로필처럼 자주 바뀌는 값과 카운트는 넣지 않는다.
+ */
+public record BoxSnapshot(
+        Long id,
+        Long ownerId,          // 주인 User PK
+        String ownerUserId,    // 주인 로그인 아이디
+        String urlKey,
+        String title,
+        boolean allowAnonymous,
+        boolean aiMode
+) {
+}
@@ -0,0 +1,140 @@
+package org.jyr.postbox.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 크기 제한(LRU) + 만료 시간(TTL)이 있는 간단한 인메모리 캐시.
+ * - 가장 오래 안 쓴 항목부터 밀려남
+ * - 만료된 항목은 조회 시점에 버리고 다시 로딩
+ * - 로더는 락 밖에서 실행 (DB 조회 중에 다른 스레드가 막히지 않도록)
+ * - weigher 를 주면 항목별 무게(대략 바이트) 합계도 maxWeight 안으로 유지 (값 크기가 제각각일 때)
+ */
+public class TtlLruCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtNanos, int weight) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long maxWeight;
+    private final ToIntFunction<? super V> weigher;
+    private final LinkedHashMap<K, Entry<V>> map;
+    private long totalWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TtlLruCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, Long.MAX_VALUE, v -> 0);
+    }
+
+    public TtlLruCache(int maxSize, long ttlMillis, long maxWeight, ToIntFunction<? super V> weigher) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        // accessOrder = true → get 할 때마다 맨 뒤로 (LRU)
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = size() > TtlLruCache.this.maxSize;
+                if (evict) {
+                    evictions.increment();
+                    totalWeight -= eldest.getValue().weight();
+                }
+                return evict;
+            }
+        };
+    }
+
+    // 캐시에 있으면 값, 없거나 만료됐으면 null (hit/miss 집계 포함)
+    public V getIfPresent(K key) {
+        synchronized (this) {
+            Entry<V> e = map.get(key);
+            if (e != null && e.expiresAtNanos() - System.nanoTime() > 0) {
+                hits.increment();
+                return e.value();
+            }
+            if (e != null) {
+                remove(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    // 없으면 loader 로 읽어서 넣고 반환 (loader 가 null 이면 캐시하지 않음)
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public synchronized void put(K key, V value) {
+        int weight = weigher.applyAsInt(value);
+        if (weight > maxWeight) {
+            // 혼자서 한도를 넘는 값은 넣지 않는다 (다른 항목을 전부 밀어내지 않도록)
+            remove(key);
+            return;
+        }
+
+        Entry<V> previous = map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos, weight));
+        totalWeight += weight - (previous == null ? 0 : previous.weight());
+
+        // 무게 한도를 넘으면 가장 오래 안 쓴 것부터 밀어냄
+        Iterator<Entry<V>> it = map.values().iterator();
+        while (totalWeight > maxWeight && it.hasNext()) {
+            totalWeight -= it.next().weight();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        map.clear();
+        totalWeight = 0;
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = map.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight();
+        }
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,72 @@
+package org.jyr.postbox.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * JWT 인증 필터용 유저 권한/상태(+ 박스 id) 캐시 (userId 기준).
+ * - 인증된 요청마다 나가던 users 조회를 없앤다
+ * - 정지/해제, 권한 변경, 계정 삭제 시 evict 로 바로 무효화
+ * - 다른 노드에서 바뀐 값은 TTL 이 지나면 반영되므로 TTL 은 짧게 둔다
+ */
+@Component
+@RequiredArgsConstructor
+public class UserAuthCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.cache.user-auth.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.cache.user-auth.ttl-ms:60000}")
+    private long ttlMs;
+
+    private TtlLruCache<String, UserAuthSnapshot> byUserId;
+
+    @PostConstruct
+    void init() {
+        byUserId = new TtlLruCache<>(maxSize, ttlMs);
+
+        FunctionCounter.builder("user.auth.cache.requests", byUserId, TtlLruCache::hitCount)
+                .tags("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.auth.cache.requests", byUserId, TtlLruCache::missCount)
+                .tags("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.auth.cache.evictions", byUserId, TtlLruCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("user.auth.cache.size", byUserId, TtlLruCache::size)
+                .register(meterRegistry);
+    }
+
+    // 없는 유저는 캐시하지 않음 (가입 직후 토큰도 바로 통과하도록)
+    public Optional<UserAuthSnapshot> findByUserId(String userId) {
+        return Optional.ofNullable(byUserId.get(userId,
+                key -> userRepository.findAuthSnapshotByUserId(key).orElse(null)));
+    }
+
+    // 커밋 전에 다른 요청이 옛 값을 다시 채울 수 있으므로 커밋 후에 한 번 더 지운다
+    public void evict(String userId) {
+        byUserId.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    byUserId.invalidate(userId);
+                }
+            });
+        }
+    }
+}
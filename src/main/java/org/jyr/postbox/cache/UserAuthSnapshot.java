@@ -0,0 +1,23 @@
+package org.jyr.postbox.cache;
+
+import org.jyr.postbox.domain.UserRole;
+import org.jyr.postbox.domain.UserStatus;
+
+/**
+ * 인증 필터가 매 요청 확인하는 유저 정보 (권한 / 정지 여부).
+ */
+public record UserAuthSnapshot(
+        Long id,
+        String userId,
+        UserRole role,
+        UserStatus status,
+        Long boxId             // 박스가 없으면 null
+) {
+    public boolean isBanned() {
+        return status == UserStatus.BANNED;
+    }
+
+    public boolean isDeleting() {
+        return status == UserStatus.DELETING;
+    }
+}
@@ -0,0 +1,10 @@
+package org.jyr.postbox.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// @Scheduled 백그라운드 작업(AI 답변 큐 등) 활성화
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,7 +1,8 @@
 package org.jyr.postbox.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
-import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.cache.UserAuthCache;
 import org.jyr.postbox.security.JwtAuthenticationFilter;
 import org.jyr.postbox.security.JwtTokenProvider;
 import org.springframework.context.annotation.Bean;
@@ -30,7 +31,7 @@ import static org.springframework.http.HttpMethod.POST;
 public class SecurityConfig {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final UserAuthCache userAuthCache;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -46,6 +47,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(OPTIONS, "/**").permitAll()
 
+                        // ✅ SSE / 스트리밍 응답의 async 재디스패치 (원 요청에서 이미 인증됨)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // ✅ 로그인/회원가입
                         .requestMatchers("/api/auth/**").permitAll()
 
@@ -57,12 +61,14 @@ public class SecurityConfig {
 
                         // ✅ 관리자
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // ✅ 그 외는 인증 필요 (me 포함)
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(
-                        new JwtAuthenticationFilter(jwtTokenProvider, userRepository),
+                        new JwtAuthenticationFilter(jwtTokenProvider, userAuthCache),
                         UsernamePasswordAuthenticationFilter.class
                 );
 
@@ -0,0 +1,36 @@
+package org.jyr.postbox.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.service.BoxStatsReconciler;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/box-stats")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminBoxStatsController {
+
+    private final BoxStatsReconciler boxStatsReconciler;
+
+    // 박스 카운트 전체 재계산 시작
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcile() {
+        boolean started = boxStatsReconciler.start();
+        if (!started) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "이미 재계산이 진행 중입니다."));
+        }
+        return ResponseEntity.accepted().body(boxStatsReconciler.status());
+    }
+
+    // 진행 상황
+    @GetMapping("/reconcile")
+    public ResponseEntity<?> status() {
+        return ResponseEntity.ok(boxStatsReconciler.status());
+    }
+}
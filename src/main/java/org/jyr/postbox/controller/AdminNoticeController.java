@@ -0,0 +1,26 @@
+package org.jyr.postbox.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.dto.admin.BroadcastNoticeRequestDTO;
+import org.jyr.postbox.service.NotificationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/notices")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminNoticeController {
+
+    private final NotificationService notificationService;
+
+    // 전체 공지 발행 (유저 수와 상관없이 1행 저장, 연결된 유저에게는 SSE 로 바로 전달)
+    @PostMapping
+    public ResponseEntity<?> publish(@RequestBody BroadcastNoticeRequestDTO request) {
+        Long id = notificationService.publishBroadcastNotice(request.getAlertMessage(), request.getLinkUrl());
+        return ResponseEntity.ok(Map.of("id", id));
+    }
+}
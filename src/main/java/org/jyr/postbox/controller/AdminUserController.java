@@ -1,10 +1,29 @@
 package org.jyr.postbox.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.account.AccountDeletionJobService;
+import org.jyr.postbox.domain.UserRole;
+import org.jyr.postbox.domain.UserStatus;
+import org.jyr.postbox.dto.admin.AccountDeletionStatusDTO;
+import org.jyr.postbox.dto.admin.AdminUserListItemDTO;
+import org.jyr.postbox.dto.admin.AdminUserPageDTO;
+import org.jyr.postbox.dto.admin.AdminUserSearchField;
 import org.jyr.postbox.service.AdminUserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/admin/users")
@@ -13,11 +32,63 @@ import org.springframework.web.bind.annotation.*;
 public class AdminUserController {
 
     private final AdminUserService adminUserService;
+    private final AccountDeletionJobService accountDeletionJobService;
+    private final ObjectMapper objectMapper;
+
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String CSV_HEADER = "id,userId,email,nickname,addressId,role,status,createdAt\n";
 
-    // 1️⃣ 유저 전체 조회
+    // 1️⃣ 유저 목록 조회 (id 커서 기반)
+    // GET /api/admin/users?q=&field=&status=&role=&cursor=&size=
+    //  - field: USER_ID / EMAIL / NICKNAME 중 하나만 검색 (생략하면 세 컬럼 모두)
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
-        return ResponseEntity.ok(adminUserService.getAllUsers());
+    public ResponseEntity<AdminUserPageDTO> getUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) AdminUserSearchField field,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(adminUserService.getUsers(q, field, status, role, cursor, size));
+    }
+
+    // 유저 목록 내보내기 (한 행씩 흘려보냄, 메모리 일정)
+    // GET /api/admin/users/export?format=csv|ndjson&q=&field=&status=&role=
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) AdminUserSearchField field,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) UserRole role
+    ) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("지원하지 않는 형식입니다. (csv / ndjson)");
+        }
+
+        StreamingResponseBody body = ndjson
+                ? out -> {
+                    // 한 줄에 JSON 하나 (루트 값 사이 구분자를 공백 대신 줄바꿈으로)
+                    try (JsonGenerator gen = objectMapper.writer().withRootValueSeparator("\n").createGenerator(out)) {
+                        adminUserService.exportUsers(q, field, status, role, gen::writePOJO);
+                        gen.writeRaw('\n');
+                    }
+                }
+                : out -> {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                    writer.write(CSV_HEADER);
+                    adminUserService.exportUsers(q, field, status, role, row -> writeCsvRow(writer, row));
+                    writer.flush();
+                };
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? NDJSON : CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + (ndjson ? "ndjson" : "csv") + "\"")
+                .body(body);
     }
 
     // 2️⃣ 유저 정지
@@ -47,6 +118,44 @@ public class AdminUserController {
         return ResponseEntity.ok().build();
     }
 
+    // 계정 삭제 진행 상황
+    @GetMapping("/{userId}/deletion")
+    public ResponseEntity<?> getDeletionStatus(@PathVariable Long userId) {
+        return accountDeletionJobService.findByUserId(userId)
+                .map(AccountDeletionStatusDTO::from)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
+    private void writeCsvRow(Writer writer, AdminUserListItemDTO row) {
+        try {
+            writer.write(String.join(",",
+                    String.valueOf(row.getId()),
+                    csvCell(row.getUserId()),
+                    csvCell(row.getEmail()),
+                    csvCell(row.getNickname()),
+                    csvCell(row.getAddressId()),
+                    row.getRole(),
+                    row.getStatus().name(),
+                    row.getCreatedAt() == null ? "" : row.getCreatedAt().toString()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    // 쉼표/따옴표/줄바꿈은 따옴표로 감싸고, 스프레드시트 수식으로 해석될 값(=,+,-,@ 시작)은 ' 를 붙임
+    private static String csvCell(String value) {
+        if (value == null) {
+            return "";
+        }
+        String v = value;
+        if (!v.isEmpty() && "=+-@".indexOf(v.charAt(0)) >= 0) {
+            v = "'" + v;
+        }
+        if (v.contains(",") || v.contains("\"") || v.contains("\n") || v.contains("\r")) {
+            v = "\"" + v.replace("\"", "\"\"") + "\"";
+        }
+        return v;
+    }
 }
@@ -1,15 +1,20 @@
 package org.jyr.postbox.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.jyr.postbox.domain.User;
+import org.jyr.postbox.ai.backfill.AiBackfillJobService;
+import org.jyr.postbox.dto.box.AiBackfillStatusDTO;
 import org.jyr.postbox.dto.box.BoxHeaderDTO;
 import org.jyr.postbox.dto.box.MyBoxResponseDTO;
 import org.jyr.postbox.dto.message.MessagePageDTO;
+import org.jyr.postbox.security.LoginUser;
 import org.jyr.postbox.service.BoxService;
 import org.jyr.postbox.service.MessageService;
-import org.jyr.postbox.service.UserService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,19 +22,37 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "http://localhost:5173")
 public class BoxController {
 
-    private final UserService userService;
     private final BoxService boxService;
     private final MessageService messageService;
+    private final AiBackfillJobService aiBackfillJobService;
+    private final ObjectMapper objectMapper;
 
 
-    // 내 박스 전체 정보 + 메시지 요약 리스트
+    // 내 박스 전체 정보 + 메시지 요약 리스트 (로그인 유저 기준)
     @GetMapping("/me/box")
-    public ResponseEntity<MyBoxResponseDTO> getMyBox(@RequestParam("userId") String userId) {
-        User owner = userService.findByUserId(userId);
-        MyBoxResponseDTO dto = messageService.getMyBox(owner);
+    public ResponseEntity<MyBoxResponseDTO> getMyBox(LoginUser loginUser) {
+        MyBoxResponseDTO dto = messageService.getMyBox(loginUser);
         return ResponseEntity.ok(dto);
     }
 
+    // 내 박스 전체 메시지 요약을 한 건씩 흘려보냄 (JSON 배열, 메모리 일정)
+    // GET /api/me/box/messages/stream
+    @GetMapping(value = "/me/box/messages/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMyBoxMessages(LoginUser loginUser) {
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+                gen.writeStartArray();
+                messageService.streamMessagesForOwner(loginUser, gen::writePOJO);
+                gen.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
      //공개 박스 헤더 정보
      // GET /api/q/{urlKey}/header
     @GetMapping("/q/{urlKey}/header")
@@ -82,25 +105,58 @@ public class BoxController {
     }
 
     // ✅ 박스: 익명(비회원) 글쓰기 허용 토글
-    // PUT /api/me/box/anonymous?userId=ororong1&allowAnonymous=true
+    // PUT /api/me/box/anonymous?allowAnonymous=true
     @PutMapping("/me/box/anonymous")
     public ResponseEntity<Void> updateAllowAnonymous(
-            @RequestParam("userId") String userId,
+            LoginUser loginUser,
             @RequestParam("allowAnonymous") boolean allowAnonymous
     ) {
-        boxService.updateAllowAnonymous(userId, allowAnonymous);
+        boxService.updateAllowAnonymous(loginUser, allowAnonymous);
         return ResponseEntity.ok().build();
     }
 
     @PutMapping("/me/settings/ai")
     public ResponseEntity<Void> updateAiMode(
-            @RequestParam String userId,
+            LoginUser loginUser,
+            @RequestParam boolean enabled
+    ) {
+        boxService.updateAiMode(loginUser, enabled);
+        return ResponseEntity.ok().build();
+    }
+
+    // 같은 내용의 글에 캐시된 AI 답변 재사용 (끄면 항상 새로 생성)
+    // PUT /api/me/settings/ai/cache?enabled=false
+    @PutMapping("/me/settings/ai/cache")
+    public ResponseEntity<Void> updateAiReplyCache(
+            LoginUser loginUser,
             @RequestParam boolean enabled
     ) {
-        boxService.updateAiMode(userId, enabled);
+        boxService.updateAiReplyCache(loginUser, enabled);
         return ResponseEntity.ok().build();
     }
 
+    // ✅ 답변 없는 메시지에 AI 답변 일괄 작성 (AI 모드를 켜면 자동 시작)
+    // GET /api/me/box/ai-backfill : 진행 상황 (작업이 없으면 404)
+    @GetMapping("/me/box/ai-backfill")
+    public ResponseEntity<?> getAiBackfillStatus(LoginUser loginUser) {
+        return aiBackfillJobService.findMine(loginUser)
+                .map(AiBackfillStatusDTO::from)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // POST /api/me/box/ai-backfill : 시작 / 취소한 작업 재개 (끝난 작업은 처음부터 다시)
+    @PostMapping("/me/box/ai-backfill")
+    public ResponseEntity<AiBackfillStatusDTO> startAiBackfill(LoginUser loginUser) {
+        return ResponseEntity.accepted().body(AiBackfillStatusDTO.from(aiBackfillJobService.start(loginUser)));
+    }
+
+    // POST /api/me/box/ai-backfill/cancel : 진행 중인 chunk 까지만 저장하고 멈춤
+    @PostMapping("/me/box/ai-backfill/cancel")
+    public ResponseEntity<AiBackfillStatusDTO> cancelAiBackfill(LoginUser loginUser) {
+        return ResponseEntity.ok(AiBackfillStatusDTO.from(aiBackfillJobService.cancel(loginUser)));
+    }
+
 
 
 
@@ -1,17 +1,21 @@
 package org.jyr.postbox.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.ai.service.AiReplyStreamService;
 import org.jyr.postbox.domain.User;
 import org.jyr.postbox.dto.message.MessageCreateDTO;
+import org.jyr.postbox.dto.message.MessageCursorPageDTO;
 import org.jyr.postbox.dto.message.MessageDetailDTO;
 import org.jyr.postbox.dto.message.MessagePageDTO;
 import org.jyr.postbox.dto.message.MessageUpdateRequestDTO;
+import org.jyr.postbox.security.LoginUser;
 import org.jyr.postbox.service.MessageService;
 import org.jyr.postbox.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
 
@@ -22,6 +26,7 @@ public class MessageController {
 
     private final MessageService messageService;
     private final UserService userService;
+    private final AiReplyStreamService aiReplyStreamService;
 
     // =========================
     // 1. 메시지 작성 (익명 / 로그인 / 박스 주인)
@@ -54,17 +59,30 @@ public class MessageController {
         return ResponseEntity.ok(dto);
     }
 
+    // =========================
+    // 1-2. 공개 박스 - 커서 기반 목록 (COUNT 없음, 깊은 페이지도 같은 비용)
+    //      GET /api/boxes/{boxUrlKey}/messages/cursor?cursor=&size=
+    //      첫 페이지는 cursor 생략, 다음 페이지는 응답의 nextCursor 그대로 전달
+    // =========================
+    @GetMapping("/boxes/{boxUrlKey}/messages/cursor")
+    public ResponseEntity<MessageCursorPageDTO> getPublicMessagesByCursor(
+            @PathVariable String boxUrlKey,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(messageService.getPublicMessagesByCursor(boxUrlKey, cursor, size));
+    }
+
     // =========================
     // 2. MyBox - 메시지 목록 조회
     // =========================
     @GetMapping("/me/messages")
     public ResponseEntity<MessagePageDTO> myMessages(
-            @RequestParam("userId") Long userId,
+            LoginUser loginUser,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        User owner = userService.findById(userId);
-        MessagePageDTO dto = messageService.getMessagesForOwner(owner, page, size);
+        MessagePageDTO dto = messageService.getMessagesForOwner(loginUser, page, size);
         return ResponseEntity.ok(dto);
     }
 
@@ -73,25 +91,46 @@ public class MessageController {
     // =========================
     @GetMapping("/me/messages/answered")
     public ResponseEntity<MessagePageDTO> myAnsweredMessages(
-            @RequestParam("userId") Long userId,
+            LoginUser loginUser,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        User owner = userService.findById(userId);
-        MessagePageDTO dto = messageService.getAnsweredMessagesForOwner(owner, page, size);
+        MessagePageDTO dto = messageService.getAnsweredMessagesForOwner(loginUser, page, size);
         return ResponseEntity.ok(dto);
     }
 
+    // =========================
+    // 2-2. MyBox - 커서 기반 목록 / "답변 있는 메시지" 커서 기반 목록
+    //      GET /api/me/messages/cursor?cursor=&size=
+    //      GET /api/me/messages/answered/cursor?cursor=&size=
+    // =========================
+    @GetMapping("/me/messages/cursor")
+    public ResponseEntity<MessageCursorPageDTO> myMessagesByCursor(
+            LoginUser loginUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(messageService.getMessagesForOwnerByCursor(loginUser, cursor, size));
+    }
+
+    @GetMapping("/me/messages/answered/cursor")
+    public ResponseEntity<MessageCursorPageDTO> myAnsweredMessagesByCursor(
+            LoginUser loginUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(messageService.getAnsweredMessagesForOwnerByCursor(loginUser, cursor, size));
+    }
+
     // =========================
     // 3. MyBox - 메시지 상세 조회
     // =========================
     @GetMapping("/me/messages/{id}")
     public ResponseEntity<MessageDetailDTO> getDetail(
             @PathVariable Long id,
-            @RequestParam("userId") Long userId
+            LoginUser loginUser
     ) {
-        User owner = userService.findById(userId);
-        MessageDetailDTO dto = messageService.getMessageDetailForOwner(id, owner);
+        MessageDetailDTO dto = messageService.getMessageDetailForOwner(id, loginUser);
         return ResponseEntity.ok(dto);
     }
 
@@ -105,21 +144,19 @@ public class MessageController {
     )
     public ResponseEntity<?> reply(
             @PathVariable Long id,
-            @RequestParam("userId") Long userId,
+            LoginUser loginUser,
             @RequestBody(required = false) String replyContent
     ) {
-        User owner = userService.findById(userId);
-
         String trimmed = (replyContent == null) ? "" : replyContent.trim();
 
         // 빈 문자열이면 답장 삭제
         if (trimmed.isEmpty()) {
-            messageService.clearReply(id, owner);
+            messageService.clearReply(id, loginUser);
             return ResponseEntity.noContent().build();
         }
 
         // 내용이 있으면 답장 저장/수정
-        messageService.replyToMessage(id, trimmed, owner);
+        messageService.replyToMessage(id, trimmed, loginUser);
         return ResponseEntity.ok("답변 완료!");
     }
 
@@ -129,10 +166,9 @@ public class MessageController {
     @PatchMapping("/me/messages/{id}/hide")
     public ResponseEntity<?> hide(
             @PathVariable Long id,
-            @RequestParam("userId") Long userId
+            LoginUser loginUser
     ) {
-        User owner = userService.findById(userId);
-        messageService.hideMessage(id, owner);
+        messageService.hideMessage(id, loginUser);
         return ResponseEntity.ok("숨김 처리 완료!");
     }
 
@@ -142,10 +178,9 @@ public class MessageController {
     @PostMapping("/me/messages/{id}/blacklist")
     public ResponseEntity<?> blacklistByMessage(
             @PathVariable Long id,
-            @RequestParam("userId") Long userId
+            LoginUser loginUser
     ) {
-        User owner = userService.findById(userId);
-        messageService.blacklistUserByMessage(id, owner);
+        messageService.blacklistUserByMessage(id, loginUser);
         return ResponseEntity.ok("블랙리스트 설정 및 메시지 숨김 완료!");
     }
 
@@ -156,33 +191,22 @@ public class MessageController {
     @PutMapping("/me/messages/{id}")
     public ResponseEntity<?> updateMessage(
             @PathVariable Long id,
-            @RequestBody MessageUpdateRequestDTO dto
+            @RequestBody MessageUpdateRequestDTO dto,
+            LoginUser loginUser
     ) {
-        User loginUser = userService.findById(dto.getUserId());
         messageService.updateMessage(id, dto.getContent(), loginUser);
         return ResponseEntity.ok("메시지 수정 완료");
     }
 
     // =========================
     // 8. 원본 메시지 삭제
-    //    - 내 박스에 내가 쓴 메시지만 삭제 가능
-    // =========================
-//    @DeleteMapping("/me/messages/{id}")
-//    public ResponseEntity<?> deleteMessage(
-//            @PathVariable Long id,
-//            @RequestParam("userId") Long userId
-//    ) {
-//        User loginUser = userService.findById(userId);
-//        messageService.deleteMessage(id, loginUser);
-//        return ResponseEntity.ok("메시지 삭제 완료");
-//    }
-
+    //    - 박스 주인만 삭제 가능 (받은 메시지 관리)
+    // =========================
     @DeleteMapping("/me/messages/{id}")
     public ResponseEntity<?> deleteMessage(
             @PathVariable Long id,
-            @RequestParam("userPk") Long userPk
+            LoginUser loginUser
     ) {
-        User loginUser = userService.findById(userPk);
         messageService.deleteMessage(id, loginUser);
         return ResponseEntity.ok("메시지 삭제 완료");
     }
@@ -200,4 +224,15 @@ public class MessageController {
 
         return ResponseEntity.ok().build();
     }
+
+    // =========================
+    // 9-1. AI 답변 스트리밍 (SSE, 박스 주인만)
+    //    - POST /api/messages/{id}/ai-reply/stream  (Authorization 헤더 필요 → fetch 기반 SSE 클라이언트 사용)
+    //    - 이벤트: delta(답변 조각 텍스트) ... → done({messageId, replyContent}) 또는 error({message})
+    //    - 답변은 스트림이 끝까지 온 뒤에만 저장됨
+    // =========================
+    @PostMapping(value = "/messages/{id}/ai-reply/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAiReply(@PathVariable Long id, Principal principal) {
+        return aiReplyStreamService.stream(id, principal.getName());
+    }
 }
@@ -3,8 +3,15 @@ package org.jyr.postbox.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.jyr.postbox.dto.NotificationDTO;
+import org.jyr.postbox.dto.notification.NotificationCursorPageDTO;
+import org.jyr.postbox.notification.NotificationStreamRegistry;
+import org.jyr.postbox.security.LoginUser;
 import org.jyr.postbox.service.NotificationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -14,20 +21,64 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamRegistry notificationStreamRegistry;
 
-    // 내 알림 목록 조회 (userId 쿼리 파라미터)
+    // 내 알림 목록 조회 (userId 쿼리 파라미터, 최신 100개까지 → 더 오래된 알림은 /cursor)
     @GetMapping
     public List<NotificationDTO> list(@RequestParam Long userId) {
         return notificationService.getUserNotifications(userId);
     }
 
+    // 커서 기반 알림 목록 (최신순)
+    // GET /api/notifications/cursor?cursor=&size=  (로그인 사용자 본인 알림)
+    //  - 첫 페이지는 cursor 생략, 더 오래된 알림은 응답의 nextCursor 그대로 전달
+    //  - 첫 페이지 응답의 latestCursor 는 새로고침(/since) 기준으로 보관
+    @GetMapping("/cursor")
+    public NotificationCursorPageDTO listByCursor(
+            LoginUser loginUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int size
+    ) {
+        return notificationService.getUserNotificationsByCursor(loginUser.getId(), cursor, size);
+    }
+
+    // 새로고침: 마지막으로 받은 위치 이후 새 알림만
+    // GET /api/notifications/since?cursor={latestCursor}&size=
+    @GetMapping("/since")
+    public NotificationCursorPageDTO listSince(
+            LoginUser loginUser,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "0") int size
+    ) {
+        return notificationService.getUserNotificationsSince(loginUser.getId(), cursor, size);
+    }
+
     // 알림 읽음 처리
     @PostMapping("/{id}/read")
     public void markRead(
-            @RequestParam Long userId,
+            LoginUser loginUser,
+            @PathVariable Long id
+    ) {
+        notificationService.markAsRead(loginUser.getId(), id);
+    }
+
+    // 전체 공지 읽음 처리 (목록에서 broadcast=true 인 항목)
+    @PostMapping("/notices/{id}/read")
+    public void markNoticeRead(
+            LoginUser loginUser,
             @PathVariable Long id
     ) {
-        notificationService.markAsRead(userId, id);
+        notificationService.markNoticeAsRead(loginUser.getId(), id);
+    }
+
+    // 선택한 알림들 한 번에 읽음 처리
+    // POST /api/notifications/read  Body: [1, 2, 3]  (로그인 사용자 본인 알림만)
+    @PostMapping("/read")
+    public int markReadBulk(
+            LoginUser loginUser,
+            @RequestBody List<Long> ids
+    ) {
+        return notificationService.markAsRead(loginUser.getId(), ids);
     }
 
     // 안 읽은 알림 개수 조회
@@ -36,9 +87,26 @@ public class NotificationController {
         return notificationService.getUnreadCount(userId);
     }
 
+    // ✅ 실시간 알림 스트림 (SSE) - 연결돼 있으면 unread-count 폴링 불필요
+    //    GET /api/notifications/stream  (Authorization 헤더 필요 → fetch 기반 SSE 클라이언트 사용)
+    //    이벤트: notification(id = (createdAt, id) 커서), unread-count({count} 또는 {delta}), 주기적 heartbeat 주석
+    //    재연결 시 Last-Event-ID 헤더로 놓친 알림을 다시 받음
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            LoginUser loginUser,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return notificationStreamRegistry.subscribe(loginUser.getId(), lastEventId)
+                .map(ResponseEntity::ok)
+                // 노드 연결 수 상한 → 잠시 후 재시도
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", "30")
+                        .build());
+    }
+
     // ✅ 내 알림 전체 읽음 처리
     @PostMapping("/read-all")
-    public void markAllRead(@RequestParam Long userId) {
-        notificationService.markAllAsRead(userId);
+    public void markAllRead(LoginUser loginUser) {
+        notificationService.markAllAsRead(loginUser.getId());
     }
 }
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.jyr.postbox.domain.User;
 import org.jyr.postbox.dto.user.UserDTO;
 import org.jyr.postbox.dto.user.ChangePasswordRequestDTO;
+import org.jyr.postbox.security.LoginUser;
 import org.jyr.postbox.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,9 +21,9 @@ public class UserController {
     // 🔹 내 정보 조회 (UserDTO)
     @GetMapping
     public ResponseEntity<UserDTO> getMyInfo(
-            @RequestParam("userId") String userId   // 🔥 String userId로 받기
+            LoginUser loginUser   // 🔥 JWT 로그인 유저
     ) {
-        User user = userService.findByUserId(userId);
+        User user = userService.findByUserId(loginUser.getUserId());
         UserDTO dto = UserDTO.from(user);
         return ResponseEntity.ok(dto);
     }
@@ -37,24 +38,24 @@ public class UserController {
 //        return ResponseEntity.ok().build();
 //    }
 
-    // 🔹 계정 삭제
+    // 🔹 계정 삭제 (바로 로그인 불가, 데이터는 백그라운드에서 삭제 → 202)
     @DeleteMapping
     public ResponseEntity<Void> deleteMyAccount(
-            @RequestParam("userId") String userId
+            LoginUser loginUser
     ) {
-        userService.deleteUserByUserId(userId);
-        return ResponseEntity.ok().build();
+        userService.deleteUserByUserId(loginUser.getUserId());
+        return ResponseEntity.accepted().build();
     }
 
     // ⭐ 🔹 비밀번호 변경
-    //    PUT /api/me/password?userId=ororong1
+    //    PUT /api/me/password
     //    Body: { "currentPassword": "...", "newPassword": "..." }
     @PutMapping("/password")
     public ResponseEntity<Void> changePassword(
-            @RequestParam("userId") String userId,
+            LoginUser loginUser,
             @RequestBody ChangePasswordRequestDTO dto
     ) {
-        userService.changePassword(userId, dto.getCurrentPassword(), dto.getNewPassword());
+        userService.changePassword(loginUser.getUserId(), dto.getCurrentPassword(), dto.getNewPassword());
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,82 @@
+package org.jyr.postbox.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계정 삭제 작업 (탈퇴 요청 시 1행).
+ * phase + lastId 를 chunk 마다 같은 트랜잭션으로 갱신 → 서버가 죽어도 마지막 chunk 다음부터 이어서 진행.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "account_deletion_jobs")
+public class AccountDeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 삭제할 유저 PK (유저 행이 지워진 뒤에도 기록으로 남도록 FK 없이 id 만)
+    @Column(nullable = false, unique = true)
+    private Long userId;
+
+    // 삭제할 박스 PK (박스가 없으면 null)
+    private Long boxId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AccountDeletionJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private AccountDeletionPhase phase;
+
+    // 현재 단계에서 마지막으로 처리한 id (다음 chunk 는 이보다 큰 id 부터)
+    @Column(nullable = false)
+    private long lastId;
+
+    // 진행 상황
+    @Column(nullable = false)
+    private long deletedMessages;
+
+    @Column(nullable = false)
+    private long deletedNotifications;
+
+    // 워커가 마지막으로 chunk 를 끝낸 시각 (오래 멈춰 있으면 다른 노드가 이어받음)
+    private LocalDateTime lockedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    public void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+        if (this.status == null) this.status = AccountDeletionJobStatus.PENDING;
+        if (this.phase == null) this.phase = AccountDeletionPhase.BOX_MESSAGES;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // 다음 단계로 (id 커서 초기화)
+    public void moveTo(AccountDeletionPhase next) {
+        this.phase = next;
+        this.lastId = 0;
+    }
+}
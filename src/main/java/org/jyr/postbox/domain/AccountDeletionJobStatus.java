@@ -0,0 +1,7 @@
+package org.jyr.postbox.domain;
+
+public enum AccountDeletionJobStatus {
+    PENDING,   // 처리 대기 (중간에 멈춘 작업 포함)
+    RUNNING,   // 워커가 처리 중
+    DONE       // 유저 행까지 삭제 완료
+}
@@ -0,0 +1,11 @@
+package org.jyr.postbox.domain;
+
+/**
+ * 계정 삭제 단계 (순서대로 진행, 각 단계는 id 범위 chunk 로 나눠 처리).
+ */
+public enum AccountDeletionPhase {
+    BOX_MESSAGES,       // 내 박스에 달린 메시지 (+ 알림 / AI 작업 / 답변)
+    AUTHORED_MESSAGES,  // 내가 남의 박스에 쓴 메시지 (+ 그 박스 카운트 차감)
+    NOTIFICATIONS,      // 나에게 온 알림
+    FINALIZE            // 블랙리스트 / 공지 읽음 기록 / 박스 / 유저
+}
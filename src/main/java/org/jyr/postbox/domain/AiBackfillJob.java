@@ -0,0 +1,97 @@
+package org.jyr.postbox.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 박스의 답변 없는 메시지에 AI 답변을 몰아서 다는 작업 (박스당 1행).
+ * lastId 를 chunk 저장과 같은 트랜잭션으로 갱신 → 취소 / 서버 재시작 후에도 마지막 chunk 다음부터 이어서 진행.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "ai_backfill_jobs")
+public class AiBackfillJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 대상 박스 PK (박스가 지워진 뒤에는 빈 chunk → DONE)
+    @Column(nullable = false, unique = true)
+    private Long boxId;
+
+    // 끝났을 때 알림 받을 박스 주인 PK
+    @Column(nullable = false)
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AiBackfillJobStatus status;
+
+    // 마지막으로 처리한 메시지 id (다음 chunk 는 이보다 큰 id 부터)
+    @Column(nullable = false)
+    private long lastId;
+
+    // 시작할 때 센 답변 없는 메시지 수 (진행률 표시용 추정치)
+    @Column(nullable = false)
+    private long totalCount;
+
+    // 진행 상황
+    @Column(nullable = false)
+    private long answeredCount;
+
+    // 다른 곳(답변 작업 / 직접 요청)이 선점 중이라 건너뜀
+    @Column(nullable = false)
+    private long skippedCount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    // 워커가 마지막으로 chunk 를 끝낸 시각 (오래 멈춰 있으면 다른 노드가 이어받음)
+    private LocalDateTime lockedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    public void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+        if (this.status == null) this.status = AiBackfillJobStatus.PENDING;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isActive() {
+        return status == AiBackfillJobStatus.PENDING || status == AiBackfillJobStatus.RUNNING;
+    }
+
+    // 처음부터 다시 (끝난 작업을 새로 시작할 때)
+    public void restart(long totalCount) {
+        this.status = AiBackfillJobStatus.PENDING;
+        this.lastId = 0;
+        this.totalCount = totalCount;
+        this.answeredCount = 0;
+        this.skippedCount = 0;
+        this.failedCount = 0;
+        this.lockedAt = null;
+        this.lastError = null;
+        this.finishedAt = null;
+    }
+}
@@ -0,0 +1,8 @@
+package org.jyr.postbox.domain;
+
+public enum AiBackfillJobStatus {
+    PENDING,     // 처리 대기 (중간에 멈춘 작업, 재개 요청 포함)
+    RUNNING,     // 워커가 처리 중
+    CANCELLED,   // 주인이 취소 (커서는 남겨둬서 재개하면 이어서)
+    DONE         // 끝까지 훑음
+}
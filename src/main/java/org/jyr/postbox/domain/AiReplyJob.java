@@ -0,0 +1,61 @@
+package org.jyr.postbox.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "ai_reply_jobs")
+public class AiReplyJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // AI 답변을 달 메시지 PK (메시지 엔티티를 매번 로딩하지 않도록 id만 보관)
+    @Column(nullable = false)
+    private Long messageId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AiReplyJobStatus status;
+
+    // 지금까지 시도한 횟수
+    @Column(nullable = false)
+    private int attempts;
+
+    // 이 시각 이후에 다시 집어갈 수 있음 (재시도 백오프)
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // 워커가 집어간 시각 (서버가 죽어서 RUNNING 으로 남은 작업 복구용)
+    private LocalDateTime lockedAt;
+
+    // 마지막 실패 사유
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+        if (this.status == null) this.status = AiReplyJobStatus.PENDING;
+        if (this.nextAttemptAt == null) this.nextAttemptAt = now;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package org.jyr.postbox.domain;
+
+public enum AiReplyJobStatus {
+    PENDING,   // 처리 대기 (재시도 대기 포함)
+    RUNNING,   // 워커가 처리 중
+    DONE,      // 답변 저장 완료
+    FAILED     // 재시도 횟수 초과 / 처리 불가
+}
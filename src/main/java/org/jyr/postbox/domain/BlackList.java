@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class BlackList {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "black_list_seq")
+    @SequenceGenerator(name = "black_list_seq", sequenceName = "black_list_seq", allocationSize = 50)
     private Long id;   // 블랙리스트 PK
 
     // 차단을 건 박스 (예: 호랑이님의 박스)
@@ -16,7 +16,8 @@ import java.util.List;
 public class Box {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "box_seq")
+    @SequenceGenerator(name = "box_seq", sequenceName = "box_seq", allocationSize = 50)
     private Long id;
 
     // 박스 주인 (1:1)
@@ -47,6 +48,11 @@ public class Box {
     @Builder.Default
     private boolean aiMode = false;
 
+    // 같은 내용의 상담 글에 캐시된 AI 답변을 재사용해도 되는지 (끄면 항상 새로 생성)
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean aiReplyCacheEnabled = true;
+
     @PrePersist
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,45 @@
+package org.jyr.postbox.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 박스 헤더용 카운트 (비정규화).
+ * 메시지 작성/숨김/답변/답변삭제/삭제 시 원자적 증감으로 갱신하고,
+ * 헤더는 PK 조회 한 번으로 그린다.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "box_stats")
+public class BoxStats {
+
+    // Box PK 를 그대로 PK 로 사용 (1:1)
+    @Id
+    private Long boxId;
+
+    // 전체 메시지 수
+    @Column(nullable = false)
+    private long totalMessageCount;
+
+    // 숨김 아닌 메시지 수
+    @Column(nullable = false)
+    private long unreadMessageCount;
+
+    // 답장이 달린 메시지 수
+    @Column(nullable = false)
+    private long replyCount;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,37 @@
+package org.jyr.postbox.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 전체 공지 (모든 유저에게 보이는 알림을 1행으로 저장).
+ * 유저별 읽음 여부는 읽을 때만 BroadcastNoticeRead 로 남긴다.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "broadcast_notices")
+public class BroadcastNotice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 500, nullable = false)
+    private String alertMessage;
+
+    private String linkUrl;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
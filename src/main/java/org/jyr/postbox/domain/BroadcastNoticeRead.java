@@ -0,0 +1,34 @@
+package org.jyr.postbox.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 유저가 전체 공지를 읽은 기록 (읽을 때만 생김 → 공지 발행 시 유저 수만큼 insert 하지 않음).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "broadcast_notice_reads",
+        uniqueConstraints = @UniqueConstraint(name = "uk_broadcast_notice_reads_user_notice", columnNames = {"user_id", "notice_id"})
+)
+public class BroadcastNoticeRead {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "notice_id", nullable = false)
+    private Long noticeId;
+
+    private LocalDateTime readAt;
+}
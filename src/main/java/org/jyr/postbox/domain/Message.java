@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Message {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_seq")
+    @SequenceGenerator(name = "message_seq", sequenceName = "message_seq", allocationSize = 50)
     private Long id;
 
     // 어느 박스에 달린 메시지인지
@@ -57,6 +58,9 @@ public class Message {
     @Column(nullable = true)
     private ReplyAuthorType replyAuthorType;
 
+    // AI 답변 생성 중 표시 (여러 요청/노드가 같은 메시지로 AI 를 동시에 부르지 않도록). 끝나면 null
+    private LocalDateTime aiReplyClaimedAt;
+
     // OWNER일 때만 채워지는 필드
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_user_id")
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Getter
@@ -15,7 +16,8 @@ import java.time.LocalDateTime;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     // 알림을 받는 사용자
@@ -50,9 +52,20 @@ public class Notification {
     // 읽은 시간
     private LocalDateTime readAt;
 
+    // 묶음 알림 키 (예: "COMMENT:box:12") - 안 읽은 동안만 값이 있고 읽으면 null
+    // 같은 키의 안 읽은 알림이 있으면 새 행 대신 aggregateCount 만 올린다
+    @Column(length = 100, unique = true)
+    private String coalesceKey;
+
+    // 묶인 알림 수 (묶이지 않은 알림은 1)
+    @Builder.Default
+    @Column(nullable = false)
+    private int aggregateCount = 1;
+
     @PrePersist
     public void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        // DB(datetime(6)) 정밀도에 맞춤 → 저장 직후 엔티티로 만든 커서도 DB 값과 같게
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         this.read = false;
     }
 
@@ -60,6 +73,7 @@ public class Notification {
         if (!this.read) {
             this.read = true;
             this.readAt = LocalDateTime.now();
+            this.coalesceKey = null;   // 읽었으니 다음 알림은 새 행으로
         }
     }
 
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Reply {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "replies_seq")
+    @SequenceGenerator(name = "replies_seq", sequenceName = "replies_seq", allocationSize = 50)
     private Long id;
 
     // ✅ 어떤 메시지에 달린 답변인지
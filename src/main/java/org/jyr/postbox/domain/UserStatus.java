@@ -2,5 +2,6 @@ package org.jyr.postbox.domain;
 
 public enum UserStatus {
     ACTIVE,   // 정상
-    BANNED   // 정지
+    BANNED,   // 정지
+    DELETING  // 탈퇴 처리 중 (로그인 / 박스 노출 차단, 데이터는 백그라운드에서 삭제)
 }
\ No newline at end of file
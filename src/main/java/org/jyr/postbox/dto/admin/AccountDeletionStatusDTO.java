@@ -0,0 +1,34 @@
+package org.jyr.postbox.dto.admin;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.jyr.postbox.domain.AccountDeletionJob;
+
+import java.time.LocalDateTime;
+
+// 계정 삭제 진행 상황
+@Getter
+@Builder
+public class AccountDeletionStatusDTO {
+    private Long userId;
+    private String status;            // PENDING / RUNNING / DONE
+    private String phase;             // BOX_MESSAGES → AUTHORED_MESSAGES → NOTIFICATIONS → FINALIZE
+    private long deletedMessages;
+    private long deletedNotifications;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    public static AccountDeletionStatusDTO from(AccountDeletionJob job) {
+        return AccountDeletionStatusDTO.builder()
+                .userId(job.getUserId())
+                .status(job.getStatus().name())
+                .phase(job.getPhase().name())
+                .deletedMessages(job.getDeletedMessages())
+                .deletedNotifications(job.getDeletedNotifications())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
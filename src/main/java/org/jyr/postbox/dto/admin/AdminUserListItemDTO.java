@@ -15,6 +15,19 @@ public class AdminUserListItemDTO {
     private String nickname;
     private String addressId;
     private String role;      // "USER" / "ADMIN"
-    private UserStatus status; // ACTIVE / BANNED
+    private UserStatus status; // ACTIVE / BANNED / DELETING
     private LocalDateTime createdAt;
+
+    public static AdminUserListItemDTO from(AdminUserRow row) {
+        return AdminUserListItemDTO.builder()
+                .id(row.id())
+                .userId(row.userId())
+                .email(row.email())
+                .nickname(row.nickname())
+                .addressId(row.addressId())
+                .role(row.role().name())
+                .status(row.status())
+                .createdAt(row.createdAt())
+                .build();
+    }
 }
@@ -0,0 +1,18 @@
+package org.jyr.postbox.dto.admin;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+// 관리자 유저 목록 (id 커서 기반, 전체 개수 COUNT 없음)
+@Data
+@Builder
+public class AdminUserPageDTO {
+
+    private int size;               // 요청한 페이지 크기
+    private Long nextCursor;        // 다음 페이지 요청 시 그대로 넘기면 됨 (없으면 null)
+    private boolean hasNext;        // 다음 페이지 존재 여부
+
+    private List<AdminUserListItemDTO> content;
+}
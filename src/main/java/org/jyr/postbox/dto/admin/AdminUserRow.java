@@ -0,0 +1,19 @@
+package org.jyr.postbox.dto.admin;
+
+import org.jyr.postbox.domain.UserRole;
+import org.jyr.postbox.domain.UserStatus;
+
+import java.time.LocalDateTime;
+
+// 관리자 유저 목록/내보내기용 프로젝션 (엔티티 로딩 없이, 영속성 컨텍스트에 쌓이지 않음)
+public record AdminUserRow(
+        Long id,
+        String userId,
+        String email,
+        String nickname,
+        String addressId,
+        UserRole role,
+        UserStatus status,
+        LocalDateTime createdAt
+) {
+}
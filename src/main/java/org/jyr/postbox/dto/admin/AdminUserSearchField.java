@@ -0,0 +1,8 @@
+package org.jyr.postbox.dto.admin;
+
+// 관리자 유저 검색 대상 컬럼 (지정하지 않으면 세 컬럼 모두)
+public enum AdminUserSearchField {
+    USER_ID,
+    EMAIL,
+    NICKNAME
+}
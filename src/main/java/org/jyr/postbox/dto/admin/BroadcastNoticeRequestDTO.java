@@ -0,0 +1,14 @@
+package org.jyr.postbox.dto.admin;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 전체 공지 발행 요청
+@Getter
+@Setter
+@NoArgsConstructor
+public class BroadcastNoticeRequestDTO {
+    private String alertMessage;
+    private String linkUrl;   // 선택
+}
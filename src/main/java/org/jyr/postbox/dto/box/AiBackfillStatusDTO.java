@@ -0,0 +1,36 @@
+package org.jyr.postbox.dto.box;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.jyr.postbox.domain.AiBackfillJob;
+
+import java.time.LocalDateTime;
+
+// AI 답변 일괄 작성 진행 상황
+@Getter
+@Builder
+public class AiBackfillStatusDTO {
+    private String status;            // PENDING / RUNNING / CANCELLED / DONE
+    private long totalCount;          // 시작할 때 센 답변 없는 메시지 수 (추정치)
+    private long answeredCount;
+    private long skippedCount;
+    private long failedCount;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    public static AiBackfillStatusDTO from(AiBackfillJob job) {
+        return AiBackfillStatusDTO.builder()
+                .status(job.getStatus().name())
+                .totalCount(job.getTotalCount())
+                .answeredCount(job.getAnsweredCount())
+                .skippedCount(job.getSkippedCount())
+                .failedCount(job.getFailedCount())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -18,7 +18,9 @@ public class MyBoxResponseDTO {
     private String profileImageUrl;
     private String headerImageUrl;
     private BoxHeaderDTO box;                       // 박스 헤더 정보
-    private List<MessageSummaryDTO> messages; // 메시지 요약 리스트
+    private List<MessageSummaryDTO> messages; // 메시지 요약 리스트 (첫 페이지만)
+    private String nextCursor;                // 다음 페이지 커서 (/api/me/messages/cursor 에 전달)
+    private boolean hasNext;
     private boolean allowAnonymous;
     private boolean aiMode;
 }
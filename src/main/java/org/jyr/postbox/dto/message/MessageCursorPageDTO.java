@@ -0,0 +1,22 @@
+package org.jyr.postbox.dto.message;
+
+import lombok.Builder;
+import lombok.Data;
+import org.jyr.postbox.dto.box.BoxHeaderDTO;
+
+import java.util.List;
+
+// 커서 기반 메시지 목록 (전체 개수 COUNT 없음)
+@Data
+@Builder
+public class MessageCursorPageDTO {
+
+    private int size;               // 요청한 페이지 크기
+    private String nextCursor;      // 다음 페이지 요청 시 그대로 넘기면 됨 (없으면 null)
+    private boolean hasNext;        // 다음 페이지 존재 여부
+    private BoxHeaderDTO box;
+    private boolean allowAnonymous; //로그인 한 사람만 글쓰기
+
+    // 화면에 뿌릴 메시지 요약 리스트
+    private List<MessageSummaryDTO> content;
+}
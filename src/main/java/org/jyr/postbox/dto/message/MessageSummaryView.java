@@ -0,0 +1,23 @@
+package org.jyr.postbox.dto.message;
+
+import org.jyr.postbox.domain.AuthorType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 목록 조회용 프로젝션 (MessageRepository 의 select new ... 로만 생성).
+ * 본문/답변 전체를 읽지 않고, DB 에서 잘라낸 미리보기와 플래그만 가져온다.
+ */
+public record MessageSummaryView(
+        Long id,
+        String preview,          // 본문 앞 PREVIEW_LENGTH 글자
+        boolean truncated,       // 본문이 미리보기보다 긴지
+        boolean hidden,
+        boolean hasReply,
+        LocalDateTime createdAt,
+        AuthorType authorType,
+        String authorNickname    // 회원 작성자 닉네임 (익명이면 null)
+) {
+    // MessageRepository.SUMMARY_SELECT 가 이 값으로 자름
+    public static final int PREVIEW_LENGTH = 20;
+}
@@ -7,6 +7,6 @@ import lombok.Setter;
 @Setter
 public class MessageUpdateRequestDTO {
 
-    private Long userId;
+    // 작성자는 로그인 정보(LoginUser)로 판단하므로 본문에는 내용만
     private String content;
 }
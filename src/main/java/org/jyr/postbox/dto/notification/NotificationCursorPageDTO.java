@@ -0,0 +1,23 @@
+package org.jyr.postbox.dto.notification;
+
+import lombok.Builder;
+import lombok.Data;
+import org.jyr.postbox.dto.NotificationDTO;
+
+import java.util.List;
+
+// 커서 기반 알림 목록 (전체 개수 COUNT 없음, 최신순)
+@Data
+@Builder
+public class NotificationCursorPageDTO {
+
+    private int size;               // 요청한 페이지 크기
+    private String nextCursor;      // 더 오래된 알림 요청 시 그대로 넘기면 됨 (없으면 null)
+    private boolean hasNext;        // 더 있음 여부 (since 모드에서는 "새 알림이 더 있음")
+    private String latestCursor;    // 받은 것 중 가장 최신 위치 → 새로고침 때 since 로 넘김
+
+    private List<NotificationDTO> content;
+
+    // 전체 공지 (첫 페이지: 노출 기간 안의 공지 전부, since 모드: since 이후 새 공지)
+    private List<NotificationDTO> notices;
+}
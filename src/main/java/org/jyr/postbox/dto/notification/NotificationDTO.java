@@ -1,7 +1,9 @@
 package org.jyr.postbox.dto;
 
 import lombok.*;
+import org.jyr.postbox.domain.BroadcastNotice;
 import org.jyr.postbox.domain.Notification;
+import org.jyr.postbox.domain.NotificationType;
 
 import java.time.LocalDateTime;
 
@@ -18,6 +20,8 @@ public class NotificationDTO {
     private String linkUrl;  // 클릭 시 이동
     private boolean read;
     private LocalDateTime createdAt;
+    private int aggregateCount;  // 묶인 알림 수 (1 이면 단건)
+    private boolean broadcast;   // 전체 공지 여부 (true 면 id 는 공지 id → /notices/{id}/read 로 읽음 처리)
 
     public static NotificationDTO from(Notification n) {
         return NotificationDTO.builder()
@@ -27,6 +31,21 @@ public class NotificationDTO {
                 .linkUrl(n.getLinkUrl())
                 .read(n.isRead())
                 .createdAt(n.getCreatedAt())
+                .aggregateCount(n.getAggregateCount())
+                .build();
+    }
+
+    // 전체 공지 → 알림 목록 형태로 (읽음 여부는 유저별 읽음 기록으로)
+    public static NotificationDTO fromNotice(BroadcastNotice n, boolean read) {
+        return NotificationDTO.builder()
+                .id(n.getId())
+                .type(NotificationType.SYSTEM_NOTICE.name())
+                .message(n.getAlertMessage())
+                .linkUrl(n.getLinkUrl())
+                .read(read)
+                .createdAt(n.getCreatedAt())
+                .aggregateCount(1)
+                .broadcast(true)
                 .build();
     }
 }
@@ -0,0 +1,9 @@
+package org.jyr.postbox.exception;
+
+// 같은 메시지의 AI 답변을 다른 요청(다른 서버 포함)이 이미 만드는 중일 때
+public class AiReplyInProgressException extends RuntimeException {
+
+    public AiReplyInProgressException(String message) {
+        super(message);
+    }
+}
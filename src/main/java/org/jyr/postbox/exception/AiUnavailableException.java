@@ -0,0 +1,13 @@
+package org.jyr.postbox.exception;
+
+// AI 업스트림이 느리거나 죽어 있어서 지금은 답변을 만들 수 없을 때 (잠시 후 재시도 가능)
+public class AiUnavailableException extends RuntimeException {
+
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+
+    public AiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
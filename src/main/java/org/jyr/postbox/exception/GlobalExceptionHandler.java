@@ -16,5 +16,18 @@ public class GlobalExceptionHandler {
                 .body(Map.of("message", e.getMessage()));
     }
 
+    @ExceptionHandler(AiReplyInProgressException.class)
+    public ResponseEntity<?> handleAiReplyInProgress(AiReplyInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", e.getMessage()));
+    }
+
+    @ExceptionHandler(AiUnavailableException.class)
+    public ResponseEntity<?> handleAiUnavailable(AiUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body(Map.of("message", e.getMessage()));
+    }
+
     // 필요하면 다른 예외도 여기로 계속 추가하면 됨
 }
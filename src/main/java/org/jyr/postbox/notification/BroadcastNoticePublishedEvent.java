@@ -0,0 +1,9 @@
+package org.jyr.postbox.notification;
+
+import org.jyr.postbox.dto.NotificationDTO;
+
+/**
+ * 전체 공지 발행 (커밋 후 이 노드의 모든 SSE 연결로 push).
+ */
+public record BroadcastNoticePublishedEvent(NotificationDTO notice) {
+}
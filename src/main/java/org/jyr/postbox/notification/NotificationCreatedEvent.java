@@ -0,0 +1,14 @@
+package org.jyr.postbox.notification;
+
+import org.jyr.postbox.dto.NotificationDTO;
+
+/**
+ * 알림이 저장됐을 때 발행 (커밋 후 SSE 구독자에게 전달).
+ * coalesced = 기존 안 읽은 알림에 묶임 (안 읽은 개수는 그대로)
+ */
+public record NotificationCreatedEvent(Long targetUserId, NotificationDTO notification, boolean coalesced) {
+
+    public NotificationCreatedEvent(Long targetUserId, NotificationDTO notification) {
+        this(targetUserId, notification, false);
+    }
+}
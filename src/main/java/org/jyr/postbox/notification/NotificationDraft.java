@@ -0,0 +1,17 @@
+package org.jyr.postbox.notification;
+
+import org.jyr.postbox.domain.NotificationType;
+
+/**
+ * 아직 저장되지 않은 알림 (쓰기 버퍼에 쌓였다가 NotificationWriter 가 한꺼번에 저장).
+ * coalesceKey 가 있으면 묶음 알림 (upsert), 없으면 일반 insert.
+ */
+public record NotificationDraft(
+        Long targetUserId,
+        NotificationType type,
+        String coalesceKey,
+        String alertMessage,
+        String linkUrl,
+        Long messageId
+) {
+}
@@ -0,0 +1,118 @@
+package org.jyr.postbox.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.repository.BroadcastNoticeReadRepository;
+import org.jyr.postbox.repository.BroadcastNoticeRepository;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 오래된 알림 정리 (매일 1번).
+ * - 읽은 알림: read-max-age-days 보다 오래되면 삭제
+ * - 안 읽은 알림: unread-max-age-days(상한) 보다 오래되면 삭제 → unread-count 인덱스 범위가 계속 커지지 않게
+ * - batch-size 개씩 id 를 골라 짧은 트랜잭션으로 지우고 batch 사이에 쉬어서 락을 오래 잡지 않는다
+ * - 전체 공지: 노출 기간(notice.visible-days)이 지나면 읽음 기록 → 공지 순서로 삭제
+ * - 여러 노드가 동시에 돌아도 같은 id 를 지우는 것뿐이라 안전 (이미 지운 행은 0건)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationRetentionJob {
+
+    private final NotificationRepository notificationRepository;
+    private final BroadcastNoticeRepository broadcastNoticeRepository;
+    private final BroadcastNoticeReadRepository broadcastNoticeReadRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notification.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notification.retention.read-max-age-days:30}")
+    private int readMaxAgeDays;
+
+    @Value("${app.notification.retention.unread-max-age-days:180}")
+    private int unreadMaxAgeDays;
+
+    @Value("${app.notification.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.notification.retention.pause-ms:200}")
+    private long pauseMs;
+
+    // 한 번 실행에서 지울 최대 batch 수 (밀린 양이 많아도 실행 시간이 끝없이 늘지 않도록)
+    @Value("${app.notification.retention.max-batches-per-run:500}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.notification.notice.visible-days:30}")
+    private int noticeVisibleDays;
+
+    private volatile boolean stopping = false;
+
+    private Counter purgedReadCounter;
+    private Counter purgedUnreadCounter;
+
+    @PostConstruct
+    void init() {
+        purgedReadCounter = meterRegistry.counter("notification.purged", "kind", "read");
+        purgedUnreadCounter = meterRegistry.counter("notification.purged", "kind", "unread");
+    }
+
+    @Scheduled(cron = "${app.notification.retention.cron:0 30 4 * * *}")
+    public void purge() {
+        if (!enabled) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        long read = purge(true, now.minusDays(readMaxAgeDays), purgedReadCounter);
+        long unread = purge(false, now.minusDays(unreadMaxAgeDays), purgedUnreadCounter);
+
+        // 공지는 수가 적어서 한 번에 (읽음 기록 먼저)
+        LocalDateTime noticeCutoff = now.minusDays(noticeVisibleDays);
+        int noticeReads = broadcastNoticeReadRepository.deleteForNoticesCreatedBefore(noticeCutoff);
+        int notices = broadcastNoticeRepository.deleteCreatedBefore(noticeCutoff);
+
+        log.info("notification retention finished. read={}, unread={}, notices={}, noticeReads={}",
+                read, unread, notices, noticeReads);
+    }
+
+    private long purge(boolean read, LocalDateTime cutoff, Counter counter) {
+        long total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun && !stopping; batch++) {
+            List<Long> ids = notificationRepository.findIdsForPurge(read, cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) break;
+
+            int deleted = notificationRepository.deleteAllByIdIn(ids);
+            total += deleted;
+            counter.increment(deleted);
+
+            if (ids.size() < batchSize) break;
+            if (!pause()) break;
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stopping = true;
+    }
+}
@@ -0,0 +1,351 @@
+package org.jyr.postbox.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.dto.NotificationDTO;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.service.NotificationService;
+import org.jyr.postbox.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 알림 SSE 구독자 목록 (이 노드에 붙은 연결만).
+ * - 알림 생성 / 읽음 처리 이벤트를 커밋 후 해당 유저의 연결로 바로 보낸다 → 안 읽은 개수 폴링 불필요
+ * - 재연결 시 Last-Event-ID(= 마지막으로 받은 알림의 (createdAt, id) 커서) 이후 알림을 다시 보내준다
+ *   (id 는 노드마다 따로 받은 시퀀스 범위라 노드 사이에서는 시간 순이 아님 → 시각 기준으로 이어받음)
+ * - 연결마다 보낼 이벤트 큐 1개, 한 번에 한 스레드만 비움 → 같은 연결로 가는 이벤트 순서 유지
+ * - 주기적으로 heartbeat 주석을 보내 프록시 idle timeout / 끊긴 연결을 정리
+ * - 노드 전체 / 유저별 연결 수 상한
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationStreamRegistry {
+
+    private static final String EVENT_NOTIFICATION = "notification";
+    private static final String EVENT_UNREAD = "unread-count";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.sse.max-connections:5000}")
+    private int maxConnections;
+
+    @Value("${app.sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.sse.replay-limit:100}")
+    private int replayLimit;
+
+    // 커밋이 늦게 된 알림(시각은 앞선데 나중에 보인 것) / 노드 간 시계 차이를 덮도록 조금 앞에서부터 다시 보냄
+    // (클라이언트는 알림 id 로 중복을 합친다 — 묶음 알림 갱신도 같은 id 로 오므로 이미 필요한 처리)
+    @Value("${app.sse.replay-lookback-ms:2000}")
+    private long replayLookbackMs;
+
+    // 연결 하나에 쌓아둘 수 있는 이벤트 수 (넘치면 느린 연결로 보고 끊음 → 재연결 시 다시 받음)
+    @Value("${app.sse.max-pending-events:256}")
+    private int maxPendingEvents;
+
+    private final Map<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    // 느린 클라이언트 때문에 커밋한 요청 스레드가 막히지 않도록 전송은 별도 스레드에서 (연결마다 한 번에 하나씩)
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("notification.sse.connections", connections, AtomicInteger::get)
+                .description("이 노드에 연결된 알림 SSE 수")
+                .register(meterRegistry);
+        rejectedCounter = meterRegistry.counter("notification.sse.rejected");
+    }
+
+    /**
+     * @return 연결 상한을 넘으면 empty (503 으로 응답)
+     */
+    public Optional<SseEmitter> subscribe(Long userId, String lastEventId) {
+
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            rejectedCounter.increment();
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter);
+
+        // 유저별 상한 확인 + 등록을 한 번에 (remove 와 경합해도 빈 Set 이 남지 않도록 compute 사용)
+        AtomicBoolean added = new AtomicBoolean(false);
+        connectionsByUser.compute(userId, (k, connections) -> {
+            if (connections == null) connections = ConcurrentHashMap.newKeySet();
+            if (connections.size() < maxConnectionsPerUser) {
+                added.set(connections.add(connection));
+            }
+            return connections.isEmpty() ? null : connections;
+        });
+        if (!added.get()) {
+            connections.decrementAndGet();
+            rejectedCounter.increment();
+            return Optional.empty();
+        }
+
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+
+        // 등록 ~ 첫 개수 전송 사이에 온 이벤트는 큐에만 쌓아둔다 (start 전에는 보내지 않음)
+
+        // 1) 놓친 알림 다시 보내기 (재연결)
+        KeysetCursor since = parseLastEventId(lastEventId);
+        if (since != null) {
+            List<NotificationDTO> missed = notificationRepository
+                    .findPageSince(userId, since.createdAt().minusNanos(replayLookbackMs * 1_000_000L), 0L,
+                            PageRequest.of(0, replayLimit))
+                    .stream()
+                    .map(NotificationDTO::from)
+                    .toList();
+            for (NotificationDTO n : missed) {
+                connection.enqueue(outgoing(notificationEvent(n)));
+            }
+        }
+
+        // 2) 현재 안 읽은 개수 (전체 공지 포함, 연결당 1번, 이후엔 delta 로만 갱신)
+        //    조회 전에 쌓인 delta 는 개수에 이미 들어 있으므로 버리고, 조회 중에 쌓인 delta 는 개수 뒤에 보냄
+        connection.markSnapshot();
+        long unread = notificationService.getUnreadCount(userId);
+        connection.start(unreadEvent(unread, null));
+
+        return Optional.of(emitter);
+    }
+
+    // =============== 이벤트 → 구독자 전달 (커밋 후) ===============
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (event.coalesced()) {
+            // 같은 id 의 알림 갱신 (개수/링크), 안 읽은 개수 변화 없음
+            broadcast(event.targetUserId(), outgoing(notificationEvent(event.notification())));
+            return;
+        }
+        broadcast(event.targetUserId(),
+                outgoing(notificationEvent(event.notification())),
+                unreadDelta(1));
+    }
+
+    // 전체 공지 → 이 노드의 모든 연결로 (공지 id 는 알림 id 와 다른 번호라 event id 는 붙이지 않음)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBroadcastNoticePublished(BroadcastNoticePublishedEvent event) {
+        SseEmitter.SseEventBuilder noticeEvent = SseEmitter.event()
+                .name(EVENT_NOTIFICATION)
+                .data(event.notice());
+
+        connectionsByUser.keySet().forEach(userId -> broadcast(userId, outgoing(noticeEvent), unreadDelta(1)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        // 전체 개수가 같이 오면 그 값으로 맞추고, 아니면 변화량만
+        broadcast(event.userId(), new Outgoing(unreadEvent(event.count(), event.delta()), event.count() == null));
+    }
+
+    // =============== heartbeat ===============
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-ms:20000}")
+    public void heartbeat() {
+        connectionsByUser.values().forEach(connections ->
+                connections.forEach(c -> c.enqueue(outgoing(SseEmitter.event().comment("hb")))));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connectionsByUser.values().forEach(connections -> connections.forEach(c -> c.emitter.complete()));
+        connectionsByUser.clear();
+        sender.shutdown();
+    }
+
+    // ===================== private =====================
+
+    private void broadcast(Long userId, Outgoing... events) {
+        Set<Connection> connections = connectionsByUser.get(userId);
+        if (connections == null || connections.isEmpty()) return;
+
+        for (Connection connection : connections) {
+            connection.enqueue(events);
+        }
+    }
+
+    private void remove(Connection connection) {
+        AtomicBoolean removed = new AtomicBoolean(false);
+        connectionsByUser.computeIfPresent(connection.userId, (k, connections) -> {
+            removed.set(connections.remove(connection));
+            return connections.isEmpty() ? null : connections;
+        });
+        if (removed.get()) {
+            connections.decrementAndGet();
+        }
+    }
+
+    private SseEmitter.SseEventBuilder notificationEvent(NotificationDTO n) {
+        return SseEmitter.event()
+                .id(KeysetCursor.of(n.getCreatedAt(), n.getId()).encode())   // 재연결 시 Last-Event-ID 로 돌아옴
+                .name(EVENT_NOTIFICATION)
+                .data(n);
+    }
+
+    private static Outgoing outgoing(SseEmitter.SseEventBuilder event) {
+        return new Outgoing(event, false);
+    }
+
+    private Outgoing unreadDelta(int delta) {
+        return new Outgoing(unreadEvent(null, delta), true);
+    }
+
+    private SseEmitter.SseEventBuilder unreadEvent(Long count, Integer delta) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        if (count != null) data.put("count", count);
+        if (delta != null) data.put("delta", delta);
+        return SseEmitter.event().name(EVENT_UNREAD).data(data);
+    }
+
+    // 예전 형식(숫자 id) / 깨진 값이면 다시 보내지 않음 (안 읽은 개수는 어차피 새로 받음)
+    private KeysetCursor parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) return null;
+        try {
+            KeysetCursor cursor = KeysetCursor.decodeOrFirst(lastEventId.trim());
+            return cursor.isFirst() ? null : cursor;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 연결 하나 + 보낼 이벤트 큐.
+     * - enqueue 는 어느 스레드에서든 (커밋 후 리스너 / heartbeat), 실제 전송은 sender 작업 하나가 큐를 비우며 차례로
+     * - start 전(구독 처리 중)에는 쌓기만 하고, 첫 안 읽은 개수를 markSnapshot 위치에 끼워 넣은 뒤 보내기 시작
+     */
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+
+        // 아래 필드는 this 로 동기화
+        private List<Outgoing> pending = new ArrayList<>();
+        private int snapshotIndex = -1;
+        private boolean started;
+        private boolean draining;
+        private boolean closed;
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Outgoing... events) {
+            synchronized (this) {
+                if (closed) return;
+                if (pending.size() + events.length <= maxPendingEvents) {
+                    Collections.addAll(pending, events);
+                    if (!started || draining) return;
+                    draining = true;
+                    sender.execute(this::drain);
+                    return;
+                }
+            }
+            overflow();
+        }
+
+        // 안 읽은 개수 조회 직전: 지금까지 쌓인 delta 는 조회 결과에 포함되므로 버리고, 개수를 끼워 넣을 위치를 기억
+        synchronized void markSnapshot() {
+            pending.removeIf(Outgoing::unreadDelta);
+            snapshotIndex = pending.size();
+        }
+
+        void start(SseEmitter.SseEventBuilder snapshot) {
+            synchronized (this) {
+                if (closed) return;
+                pending.add(Math.max(0, snapshotIndex), new Outgoing(snapshot, false));
+                started = true;
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                List<Outgoing> batch;
+                synchronized (this) {
+                    if (closed || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch = pending;
+                    pending = new ArrayList<>();
+                }
+                for (Outgoing out : batch) {
+                    if (!send(out.event())) return;
+                }
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // 끊긴 연결 → 정리
+                close();
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+
+        // 큐가 넘침 = 못 따라오는 연결 → 끊고 재연결(Last-Event-ID)에서 다시 받게 함
+        private void overflow() {
+            log.debug("SSE pending events overflow, closing. userId={}", userId);
+            close();
+            emitter.complete();
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                draining = false;
+                pending = new ArrayList<>();
+            }
+            remove(this);
+        }
+    }
+
+    // unreadDelta: 안 읽은 개수 변화량 이벤트 (첫 개수 조회 전에 쌓인 것은 버림)
+    private record Outgoing(SseEmitter.SseEventBuilder event, boolean unreadDelta) {
+    }
+}
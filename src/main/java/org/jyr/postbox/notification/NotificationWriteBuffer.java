@@ -0,0 +1,198 @@
+package org.jyr.postbox.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 알림 쓰기 버퍼.
+ * - 요청 트랜잭션에서는 알림을 저장하지 않고 커밋 후 메모리 큐에 넣기만 한다 (롤백되면 버려짐)
+ * - 백그라운드 스레드가 batch-size 개가 모이거나 flush-interval-ms 가 지나면 한 트랜잭션으로 저장
+ * - 큐가 가득 차면 요청 스레드에서 바로 저장 (버리지 않음)
+ * - 종료 시 남은 알림을 모두 저장하고 끝낸다
+ * - 노드가 비정상 종료되면 큐에 있던 알림은 사라진다 (알림은 최선 전달)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationWriteBuffer {
+
+    private final NotificationWriter notificationWriter;
+    private final MeterRegistry meterRegistry;
+
+    // false 면 버퍼 없이 호출한 트랜잭션 안에서 바로 저장
+    @Value("${app.notification.buffer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notification.buffer.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.notification.buffer.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.notification.buffer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.notification.buffer.shutdown-timeout-seconds:10}")
+    private int shutdownTimeoutSeconds;
+
+    private BlockingQueue<NotificationDraft> queue;
+    // 백그라운드 writer 와 flush() 가 순서를 섞지 않도록
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    private Counter writtenCounter;
+    private Counter overflowCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("notification.buffer.size", queue, BlockingQueue::size)
+                .description("저장 대기 중인 알림 수")
+                .register(meterRegistry);
+        writtenCounter = meterRegistry.counter("notification.buffer.written");
+        overflowCounter = meterRegistry.counter("notification.buffer.overflow");
+        droppedCounter = meterRegistry.counter("notification.buffer.dropped");
+
+        if (enabled) {
+            running = true;
+            writerThread = Thread.ofPlatform()
+                    .name("notification-writer")
+                    .daemon(true)
+                    .start(this::runLoop);
+        }
+    }
+
+    /**
+     * 알림 저장 예약. 트랜잭션 안이면 커밋된 뒤에 큐에 들어간다.
+     */
+    public void enqueue(NotificationDraft draft) {
+        if (!enabled) {
+            notificationWriter.write(List.of(draft));
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(draft);
+                }
+            });
+        } else {
+            offer(draft);
+        }
+    }
+
+    /**
+     * 큐에 있는 알림을 지금 모두 저장 (종료 / 테스트용).
+     */
+    public void flush() {
+        List<NotificationDraft> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writerThread == null) return;
+
+        running = false;
+        try {
+            // poll 이 flush-interval 안에 깨어나므로 곧 끝남
+            writerThread.join(Duration.ofSeconds(shutdownTimeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // ===================== private =====================
+
+    private void offer(NotificationDraft draft) {
+        if (queue.offer(draft)) return;
+
+        // 가득 참 → 이 스레드에서 바로 저장 (요청이 조금 느려지는 대신 알림은 유지)
+        overflowCounter.increment();
+        write(List.of(draft));
+    }
+
+    private void runLoop() {
+        List<NotificationDraft> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                NotificationDraft first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                // 첫 건부터 flush-interval 동안 batch-size 까지 모은다
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    if (batch.size() >= batchSize) break;
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    NotificationDraft next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException e) {
+                // 모아둔 건 아래에서 저장하고 종료
+                Thread.currentThread().interrupt();
+                write(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<NotificationDraft> batch) {
+        if (batch.isEmpty()) return;
+
+        writeLock.lock();
+        try {
+            notificationWriter.writeInNewTransaction(batch);
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            // 한 건 때문에 (예: 그 사이 삭제된 메시지/유저) batch 전체를 잃지 않도록 한 건씩 다시
+            log.warn("notification batch write failed, retrying one by one. size={}", batch.size(), e);
+            for (NotificationDraft draft : batch) {
+                try {
+                    notificationWriter.writeInNewTransaction(List.of(draft));
+                    writtenCounter.increment();
+                } catch (RuntimeException ex) {
+                    droppedCounter.increment();
+                    log.warn("notification dropped. targetUserId={}, type={}", draft.targetUserId(), draft.type(), ex);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.jyr.postbox.notification;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.persister.entity.EntityPersister;
+import org.jyr.postbox.domain.Message;
+import org.jyr.postbox.domain.Notification;
+import org.jyr.postbox.dto.NotificationDTO;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 알림 여러 건을 한 트랜잭션으로 저장.
+ * - 대상 유저 / 메시지는 getReferenceById (SELECT 없이 FK 만 채움)
+ * - 새 행은 saveAll → id 가 시퀀스라 커밋 때 JDBC batch INSERT 로 나감
+ * - 묶음 알림은 키별로 INSERT ... ON DUPLICATE KEY UPDATE 한 번 (이번 batch 에서 묶인 수만큼 개수 증가)
+ *   → 호출한 쪽 트랜잭션에 참여해도 동시 요청끼리 유니크 키에 걸려 롤백되는 일이 없음
+ * - 저장 후 NotificationCreatedEvent 발행 → 커밋 후 SSE 로 전달
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationWriter {
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final MessageRepository messageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    // 호출한 쪽 트랜잭션에 참여 (버퍼를 끈 경우)
+    @Transactional
+    public void write(List<NotificationDraft> drafts) {
+        doWrite(drafts);
+    }
+
+    // 백그라운드 writer / 커밋 이후 콜백에서 호출 → 항상 새 트랜잭션
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void writeInNewTransaction(List<NotificationDraft> drafts) {
+        doWrite(drafts);
+    }
+
+    private void doWrite(List<NotificationDraft> drafts) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        List<Notification> inserts = new ArrayList<>();
+        Map<String, List<NotificationDraft>> coalesced = new LinkedHashMap<>();
+
+        for (NotificationDraft d : drafts) {
+            if (d.coalesceKey() != null) {
+                coalesced.computeIfAbsent(d.coalesceKey(), k -> new ArrayList<>()).add(d);
+            } else {
+                inserts.add(toEntity(d));
+            }
+        }
+
+        // 묶음 알림: 기존 안 읽은 행이 있으면 개수만 올리고, 없으면 새 행 (링크/메시지는 가장 마지막 것)
+        // 새 행이 될 때 쓸 id 는 엔티티 INSERT 와 같은 시퀀스에서 미리 받아둔다
+        Map<String, Long> coalescedIds = new LinkedHashMap<>();
+        coalesced.forEach((key, group) -> {
+            NotificationDraft last = group.get(group.size() - 1);
+            Long newId = nextNotificationId();
+            notificationRepository.upsertCoalesced(
+                    newId, last.targetUserId(), last.type().name(), last.alertMessage(),
+                    last.messageId(), last.linkUrl(), now, key, group.size());
+            coalescedIds.put(key, newId);
+        });
+
+        // 여기서 flush → INSERT 가 batch 로 나가고, 같은 트랜잭션의 다음 쿼리에서도 바로 보임
+        for (Notification saved : notificationRepository.saveAllAndFlush(inserts)) {
+            eventPublisher.publishEvent(new NotificationCreatedEvent(
+                    saved.getTargetUser().getId(), NotificationDTO.from(saved)));
+        }
+
+        // 묶음 알림 전달: 받아둔 id 로 생겼으면 새 알림, 아니면 기존 행에 묶임 (안 읽은 개수 변화 없음)
+        coalescedIds.forEach((key, newId) ->
+                notificationRepository.findByCoalesceKey(key).ifPresent(n -> {
+                    entityManager.refresh(n);   // 네이티브 upsert 는 영속성 컨텍스트를 거치지 않음
+                    eventPublisher.publishEvent(new NotificationCreatedEvent(
+                            n.getTargetUser().getId(), NotificationDTO.from(n), !n.getId().equals(newId)));
+                }));
+    }
+
+    private Long nextNotificationId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Notification.class);
+        return (Long) ((BeforeExecutionGenerator) persister.getGenerator())
+                .generate(session, null, null, EventType.INSERT);
+    }
+
+    private Notification toEntity(NotificationDraft d) {
+        return Notification.builder()
+                .targetUser(userRepository.getReferenceById(d.targetUserId()))
+                .type(d.type())
+                .alertMessage(d.alertMessage())
+                .linkUrl(d.linkUrl())
+                .message(messageRef(d.messageId()))
+                .build();
+    }
+
+    private Message messageRef(Long messageId) {
+        return messageId != null ? messageRepository.getReferenceById(messageId) : null;
+    }
+}
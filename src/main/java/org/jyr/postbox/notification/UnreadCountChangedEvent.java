@@ -0,0 +1,16 @@
+package org.jyr.postbox.notification;
+
+/**
+ * 읽음 처리로 안 읽은 개수가 바뀌었을 때 발행.
+ * count 가 있으면 절대값, 없으면 delta 만큼 변화.
+ */
+public record UnreadCountChangedEvent(Long userId, Long count, Integer delta) {
+
+    public static UnreadCountChangedEvent delta(Long userId, int delta) {
+        return new UnreadCountChangedEvent(userId, null, delta);
+    }
+
+    public static UnreadCountChangedEvent reset(Long userId) {
+        return new UnreadCountChangedEvent(userId, 0L, null);
+    }
+}
@@ -0,0 +1,44 @@
+package org.jyr.postbox.repository;
+
+import org.jyr.postbox.domain.AiBackfillJob;
+import org.jyr.postbox.domain.AiBackfillJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AiBackfillJobRepository extends JpaRepository<AiBackfillJob, Long> {
+
+    Optional<AiBackfillJob> findByBoxId(Long boxId);
+
+    // 처리할 작업: 대기 중이거나, RUNNING 인데 오래 진행이 없는 것 (노드가 죽음)
+    @Query("""
+            select j.id from AiBackfillJob j
+             where j.status = org.jyr.postbox.domain.AiBackfillJobStatus.PENDING
+                or (j.status = org.jyr.postbox.domain.AiBackfillJobStatus.RUNNING and j.lockedAt < :staleBefore)
+             order by j.id
+            """)
+    List<Long> findClaimableIds(@Param("staleBefore") LocalDateTime staleBefore, Pageable pageable);
+
+    // 선점: 조회 때와 같은 조건일 때만 RUNNING 으로 (여러 노드가 동시에 집어가도 1명만 성공)
+    @Modifying
+    @Query("""
+            update AiBackfillJob j
+               set j.status = org.jyr.postbox.domain.AiBackfillJobStatus.RUNNING,
+                   j.lockedAt = :now,
+                   j.updatedAt = :now
+             where j.id = :id
+               and (j.status = org.jyr.postbox.domain.AiBackfillJobStatus.PENDING
+                    or (j.status = org.jyr.postbox.domain.AiBackfillJobStatus.RUNNING and j.lockedAt < :staleBefore))
+            """)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    long countByStatus(AiBackfillJobStatus status);
+
+    void deleteByBoxId(Long boxId);
+}
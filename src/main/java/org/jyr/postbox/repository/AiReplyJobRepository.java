@@ -0,0 +1,54 @@
+package org.jyr.postbox.repository;
+
+import org.jyr.postbox.domain.AiReplyJob;
+import org.jyr.postbox.domain.AiReplyJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AiReplyJobRepository extends JpaRepository<AiReplyJob, Long> {
+
+    // 지금 처리할 수 있는 작업들 (오래된 순)
+    List<AiReplyJob> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            AiReplyJobStatus status,
+            LocalDateTime now,
+            Pageable pageable
+    );
+
+    long countByStatus(AiReplyJobStatus status);
+
+    // 선점: PENDING 인 경우에만 RUNNING 으로 바꿈 (여러 노드가 동시에 집어가도 1명만 성공)
+    @Modifying
+    @Query("""
+            update AiReplyJob j
+               set j.status = org.jyr.postbox.domain.AiReplyJobStatus.RUNNING,
+                   j.lockedAt = :now,
+                   j.attempts = j.attempts + 1,
+                   j.updatedAt = :now
+             where j.id = :id
+               and j.status = org.jyr.postbox.domain.AiReplyJobStatus.PENDING
+            """)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // 서버가 죽어서 RUNNING 으로 멈춘 작업을 다시 대기열로
+    @Modifying
+    @Query("""
+            update AiReplyJob j
+               set j.status = org.jyr.postbox.domain.AiReplyJobStatus.PENDING,
+                   j.lockedAt = null,
+                   j.nextAttemptAt = :now,
+                   j.updatedAt = :now
+             where j.status = org.jyr.postbox.domain.AiReplyJobStatus.RUNNING
+               and j.lockedAt < :staleBefore
+            """)
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    // 메시지 삭제 시 관련 작업 정리
+    @Modifying
+    void deleteAllByMessageIdIn(List<Long> messageIds);
+}
@@ -3,6 +3,7 @@ package org.jyr.postbox.repository;
 import org.jyr.postbox.domain.BlackList;
 import org.jyr.postbox.domain.Box;
 import org.jyr.postbox.domain.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 
@@ -16,7 +17,8 @@ public interface BlackListRepository extends JpaRepository<BlackList, Long> {
     // 필요하면 해제할 때 사용
     long deleteByBoxAndBlockedUser(Box box, User blockedUser);
 
-    // 내 박스에서 차단된 유저 목록
+    // 내 박스에서 차단된 유저 목록 (차단된 유저 정보까지 join 으로 한 번에)
+    @EntityGraph(attributePaths = "blockedUser")
     List<BlackList> findByBox(Box box);
 
     // 🔹 이 박스에서 차단한 모든 유저 기록 삭제 (owner 입장)
@@ -1,9 +1,15 @@
 package org.jyr.postbox.repository;
 
+import org.jyr.postbox.cache.BoxSnapshot;
 import org.jyr.postbox.domain.Box;
 import org.jyr.postbox.domain.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface BoxRepository extends JpaRepository<Box, Long> {
@@ -16,4 +22,43 @@ public interface BoxRepository extends JpaRepository<Box, Long> {
 
     //owner.userId 로 박스 찾기
     Optional<Box> findByOwner_UserId(String userId);;
+
+    // 헤더 DTO 용: 주인 닉네임/프로필까지 join 으로 한 번에
+    @EntityGraph(attributePaths = "owner")
+    Optional<Box> findWithOwnerByUrlKey(String urlKey);
+
+    @EntityGraph(attributePaths = "owner")
+    Optional<Box> findWithOwnerByOwner_UserId(String userId);
+
+    // ===== 캐시(BoxLookupCache)용: 엔티티 대신 메타데이터만 (탈퇴 처리 중인 유저의 박스는 없는 것으로) =====
+    @Query("""
+            select new org.jyr.postbox.cache.BoxSnapshot(
+                   b.id, o.id, o.userId, b.urlKey, b.title, b.allowAnonymous, b.aiMode)
+              from Box b join b.owner o
+             where b.urlKey = :urlKey
+               and o.status <> org.jyr.postbox.domain.UserStatus.DELETING
+            """)
+    Optional<BoxSnapshot> findSnapshotByUrlKey(@Param("urlKey") String urlKey);
+
+    @Query("""
+            select new org.jyr.postbox.cache.BoxSnapshot(
+                   b.id, o.id, o.userId, b.urlKey, b.title, b.allowAnonymous, b.aiMode)
+              from Box b join b.owner o
+             where o.id = :ownerId
+               and o.status <> org.jyr.postbox.domain.UserStatus.DELETING
+            """)
+    Optional<BoxSnapshot> findSnapshotByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("""
+            select new org.jyr.postbox.cache.BoxSnapshot(
+                   b.id, o.id, o.userId, b.urlKey, b.title, b.allowAnonymous, b.aiMode)
+              from Box b join b.owner o
+             where o.userId = :ownerUserId
+               and o.status <> org.jyr.postbox.domain.UserStatus.DELETING
+            """)
+    Optional<BoxSnapshot> findSnapshotByOwnerUserId(@Param("ownerUserId") String ownerUserId);
+
+    // id 순으로 끊어서 훑기 (box_stats 재계산 등 배치용)
+    @Query("select b.id from Box b where b.id > :afterId order by b.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package org.jyr.postbox.repository;
+
+import jakarta.persistence.LockModeType;
+import org.jyr.postbox.domain.BoxStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BoxStatsRepository extends JpaRepository<BoxStats, Long> {
+
+    // 원자적 증감 (동시에 여러 명이 써도 카운트가 안 날아감)
+    @Modifying
+    @Query("""
+            update BoxStats s
+               set s.totalMessageCount  = s.totalMessageCount  + :total,
+                   s.unreadMessageCount = s.unreadMessageCount + :unread,
+                   s.replyCount         = s.replyCount         + :reply,
+                   s.updatedAt          = :now
+             where s.boxId = :boxId
+            """)
+    int applyDelta(@Param("boxId") Long boxId,
+                   @Param("total") long total,
+                   @Param("unread") long unread,
+                   @Param("reply") long reply,
+                   @Param("now") LocalDateTime now);
+
+    // 재계산 중에는 증감이 끼어들지 않도록 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from BoxStats s where s.boxId in :boxIds")
+    List<BoxStats> lockAllByBoxIdIn(@Param("boxIds") List<Long> boxIds);
+}
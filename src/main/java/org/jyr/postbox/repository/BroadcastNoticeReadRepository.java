@@ -0,0 +1,35 @@
+package org.jyr.postbox.repository;
+
+import org.jyr.postbox.domain.BroadcastNoticeRead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BroadcastNoticeReadRepository extends JpaRepository<BroadcastNoticeRead, Long> {
+
+    boolean existsByUserIdAndNoticeId(Long userId, Long noticeId);
+
+    // 목록에서 읽음 표시용: 주어진 공지 중 이 유저가 읽은 것
+    @Query("select r.noticeId from BroadcastNoticeRead r where r.userId = :userId and r.noticeId in :noticeIds")
+    List<Long> findReadNoticeIds(@Param("userId") Long userId, @Param("noticeIds") Collection<Long> noticeIds);
+
+    // 계정 삭제 시 정리
+    @Modifying
+    @Query("delete from BroadcastNoticeRead r where r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    // 보관 기간이 지난 공지의 읽음 기록 정리 (공지 삭제 전에)
+    @Transactional
+    @Modifying
+    @Query("""
+            delete from BroadcastNoticeRead r
+             where r.noticeId in (select n.id from BroadcastNotice n where n.createdAt < :cutoff)
+            """)
+    int deleteForNoticesCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,48 @@
+package org.jyr.postbox.repository;
+
+import org.jyr.postbox.domain.BroadcastNotice;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BroadcastNoticeRepository extends JpaRepository<BroadcastNotice, Long> {
+
+    // 노출 기간 안의 공지 (최신순)
+    List<BroadcastNotice> findByCreatedAtAfterOrderByCreatedAtDescIdDesc(LocalDateTime after, Pageable pageable);
+
+    // 모두 읽음: 이 유저가 아직 안 읽은 공지의 읽음 기록을 INSERT ... SELECT 한 번으로 생성
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into broadcast_notice_reads (user_id, notice_id, read_at)
+            select :userId, n.id, :now
+              from broadcast_notices n
+             where n.created_at > :after
+               and not exists (
+                   select 1 from broadcast_notice_reads r
+                    where r.notice_id = n.id and r.user_id = :userId)
+            """, nativeQuery = true)
+    int insertReadsForUnread(@Param("userId") Long userId,
+                             @Param("after") LocalDateTime after,
+                             @Param("now") LocalDateTime now);
+
+    @Query("""
+            select count(n) from BroadcastNotice n
+             where n.createdAt > :after
+               and not exists (
+                   select 1 from BroadcastNoticeRead r
+                    where r.noticeId = n.id and r.userId = :userId)
+            """)
+    long countUnread(@Param("userId") Long userId, @Param("after") LocalDateTime after);
+
+    // 보관 기간 정리 (공지는 수가 적으므로 한 번에)
+    @Transactional
+    @Modifying
+    @Query("delete from BroadcastNotice n where n.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
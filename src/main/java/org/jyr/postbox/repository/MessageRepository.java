@@ -1,16 +1,39 @@
 package org.jyr.postbox.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.jyr.postbox.domain.Box;
 import org.jyr.postbox.domain.Message;
+import org.jyr.postbox.domain.ReplyAuthorType;
 import org.jyr.postbox.domain.User;
+import org.jyr.postbox.dto.message.MessageSummaryView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
+    // ========= 단건 조회 (연관 엔티티 같이) =========
+    // 권한 체크에서 message.getBox().getOwner().getId() 를 쓰므로 box 를 join 으로 한 번에
+    @EntityGraph(attributePaths = "box")
+    Optional<Message> findWithBoxById(Long id);
+
+    // 삭제용: 행 잠금으로 읽어서 숨김/답변 여부가 삭제 시점까지 바뀌지 않도록 (박스 카운트 차감 기준)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Message m join fetch m.box where m.id = :id")
+    Optional<Message> findWithBoxByIdForUpdate(@Param("id") Long id);
+
     // ========= 목록(리스트) 조회 =========
     // 특정 박스의 메시지 목록 (최신순)
     List<Message> findByBoxOrderByCreatedAtDesc(Box box);
@@ -27,6 +50,25 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
     long countByBoxAndReplyContentIsNotNull(Box box);
 
+    // 박스 여러 개의 카운트를 한 번에 (box_stats 재계산용)
+    @Query("""
+            select m.box.id as boxId,
+                   count(m) as totalMessageCount,
+                   sum(case when m.hidden = false then 1 else 0 end) as unreadMessageCount,
+                   sum(case when m.replyContent is not null then 1 else 0 end) as replyCount
+              from Message m
+             where m.box.id in :boxIds
+             group by m.box.id
+            """)
+    List<BoxMessageCounts> countGroupByBoxIdIn(@Param("boxIds") List<Long> boxIds);
+
+    interface BoxMessageCounts {
+        Long getBoxId();
+        long getTotalMessageCount();
+        long getUnreadMessageCount();
+        long getReplyCount();
+    }
+
     // ================== 페이지네이션용 ==================
 
     // 박스 주인이 보는 "내 박스 메시지" 목록 (숨김 포함, 최신순)
@@ -44,6 +86,149 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     // 특정 유저가 작성한 모든 메시지 (어느 박스든 상관없이)
     List<Message> findByAuthorUser(User authorUser);
 
+    // ================== 계정 삭제 (id 범위 chunk) ==================
+
+    // 박스의 메시지 id (afterId 다음부터 id 순)
+    @Query("select m.id from Message m where m.box.id = :boxId and m.id > :afterId order by m.id")
+    List<Long> findIdsByBoxIdAfter(@Param("boxId") Long boxId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // 유저가 다른 박스에 쓴 메시지 (박스 카운트 차감에 필요한 값까지)
+    @Query("""
+            select m.id as id,
+                   m.box.id as boxId,
+                   m.hidden as hidden,
+                   case when m.replyContent is not null then true else false end as replied
+              from Message m
+             where m.authorUser.id = :userId
+               and (:excludeBoxId is null or m.box.id <> :excludeBoxId)
+               and m.id > :afterId
+             order by m.id
+            """)
+    List<AuthoredMessageRow> findAuthoredAfter(@Param("userId") Long userId,
+                                               @Param("excludeBoxId") Long excludeBoxId,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    interface AuthoredMessageRow {
+        Long getId();
+        Long getBoxId();
+        boolean isHidden();
+        boolean isReplied();
+    }
+
+    boolean existsByBox_Id(Long boxId);
+
+    boolean existsByAuthorUser_Id(Long userId);
+
+    @Modifying
+    @Query("delete from Message m where m.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+
+    // ========= AI 답변 선점 =========
+    // 답변이 없고, 아무도 안 잡았거나 오래 멈춘 선점일 때만 가져감 (1 이면 성공)
+    // 조건부 UPDATE 한 번이라 노드가 여러 개여도 한 곳만 성공
+    @Modifying
+    @Query("""
+            update Message m set m.aiReplyClaimedAt = :now
+             where m.id = :id
+               and m.replyContent is null
+               and (m.aiReplyClaimedAt is null or m.aiReplyClaimedAt < :staleBefore)
+            """)
+    int claimAiReply(@Param("id") Long id,
+                     @Param("now") LocalDateTime now,
+                     @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("update Message m set m.aiReplyClaimedAt = null where m.id = :id")
+    int releaseAiReplyClaim(@Param("id") Long id);
+
+    boolean existsByIdAndReplyContentIsNotNull(Long id);
+
+    // ========= 답변 저장 (조건부 UPDATE) =========
+    // 답변이 아직 없을 때만 저장 + AI 선점 해제 (1 이면 새로 달린 답변 → 박스 답변 수 +1)
+    // 읽고 → 확인하고 → 쓰는 사이에 주인 답변 / 다른 AI 답변이 끼어들어도 한 쪽만 성공
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Message m
+               set m.replyContent = :content,
+                   m.replyCreatedAt = :now,
+                   m.replyAuthorType = :type,
+                   m.hasAnyAnswer = true,
+                   m.aiReplyClaimedAt = null
+             where m.id = :id
+               and m.replyContent is null
+            """)
+    int writeReplyIfAbsent(@Param("id") Long id,
+                           @Param("content") String content,
+                           @Param("type") ReplyAuthorType type,
+                           @Param("now") LocalDateTime now);
+
+    // 이미 있는 답변 고치기 (0 이면 그 사이 지워짐 → 새 답변으로)
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Message m
+               set m.replyContent = :content,
+                   m.replyCreatedAt = :now,
+                   m.replyAuthorType = :type
+             where m.id = :id
+               and m.replyContent is not null
+            """)
+    int overwriteReply(@Param("id") Long id,
+                       @Param("content") String content,
+                       @Param("type") ReplyAuthorType type,
+                       @Param("now") LocalDateTime now);
+
+    // 답변 지우기: 있을 때만 (1 이면 실제로 지운 것 → 박스 답변 수 -1)
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Message m
+               set m.replyContent = null,
+                   m.replyCreatedAt = null,
+                   m.hasAnyAnswer = false
+             where m.id = :id
+               and m.replyContent is not null
+            """)
+    int clearReplyIfPresent(@Param("id") Long id);
+
+    // 숨기기: 아직 보일 때만 (1 이면 실제로 숨긴 것 → 박스 안 읽은 수 -1)
+    @Modifying(flushAutomatically = true)
+    @Query("update Message m set m.hidden = true where m.id = :id and m.hidden = false")
+    int hideIfVisible(@Param("id") Long id);
+
+    // ========= AI 답변 일괄 작성 (id 순 chunk) =========
+    // 답변 없는 메시지 (숨김 / 시스템 메시지 제외), afterId 다음부터 id 순
+    // 선점까지 같은 트랜잭션에서 끝내도록 행 잠금 (다른 요청의 선점 UPDATE 는 커밋까지 대기)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select m from Message m
+             where m.box.id = :boxId
+               and m.id > :afterId
+               and m.replyContent is null
+               and m.hidden = false
+               and m.systemMessage = false
+             order by m.id
+            """)
+    List<Message> findUnansweredForBackfill(@Param("boxId") Long boxId,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    @Query("""
+            select count(m) from Message m
+             where m.box.id = :boxId
+               and m.replyContent is null
+               and m.hidden = false
+               and m.systemMessage = false
+            """)
+    long countUnansweredForBackfill(@Param("boxId") Long boxId);
+
+    @Modifying
+    @Query("update Message m set m.aiReplyClaimedAt = :now where m.id in :ids")
+    int claimAiReplies(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Message m set m.aiReplyClaimedAt = null where m.id in :ids")
+    int releaseAiReplyClaims(@Param("ids") List<Long> ids);
+
     // 답변 게시판용: hasAnyAnswer = true 인 메시지만 (최신순)
     Page<Message> findByBoxAndHasAnyAnswerTrueOrderByCreatedAtDesc(Box box, Pageable pageable);
 
@@ -60,4 +245,122 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
             Pageable pageable
     );
 
+    // ================== 목록용 프로젝션 ==================
+    // 본문/답변 전체를 읽지 않고 MessageSummaryView 만 조회 (미리보기는 DB 에서 자름)
+    // 작성자 닉네임은 join 으로 같이 → authorUser 지연 로딩 없음
+
+    // 미리보기 길이는 MessageSummaryView.PREVIEW_LENGTH 를 그대로 씀 (목록 쿼리 공통 select 절)
+    String SUMMARY_SELECT =
+            "select new org.jyr.postbox.dto.message.MessageSummaryView("
+            + " m.id,"
+            + " substring(m.content, 1, " + MessageSummaryView.PREVIEW_LENGTH + "),"
+            + " case when length(m.content) > " + MessageSummaryView.PREVIEW_LENGTH + " then true else false end,"
+            + " m.hidden,"
+            + " case when m.replyContent is not null then true else false end,"
+            + " m.createdAt,"
+            + " m.authorType,"
+            + " au.nickname)\n";
+
+    // 박스 주인이 보는 "내 박스 메시지" 목록 (숨김 포함, 최신순)
+    @Query(value = SUMMARY_SELECT + """
+              from Message m
+              left join m.authorUser au
+             where m.box = :box
+             order by m.createdAt desc, m.id desc
+            """,
+            countQuery = "select count(m) from Message m where m.box = :box")
+    Page<MessageSummaryView> findSummaryByBox(@Param("box") Box box, Pageable pageable);
+
+    // 답변이 존재하는 메시지 목록
+    @Query(value = SUMMARY_SELECT + """
+              from Message m
+              left join m.authorUser au
+             where m.box = :box
+               and m.replyContent is not null
+             order by m.createdAt desc, m.id desc
+            """,
+            countQuery = "select count(m) from Message m where m.box = :box and m.replyContent is not null")
+    Page<MessageSummaryView> findAnsweredSummaryByBox(@Param("box") Box box, Pageable pageable);
+
+    // 공개 모드 (숨김/시스템/비공개 제외)
+    @Query(value = SUMMARY_SELECT + """
+              from Message m
+              left join m.authorUser au
+             where m.box = :box
+               and m.hidden = false
+               and m.systemMessage = false
+               and m.privateMessage = false
+             order by m.createdAt desc, m.id desc
+            """,
+            countQuery = """
+            select count(m) from Message m
+             where m.box = :box
+               and m.hidden = false
+               and m.systemMessage = false
+               and m.privateMessage = false
+            """)
+    Page<MessageSummaryView> findPublicSummaryByBox(@Param("box") Box box, Pageable pageable);
+
+    // ================== 스트리밍용 ==================
+    // 박스 전체 메시지 요약을 한 행씩 흘려보냄 (트랜잭션 안에서 소비 + 반드시 close)
+    // MySQL: URL 의 useCursorFetch=true + fetch size → 서버 커서로 500행씩 나눠 받음 (전체를 메모리에 올리지 않음)
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query(SUMMARY_SELECT + """
+              from Message m
+              left join m.authorUser au
+             where m.box = :box
+             order by m.createdAt desc, m.id desc
+            """)
+    Stream<MessageSummaryView> streamSummaryByBox(@Param("box") Box box);
+
+    // ================== 커서(keyset) 페이지네이션용 ==================
+    // (createdAt, id) 보다 "앞"(더 오래된) 행만, 최신순. COUNT 쿼리 없음.
+    // 페이지 크기는 Pageable 의 size 로만 사용 (page 는 항상 0)
+
+    // 공개 모드 (숨김/시스템/비공개 제외)
+    @Query(SUMMARY_SELECT + """
+              from Message m
+              left join m.authorUser au
+             where m.box = :box
+               and m.hidden = false
+               and m.systemMessage = false
+               and m.privateMessage = false
+               and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+             order by m.createdAt desc, m.id desc
+            """)
+    List<MessageSummaryView> findPublicPageAfter(@Param("box") Box box,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+
+    // 박스 주인용 (숨김 포함)
+    @Query(SUMMARY_SELECT + """
+              from Message m
+              left join m.authorUser au
+             where m.box = :box
+               and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+             order by m.createdAt desc, m.id desc
+            """)
+    List<MessageSummaryView> findOwnerPageAfter(@Param("box") Box box,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    // 박스 주인용 - 답변 있는 메시지만
+    @Query(SUMMARY_SELECT + """
+              from Message m
+              left join m.authorUser au
+             where m.box = :box
+               and m.replyContent is not null
+               and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+             order by m.createdAt desc, m.id desc
+            """)
+    List<MessageSummaryView> findAnsweredPageAfter(@Param("box") Box box,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
 }
\ No newline at end of file
@@ -1,7 +1,15 @@
 package org.jyr.postbox.repository;
 
 import org.jyr.postbox.domain.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 import java.util.List;
 
@@ -13,6 +21,106 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByTargetUser_IdAndReadFalse(Long userId);
 
-    // 알림에서 메시지 id 리스트로 한 번에 삭제
-    void deleteAllByMessage_IdIn(List<Long> messageIds);
+    // 묶음 알림 upsert: 같은 coalesce_key(= 안 읽은 묶음 알림)가 있으면 개수 += count / 링크·메시지·시각 갱신, 없으면 새 행
+    // 유니크 키 충돌을 DB 가 한 문장 안에서 처리하므로 동시에 여러 요청이 들어와도 행은 하나만 생긴다
+    // id 는 호출한 쪽이 시퀀스에서 받아 넘김 (갱신으로 끝나면 그 id 는 버려짐)
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into notifications
+                (id, target_user_id, type, alert_message, message_id, link_url, isread, created_at, coalesce_key, aggregate_count)
+            values
+                (:id, :userId, :type, :alertMessage, :messageId, :linkUrl, false, :now, :coalesceKey, :count)
+            on duplicate key update
+                aggregate_count = aggregate_count + :count,
+                message_id = values(message_id),
+                link_url = values(link_url),
+                created_at = values(created_at)
+            """, nativeQuery = true)
+    int upsertCoalesced(@Param("id") Long id,
+                        @Param("userId") Long userId,
+                        @Param("type") String type,
+                        @Param("alertMessage") String alertMessage,
+                        @Param("messageId") Long messageId,
+                        @Param("linkUrl") String linkUrl,
+                        @Param("now") LocalDateTime now,
+                        @Param("coalesceKey") String coalesceKey,
+                        @Param("count") int count);
+
+    Optional<Notification> findByCoalesceKey(String coalesceKey);
+
+    // 커서 피드: (createdAt, id) 보다 오래된 알림, 최신순 (limit+1 개 요청해서 다음 페이지 여부 판단)
+    @Query("""
+            select n from Notification n
+             where n.targetUser.id = :userId
+               and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))
+             order by n.createdAt desc, n.id desc
+            """)
+    List<Notification> findPageBefore(@Param("userId") Long userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    // 새로고침(since) / SSE 재연결: (createdAt, id) 이후 새 알림, 오래된 순
+    @Query("""
+            select n from Notification n
+             where n.targetUser.id = :userId
+               and (n.createdAt > :createdAt or (n.createdAt = :createdAt and n.id > :id))
+             order by n.createdAt asc, n.id asc
+            """)
+    List<Notification> findPageSince(@Param("userId") Long userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    // 전체 읽음: 행을 읽지 않고 UPDATE 1번 (안 읽은 알림 수와 상관없이 일정)
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Notification n
+               set n.read = true,
+                   n.readAt = :now,
+                   n.coalesceKey = null
+             where n.targetUser.id = :userId
+               and n.read = false
+            """)
+    int markAllReadByTargetUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // 선택한 알림들 읽음 (본인 알림만, 이미 읽은 건 제외 → 반환값 = 새로 읽음 처리된 수)
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Notification n
+               set n.read = true,
+                   n.readAt = :now,
+                   n.coalesceKey = null
+             where n.targetUser.id = :userId
+               and n.id in :ids
+               and n.read = false
+            """)
+    int markReadByIds(@Param("userId") Long userId, @Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    // 보관 기간 정리 대상 id (읽음 여부 + 생성 시각 기준, batch 크기만큼) → batch 마다 짧은 트랜잭션 1개
+    @Query("""
+            select n.id from Notification n
+             where n.read = :read
+               and n.createdAt < :cutoff
+            """)
+    List<Long> findIdsForPurge(@Param("read") boolean read,
+                               @Param("cutoff") LocalDateTime cutoff,
+                               Pageable pageable);
+
+    // 계정 삭제: 이 유저에게 온 알림 id (afterId 다음부터 id 순)
+    @Query("select n.id from Notification n where n.targetUser.id = :userId and n.id > :afterId order by n.id")
+    List<Long> findIdsByTargetUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // 계정 삭제 마무리 전: 단계가 지난 뒤 늦게 들어온 알림이 남았는지
+    boolean existsByTargetUser_Id(Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Notification n where n.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+
+    // 알림에서 메시지 id 리스트로 한 번에 삭제 (엔티티 로딩 없이 DELETE 1번)
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Notification n where n.message.id in :messageIds")
+    int deleteAllByMessage_IdIn(@Param("messageIds") List<Long> messageIds);
 }
@@ -2,6 +2,16 @@ package org.jyr.postbox.repository;
 
 import org.jyr.postbox.domain.Reply;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface ReplyRepository extends JpaRepository<Reply, Long> {
+
+    // 메시지 삭제 전 정리
+    @Modifying
+    @Query("delete from Reply r where r.message.id in :messageIds")
+    int deleteAllByMessageIdIn(@Param("messageIds") List<Long> messageIds);
 }
@@ -1,9 +1,21 @@
 package org.jyr.postbox.repository;
 
+import org.jyr.postbox.cache.UserAuthSnapshot;
+import jakarta.persistence.QueryHint;
 import org.jyr.postbox.domain.User;
+import org.jyr.postbox.domain.UserRole;
+import org.jyr.postbox.domain.UserStatus;
+import org.jyr.postbox.dto.admin.AdminUserRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -16,4 +28,112 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUserId(String userId);
     Optional<User> findByAddressId(String addressId);
-}
\ No newline at end of file
+
+    // 관리자 정지 / 해제: 탈퇴 처리 중(DELETING)인 계정은 바꾸지 않음
+    // (조회 → 저장 사이에 탈퇴 요청이 끼어들어도 조건 UPDATE 라 되살리지 않음) → 바뀐 행 수
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update User u set u.status = :status
+         where u.id = :id
+           and u.status <> org.jyr.postbox.domain.UserStatus.DELETING
+        """)
+    int updateStatusUnlessDeleting(@Param("id") Long id, @Param("status") UserStatus status);
+
+    // 인증 필터용: 권한/상태 + 내 박스 id (엔티티 로딩 없이)
+    @Query("""
+        select new org.jyr.postbox.cache.UserAuthSnapshot(u.id, u.userId, u.role, u.status, b.id)
+        from User u
+        left join Box b on b.owner = u
+        where u.userId = :userId
+        """)
+    Optional<UserAuthSnapshot> findAuthSnapshotByUserId(@Param("userId") String userId);
+
+    // ================== 관리자 유저 목록 ==================
+    // id 커서(keyset) + 선택 필터. null 인 조건은 건너뜀
+    // 페이지 크기는 Pageable 의 size 로만 사용 (page 는 항상 0)
+    @Query("""
+        select new org.jyr.postbox.dto.admin.AdminUserRow(
+               u.id, u.userId, u.email, u.nickname, u.addressId, u.role, u.status, u.createdAt)
+          from User u
+         where u.id < :beforeId
+           and (:status is null or u.status = :status)
+           and (:role is null or u.role = :role)
+         order by u.id desc
+        """)
+    List<AdminUserRow> findAdminPageBefore(@Param("beforeId") Long beforeId,
+                                           @Param("status") UserStatus status,
+                                           @Param("role") UserRole role,
+                                           Pageable pageable);
+
+    // 앞부분 검색은 컬럼마다 따로 (prefix 는 "abc%" 형태, '!' 로 와일드카드 escape)
+    // 세 컬럼을 OR 로 묶으면 인덱스를 못 타서 전체를 id 역순으로 훑게 됨
+    // → 컬럼별로 그 컬럼 인덱스(uk_users_user_id / uk_users_email / idx_users_nickname) 범위만 읽고
+    //   여러 컬럼 검색은 서비스에서 id 역순으로 합침 (UNION 과 같은 결과)
+    // userId 앞부분
+    @Query("""
+        select new org.jyr.postbox.dto.admin.AdminUserRow(
+               u.id, u.userId, u.email, u.nickname, u.addressId, u.role, u.status, u.createdAt)
+          from User u
+         where u.userId like :prefix escape '!'
+           and u.id < :beforeId
+           and (:status is null or u.status = :status)
+           and (:role is null or u.role = :role)
+         order by u.id desc
+        """)
+    List<AdminUserRow> findAdminPageByUserIdPrefix(@Param("prefix") String prefix,
+                                                   @Param("beforeId") Long beforeId,
+                                                   @Param("status") UserStatus status,
+                                                   @Param("role") UserRole role,
+                                                   Pageable pageable);
+
+    // email 앞부분
+    @Query("""
+        select new org.jyr.postbox.dto.admin.AdminUserRow(
+               u.id, u.userId, u.email, u.nickname, u.addressId, u.role, u.status, u.createdAt)
+          from User u
+         where u.email like :prefix escape '!'
+           and u.id < :beforeId
+           and (:status is null or u.status = :status)
+           and (:role is null or u.role = :role)
+         order by u.id desc
+        """)
+    List<AdminUserRow> findAdminPageByEmailPrefix(@Param("prefix") String prefix,
+                                                  @Param("beforeId") Long beforeId,
+                                                  @Param("status") UserStatus status,
+                                                  @Param("role") UserRole role,
+                                                  Pageable pageable);
+
+    // nickname 앞부분
+    @Query("""
+        select new org.jyr.postbox.dto.admin.AdminUserRow(
+               u.id, u.userId, u.email, u.nickname, u.addressId, u.role, u.status, u.createdAt)
+          from User u
+         where u.nickname like :prefix escape '!'
+           and u.id < :beforeId
+           and (:status is null or u.status = :status)
+           and (:role is null or u.role = :role)
+         order by u.id desc
+        """)
+    List<AdminUserRow> findAdminPageByNicknamePrefix(@Param("prefix") String prefix,
+                                                     @Param("beforeId") Long beforeId,
+                                                     @Param("status") UserStatus status,
+                                                     @Param("role") UserRole role,
+                                                     Pageable pageable);
+
+    // 내보내기용 (검색어 없을 때): 같은 조건으로 한 행씩 흘려보냄 (트랜잭션 안에서 소비 + 반드시 close)
+    // MySQL: URL 의 useCursorFetch=true + fetch size → 서버 커서로 500행씩 나눠 받음
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("""
+        select new org.jyr.postbox.dto.admin.AdminUserRow(
+               u.id, u.userId, u.email, u.nickname, u.addressId, u.role, u.status, u.createdAt)
+          from User u
+         where (:status is null or u.status = :status)
+           and (:role is null or u.role = :role)
+         order by u.id desc
+        """)
+    Stream<AdminUserRow> streamAdminRows(@Param("status") UserStatus status,
+                                         @Param("role") UserRole role);
+}
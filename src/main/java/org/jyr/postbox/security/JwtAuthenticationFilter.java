@@ -4,10 +4,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
-import org.jyr.postbox.domain.User;
-import org.jyr.postbox.domain.UserStatus;
-import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.cache.UserAuthCache;
+import org.jyr.postbox.cache.UserAuthSnapshot;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,7 +21,7 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final UserAuthCache userAuthCache;
 
     @Override
     protected void doFilterInternal(
@@ -42,37 +42,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Bearer 토큰 추출 (네 TokenUtil 사용)
             String token = TokenUtil.extractBearerToken(authorization);
 
-            // 유효성 체크
-            if (!jwtTokenProvider.validateToken(token)) {
+            // 유효성 체크 + claims 추출 (서명 검증 1번)
+            Claims claims = jwtTokenProvider.parseValidClaims(token);
+            if (claims == null) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            // ✅ 여기! Provider에 맞게 userId / role 꺼내기
-            String userId = jwtTokenProvider.getUserId(token);
-            String role = jwtTokenProvider.getRole(token); // "USER" or "ADMIN"
+            String userId = claims.getSubject();
 
-            // 사용자 상태(BANNED) 체크는 DB가 제일 정확하니까 DB 조회
-            User user = userRepository.findByUserId(userId).orElse(null);
+            // 사용자 상태(BANNED) / 권한은 캐시에서 (정지·권한 변경 시 바로 무효화됨)
+            UserAuthSnapshot user = userAuthCache.findByUserId(userId).orElse(null);
             if (user == null) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
             // ✅ 정지 계정 차단 (토큰 있어도 차단)
-            if (user.getStatus() == UserStatus.BANNED) {
+            if (user.isBanned()) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json; charset=UTF-8");
                 response.getWriter().write("{\"message\":\"정지된 계정입니다.\"}");
                 return;
             }
 
+            // 탈퇴 처리 중 (데이터 삭제가 끝나기 전까지 토큰으로도 접근 불가)
+            if (user.isDeleting()) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType("application/json; charset=UTF-8");
+                response.getWriter().write("{\"message\":\"탈퇴 처리 중인 계정입니다.\"}");
+                return;
+            }
+
             // 권한 부여 (ROLE_ 접두어 중요!)
+            // 토큰 발급 후 승격/강등이 있었을 수 있으니 토큰의 role 대신 현재 권한 사용
             List<SimpleGrantedAuthority> authorities =
-                    List.of(new SimpleGrantedAuthority("ROLE_" + role));
+                    List.of(new SimpleGrantedAuthority("ROLE_" + user.role().name()));
 
             UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(userId, null, authorities);
+                    new UsernamePasswordAuthenticationToken(LoginUser.from(user), null, authorities);
 
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authentication);
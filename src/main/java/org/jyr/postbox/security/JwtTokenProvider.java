@@ -40,6 +40,20 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    // 서명/만료 검증과 claims 추출을 한 번에 (유효하지 않으면 null)
+    public Claims parseValidClaims(String token) {
+        try {
+            Claims claims = Jwts.parser()
+                    .setSigningKey(secretKey)
+                    .parseClaimsJws(token)
+                    .getBody();
+            Date expiration = claims.getExpiration();
+            return (expiration == null || expiration.before(new Date())) ? null : claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String getRole(String token) {
         return (String) Jwts.parser()
                 .setSigningKey(secretKey)
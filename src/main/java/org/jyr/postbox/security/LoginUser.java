@@ -0,0 +1,40 @@
+package org.jyr.postbox.security;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.jyr.postbox.cache.UserAuthSnapshot;
+import org.jyr.postbox.domain.UserRole;
+import org.jyr.postbox.domain.UserStatus;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * JWT 필터가 만들어 SecurityContext 에 넣어두는 로그인 유저 정보.
+ * 컨트롤러에서는 파라미터로 LoginUser 를 선언하면 LoginUserArgumentResolver 가 채워준다.
+ * (userId 로 User 를 다시 조회할 필요 없음)
+ */
+@Getter
+@Builder
+public class LoginUser implements AuthenticatedPrincipal {
+
+    private final Long id;          // User PK
+    private final String userId;    // 로그인 아이디 (JWT subject)
+    private final UserRole role;
+    private final UserStatus status;
+    private final Long boxId;       // 박스가 없으면 null
+
+    public static LoginUser from(UserAuthSnapshot snapshot) {
+        return LoginUser.builder()
+                .id(snapshot.id())
+                .userId(snapshot.userId())
+                .role(snapshot.role())
+                .status(snapshot.status())
+                .boxId(snapshot.boxId())
+                .build();
+    }
+
+    // Principal.getName() → 기존처럼 userId
+    @Override
+    public String getName() {
+        return userId;
+    }
+}
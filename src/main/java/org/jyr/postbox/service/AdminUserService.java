@@ -1,9 +1,24 @@
 package org.jyr.postbox.service;
 
-import java.util.List;
+import org.jyr.postbox.domain.UserRole;
+import org.jyr.postbox.domain.UserStatus;
+import org.jyr.postbox.dto.admin.AdminUserListItemDTO;
+import org.jyr.postbox.dto.admin.AdminUserPageDTO;
+import org.jyr.postbox.dto.admin.AdminUserSearchField;
+
+import java.util.function.Consumer;
 
 public interface AdminUserService {
-    List<?> getAllUsers();
+
+    // 유저 목록 (id 커서 기반). q: 앞부분 검색 (field 로 컬럼 지정, null 이면 userId / email / nickname 모두)
+    // status / role: 선택 필터
+    AdminUserPageDTO getUsers(String q, AdminUserSearchField field, UserStatus status, UserRole role,
+                              Long cursor, int size);
+
+    // 같은 조건의 유저 전체를 한 행씩 sink 로 흘려보냄 (내보내기용, 메모리 일정)
+    void exportUsers(String q, AdminUserSearchField field, UserStatus status, UserRole role,
+                     Consumer<AdminUserListItemDTO> sink);
+
     void banUser(Long userId);
     void unbanUser(Long userId);
 
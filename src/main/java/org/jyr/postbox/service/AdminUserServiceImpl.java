@@ -1,55 +1,144 @@
 package org.jyr.postbox.service;
 
 import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.cache.UserAuthCache;
 import org.jyr.postbox.domain.User;
 import org.jyr.postbox.domain.UserRole;
 import org.jyr.postbox.domain.UserStatus;
 import org.jyr.postbox.dto.admin.AdminUserListItemDTO;
+import org.jyr.postbox.dto.admin.AdminUserPageDTO;
+import org.jyr.postbox.dto.admin.AdminUserRow;
+import org.jyr.postbox.dto.admin.AdminUserSearchField;
 import org.jyr.postbox.repository.UserRepository;
-import org.jyr.postbox.service.AdminUserService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AdminUserServiceImpl implements AdminUserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final UserAuthCache userAuthCache;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AdminUserPageDTO getUsers(String q, AdminUserSearchField field, UserStatus status, UserRole role,
+                                     Long cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long beforeId = cursor == null ? Long.MAX_VALUE : cursor;
+
+        List<AdminUserRow> rows = findPage(toPrefixPattern(q), field, status, role, beforeId, limit + 1);
+
+        // limit + 1 개를 읽어서 넘치면 다음 페이지가 있는 것
+        boolean hasNext = rows.size() > limit;
+        List<AdminUserRow> page = hasNext ? rows.subList(0, limit) : rows;
+
+        return AdminUserPageDTO.builder()
+                .size(limit)
+                .nextCursor(hasNext ? page.get(page.size() - 1).id() : null)
+                .hasNext(hasNext)
+                .content(page.stream().map(AdminUserListItemDTO::from).toList())
+                .build();
+    }
 
     @Override
-    public List<AdminUserListItemDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(u -> AdminUserListItemDTO.builder()
-                        .id(u.getId())
-                        .userId(u.getUserId())
-                        .email(u.getEmail())
-                        .nickname(u.getNickname())
-                        .addressId(u.getAddressId())
-                        .role(u.getRole().name()) // 필드명 맞춰서
-                        .status(u.getStatus())
-                        .createdAt(u.getCreatedAt()) // 없으면 제거
-                        .build())
-                .toList();
+    @Transactional(readOnly = true)
+    public void exportUsers(String q, AdminUserSearchField field, UserStatus status, UserRole role,
+                            Consumer<AdminUserListItemDTO> sink) {
+        String prefix = toPrefixPattern(q);
+        if (prefix == null) {
+            // 엔티티가 아닌 프로젝션이라 영속성 컨텍스트에 쌓이지 않음
+            try (Stream<AdminUserRow> stream = userRepository.streamAdminRows(status, role)) {
+                stream.map(AdminUserListItemDTO::from).forEach(sink);
+            }
+            return;
+        }
+
+        // 검색어가 있으면 목록과 같은 컬럼별 쿼리를 id 커서로 EXPORT_BATCH_SIZE 씩 (메모리 일정)
+        long beforeId = Long.MAX_VALUE;
+        List<AdminUserRow> rows;
+        do {
+            rows = findPage(prefix, field, status, role, beforeId, EXPORT_BATCH_SIZE);
+            rows.stream().map(AdminUserListItemDTO::from).forEach(sink);
+            if (!rows.isEmpty()) beforeId = rows.get(rows.size() - 1).id();
+        } while (rows.size() == EXPORT_BATCH_SIZE);
+    }
+
+    /**
+     * beforeId 보다 작은 id 중 조건에 맞는 유저를 id 역순으로 limit 개.
+     * 검색 컬럼을 지정하지 않으면 세 컬럼을 각각 limit 개씩 읽어 id 역순으로 합친다
+     * (컬럼마다 자기 인덱스 범위만 읽음, 둘 이상에 걸리는 유저는 한 번만)
+     */
+    private List<AdminUserRow> findPage(String prefix, AdminUserSearchField field, UserStatus status, UserRole role,
+                                        long beforeId, int limit) {
+        PageRequest pageable = PageRequest.of(0, limit);
+        if (prefix == null) {
+            return userRepository.findAdminPageBefore(beforeId, status, role, pageable);
+        }
+        if (field != null) {
+            return findPageByField(field, prefix, beforeId, status, role, pageable);
+        }
+
+        Map<Long, AdminUserRow> merged = new TreeMap<>(Comparator.reverseOrder());
+        for (AdminUserSearchField f : AdminUserSearchField.values()) {
+            findPageByField(f, prefix, beforeId, status, role, pageable).forEach(row -> merged.putIfAbsent(row.id(), row));
+        }
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    private List<AdminUserRow> findPageByField(AdminUserSearchField field, String prefix, long beforeId,
+                                               UserStatus status, UserRole role, PageRequest pageable) {
+        return switch (field) {
+            case USER_ID -> userRepository.findAdminPageByUserIdPrefix(prefix, beforeId, status, role, pageable);
+            case EMAIL -> userRepository.findAdminPageByEmailPrefix(prefix, beforeId, status, role, pageable);
+            case NICKNAME -> userRepository.findAdminPageByNicknamePrefix(prefix, beforeId, status, role, pageable);
+        };
+    }
+
+    // 검색어 → "abc%" (검색어 안의 %, _ 는 문자 그대로), 비어 있으면 조건 없음
+    private String toPrefixPattern(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        String escaped = q.strip()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escaped + "%";
     }
 
 
     @Override
     public void banUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("유저 없음"));
-
-        user.setStatus(UserStatus.BANNED);
+        changeStatus(userId, UserStatus.BANNED);
     }
 
     @Override
     public void unbanUser(Long userId) {
+        changeStatus(userId, UserStatus.ACTIVE);
+    }
+
+    // 탈퇴 처리 중인 계정은 정지 / 해제 불가 (해제로 DELETING 계정이 다시 로그인되지 않도록)
+    private void changeStatus(Long userId, UserStatus status) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("유저 없음"));
 
-        user.setStatus(UserStatus.ACTIVE);
+        if (userRepository.updateStatusUnlessDeleting(userId, status) == 0) {
+            throw new IllegalStateException("탈퇴 처리 중인 계정입니다.");
+        }
+        userAuthCache.evict(user.getUserId());
     }
 
     //admin 부여
@@ -58,6 +147,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("유저 없음"));
         user.setRole(UserRole.ADMIN);
+        userAuthCache.evict(user.getUserId());
     }
 
     @Override
@@ -65,6 +155,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("유저 없음"));
         user.setRole(UserRole.USER);
+        userAuthCache.evict(user.getUserId());
     }
 
 
@@ -2,6 +2,7 @@ package org.jyr.postbox.service;
 
 import org.jyr.postbox.domain.User;
 import org.jyr.postbox.dto.user.BlackListDTO;
+import org.jyr.postbox.security.LoginUser;
 
 import java.util.List;
 
@@ -12,5 +13,10 @@ public interface BlackListService {
 
     // 특정 유저 차단 해제
     void unblockUser(Long blockedUserId, User owner);
+
+    // 로그인 principal 기준 (박스 id 를 이미 알고 있으므로 박스/유저 재조회 없음)
+    List<BlackListDTO> getBlackListForOwner(LoginUser owner);
+
+    void unblockUser(Long blockedUserId, LoginUser owner);
 }
 
@@ -1,6 +1,8 @@
 package org.jyr.postbox.service;
 
 import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.cache.BoxLookupCache;
+import org.jyr.postbox.cache.BoxSnapshot;
 import org.jyr.postbox.domain.BlackList;
 import org.jyr.postbox.domain.Box;
 import org.jyr.postbox.domain.User;
@@ -8,6 +10,7 @@ import org.jyr.postbox.dto.user.BlackListDTO;
 import org.jyr.postbox.repository.BlackListRepository;
 import org.jyr.postbox.repository.BoxRepository;
 import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.security.LoginUser;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,14 +23,14 @@ public class BlackListServiceImpl implements BlackListService {
     private final BlackListRepository blackListRepository;
     private final BoxRepository boxRepository;
     private final UserRepository userRepository;
+    private final BoxLookupCache boxLookupCache;
 
     @Override
     @Transactional(readOnly = true)
     public List<BlackListDTO> getBlackListForOwner(User owner) {
 
-        // 1) 내 박스 찾기
-        Box box = boxRepository.findByOwner(owner)
-                .orElseThrow(() -> new IllegalStateException("박스를 찾을 수 없습니다."));
+        // 1) 내 박스 찾기 (캐시 → id 참조)
+        Box box = findMyBox(owner);
 
         // 2) 블랙리스트 엔티티 조회
         List<BlackList> list = blackListRepository.findByBox(box);
@@ -42,8 +45,7 @@ public class BlackListServiceImpl implements BlackListService {
     @Transactional
     public void unblockUser(Long blockedUserId, User owner) {
 
-        Box box = boxRepository.findByOwner(owner)
-                .orElseThrow(() -> new IllegalStateException("박스를 찾을 수 없습니다."));
+        Box box = findMyBox(owner);
 
         User blockedUser = userRepository.findById(blockedUserId)
                 .orElseThrow(() -> new IllegalArgumentException("차단된 유저를 찾을 수 없습니다."));
@@ -56,8 +58,43 @@ public class BlackListServiceImpl implements BlackListService {
     }
 
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BlackListDTO> getBlackListForOwner(LoginUser owner) {
+        return blackListRepository.findByBox(myBoxRef(owner)).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void unblockUser(Long blockedUserId, LoginUser owner) {
+
+        // 차단 해제는 id 만 있으면 되므로 참조만 사용
+        User blockedUser = userRepository.getReferenceById(blockedUserId);
+
+        long deleted = blackListRepository.deleteByBoxAndBlockedUser(myBoxRef(owner), blockedUser);
+
+        if (deleted == 0) {
+            throw new IllegalArgumentException("블랙리스트에 등록되어 있지 않습니다.");
+        }
+    }
+
     // ================== private 메서드 ==================
 
+    private Box myBoxRef(LoginUser owner) {
+        if (owner.getBoxId() == null) {
+            throw new IllegalStateException("박스를 찾을 수 없습니다.");
+        }
+        return boxRepository.getReferenceById(owner.getBoxId());
+    }
+
+    private Box findMyBox(User owner) {
+        BoxSnapshot boxInfo = boxLookupCache.findByOwnerId(owner.getId())
+                .orElseThrow(() -> new IllegalStateException("박스를 찾을 수 없습니다."));
+        return boxRepository.getReferenceById(boxInfo.id());
+    }
+
     private BlackListDTO toDTO(BlackList entity) {
         User blocked = entity.getBlockedUser();
 
@@ -3,6 +3,7 @@ package org.jyr.postbox.service;
 import org.jyr.postbox.domain.Box;
 import org.jyr.postbox.domain.User;
 import org.jyr.postbox.dto.box.BoxHeaderDTO;
+import org.jyr.postbox.security.LoginUser;
 
 public interface BoxService {
 
@@ -23,6 +24,14 @@ public interface BoxService {
 
     void updateAiMode(String userId, boolean enabled);
 
+    // 로그인 principal 기준 (박스 id 를 이미 알고 있으므로 유저 재조회 없음)
+    void updateAllowAnonymous(LoginUser owner, boolean allowAnonymous);
+
+    void updateAiMode(LoginUser owner, boolean enabled);
+
+    // 같은 내용의 글에 캐시된 AI 답변 재사용 여부
+    void updateAiReplyCache(LoginUser owner, boolean enabled);
+
 }
 
 
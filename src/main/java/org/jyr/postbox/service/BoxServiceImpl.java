@@ -2,12 +2,15 @@
 package org.jyr.postbox.service;
 
 import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.ai.backfill.AiBackfillJobService;
+import org.jyr.postbox.cache.BoxLookupCache;
 import org.jyr.postbox.domain.Box;
+import org.jyr.postbox.domain.BoxStats;
 import org.jyr.postbox.domain.User;
 import org.jyr.postbox.dto.box.BoxHeaderDTO;
 import org.jyr.postbox.repository.BoxRepository;
-import org.jyr.postbox.repository.MessageRepository;
 import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.security.LoginUser;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,8 +22,10 @@ import java.util.UUID;
 public class BoxServiceImpl implements BoxService {
 
     private final BoxRepository boxRepository;
-    private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final BoxStatsService boxStatsService;
+    private final BoxLookupCache boxLookupCache;
+    private final AiBackfillJobService aiBackfillJobService;
 
     // =========================
     // 1) 회원가입 시 박스 생성
@@ -42,7 +47,9 @@ public class BoxServiceImpl implements BoxService {
                 .aiMode(false)
                 .build();
 
-        return boxRepository.save(box);
+        Box saved = boxRepository.save(box);
+        boxStatsService.initialize(saved.getId());
+        return saved;
     }
 
     // =========================
@@ -51,7 +58,7 @@ public class BoxServiceImpl implements BoxService {
     @Override
     @Transactional(readOnly = true)
     public BoxHeaderDTO getBoxHeaderByUrlKey(String urlKey) {
-        Box box = boxRepository.findByUrlKey(urlKey)
+        Box box = boxRepository.findWithOwnerByUrlKey(urlKey)
                 .orElseThrow(() -> new IllegalArgumentException("박스를 찾을 수 없습니다."));
         return buildHeaderDTO(box);
     }
@@ -63,7 +70,7 @@ public class BoxServiceImpl implements BoxService {
     @Override
     @Transactional(readOnly = true)
     public BoxHeaderDTO getBoxHeaderByUserId(String userId) {
-        Box box = boxRepository.findByOwner_UserId(userId)
+        Box box = boxRepository.findWithOwnerByOwner_UserId(userId)
                 .orElseThrow(() -> new IllegalArgumentException("박스를 찾을 수 없습니다."));
         return buildHeaderDTO(box);
     }
@@ -90,6 +97,7 @@ public class BoxServiceImpl implements BoxService {
         box.setAllowAnonymous(allowAnonymous);
         // @Transactional 이면 더티체킹으로 반영됨. 그래도 확실히 하려면 save 해도 OK.
         boxRepository.save(box);
+        boxLookupCache.evict(box.getOwner().getId(), userId, box.getUrlKey());
     }
 
     // =========================
@@ -106,8 +114,53 @@ public class BoxServiceImpl implements BoxService {
         Box box = boxRepository.findByOwner(user)
                 .orElseThrow(() -> new IllegalStateException("박스 없음. userId=" + userId));
 
+        boolean changed = box.isAiMode() != enabled;
         box.setAiMode(enabled);
         boxRepository.save(box);
+        boxLookupCache.evict(user.getId(), userId, box.getUrlKey());
+        if (changed) {
+            aiBackfillJobService.onAiModeChanged(box, enabled);
+        }
+    }
+
+
+    // =========================
+    // 5~6) 로그인 principal 기준 (박스 PK 조회 1번)
+    // =========================
+    @Override
+    @Transactional
+    public void updateAllowAnonymous(LoginUser owner, boolean allowAnonymous) {
+        Box box = findMyBox(owner);
+        box.setAllowAnonymous(allowAnonymous);
+        boxLookupCache.evict(owner.getId(), owner.getUserId(), box.getUrlKey());
+    }
+
+    @Override
+    @Transactional
+    public void updateAiMode(LoginUser owner, boolean enabled) {
+        Box box = findMyBox(owner);
+        boolean changed = box.isAiMode() != enabled;
+        box.setAiMode(enabled);
+        boxLookupCache.evict(owner.getId(), owner.getUserId(), box.getUrlKey());
+        // 켜면 그동안 쌓인 답변 없는 메시지에 AI 답변 일괄 작성 시작, 끄면 진행 중인 작업 취소
+        if (changed) {
+            aiBackfillJobService.onAiModeChanged(box, enabled);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void updateAiReplyCache(LoginUser owner, boolean enabled) {
+        // BoxSnapshot 에 없는 값이라 박스 캐시 무효화는 필요 없음
+        findMyBox(owner).setAiReplyCacheEnabled(enabled);
+    }
+
+    private Box findMyBox(LoginUser owner) {
+        if (owner.getBoxId() == null) {
+            throw new IllegalStateException("박스 없음. userId=" + owner.getUserId());
+        }
+        return boxRepository.findById(owner.getBoxId())
+                .orElseThrow(() -> new IllegalStateException("박스 없음. userId=" + owner.getUserId()));
     }
 
 
@@ -116,9 +169,8 @@ public class BoxServiceImpl implements BoxService {
     // =========================
     private BoxHeaderDTO buildHeaderDTO(Box box) {
 
-        long totalMessageCount  = messageRepository.countByBox(box);
-        long unreadMessageCount = messageRepository.countByBoxAndHiddenFalse(box);
-        long replyCount         = messageRepository.countByBoxAndReplyContentIsNotNull(box);
+        // 카운트는 box_stats 에서 PK 조회 한 번
+        BoxStats stats = boxStatsService.getStats(box.getId());
 
         return BoxHeaderDTO.builder()
                 .boxId(box.getId())
@@ -127,9 +179,9 @@ public class BoxServiceImpl implements BoxService {
                 .ownerName(box.getOwner().getNickname())
                 .profileImageUrl(box.getOwner().getProfileImageUrl())
                 .headerImageUrl(box.getOwner().getHeaderImageUrl())
-                .totalMessageCount(totalMessageCount)
-                .unreadMessageCount(unreadMessageCount)
-                .replyCount(replyCount)
+                .totalMessageCount(stats.getTotalMessageCount())
+                .unreadMessageCount(stats.getUnreadMessageCount())
+                .replyCount(stats.getReplyCount())
                 .allowAnonymous(box.isAllowAnonymous())
                 .aiMode(box.isAiMode())
                 .build();
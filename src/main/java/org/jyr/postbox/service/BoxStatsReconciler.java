@@ -0,0 +1,76 @@
+package org.jyr.postbox.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jyr.postbox.repository.BoxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * box_stats 전체 재계산 (관리자 수동 실행).
+ * 박스 id 순으로 chunk-size 개씩 끊어서, chunk 마다 짧은 트랜잭션으로 다시 계산한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BoxStatsReconciler {
+
+    private final BoxRepository boxRepository;
+    private final BoxStatsService boxStatsService;
+
+    @Value("${app.box-stats.reconcile.chunk-size:200}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong processedBoxes = new AtomicLong();
+    private final AtomicLong lastBoxId = new AtomicLong();
+
+    /**
+     * @return 새로 시작했으면 true, 이미 돌고 있으면 false
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        processedBoxes.set(0);
+        lastBoxId.set(0);
+
+        Thread.ofVirtual().name("box-stats-reconcile").start(this::run);
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        return Map.of(
+                "running", running.get(),
+                "processedBoxes", processedBoxes.get(),
+                "lastBoxId", lastBoxId.get()
+        );
+    }
+
+    private void run() {
+        try {
+            long afterId = 0L;
+            while (true) {
+                List<Long> ids = boxRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) break;
+
+                boxStatsService.recompute(ids);
+
+                afterId = ids.get(ids.size() - 1);
+                lastBoxId.set(afterId);
+                processedBoxes.addAndGet(ids.size());
+            }
+            log.info("box_stats reconcile finished. boxes={}", processedBoxes.get());
+        } catch (Exception e) {
+            log.error("box_stats reconcile failed. lastBoxId={}", lastBoxId.get(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+}
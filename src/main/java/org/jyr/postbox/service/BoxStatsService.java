@@ -0,0 +1,34 @@
+package org.jyr.postbox.service;
+
+import org.jyr.postbox.domain.BoxStats;
+
+import java.util.List;
+
+public interface BoxStatsService {
+
+    // 박스 생성 시 0 으로 초기화
+    void initialize(Long boxId);
+
+    // 헤더용 카운트 조회 (PK 조회 1번, 없으면 계산해서 채움)
+    BoxStats getStats(Long boxId);
+
+    // ===== 메시지 변경 시 원자적 증감 =====
+    void onMessageCreated(Long boxId);
+
+    void onMessageHidden(Long boxId);
+
+    void onReplyAdded(Long boxId);
+
+    // AI 답변 일괄 작성 등 여러 건을 UPDATE 한 번으로
+    void onRepliesAdded(Long boxId, int count);
+
+    void onReplyCleared(Long boxId);
+
+    void onMessageDeleted(Long boxId, boolean wasHidden, boolean hadReply);
+
+    // 박스 삭제 시 같이 삭제
+    void delete(Long boxId);
+
+    // 주어진 박스들의 카운트를 실제 메시지 기준으로 다시 계산
+    void recompute(List<Long> boxIds);
+}
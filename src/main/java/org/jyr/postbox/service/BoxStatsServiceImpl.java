@@ -0,0 +1,116 @@
+package org.jyr.postbox.service;
+
+import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.domain.BoxStats;
+import org.jyr.postbox.repository.BoxStatsRepository;
+import org.jyr.postbox.repository.MessageRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BoxStatsServiceImpl implements BoxStatsService {
+
+    private final BoxStatsRepository boxStatsRepository;
+    private final MessageRepository messageRepository;
+
+    @Override
+    public void initialize(Long boxId) {
+        if (!boxStatsRepository.existsById(boxId)) {
+            boxStatsRepository.save(BoxStats.builder().boxId(boxId).build());
+        }
+    }
+
+    // 예전에 만들어진 박스라 행이 없으면 일단 직접 세서 돌려준다 (관리자 재계산 때 행이 채워짐)
+    @Override
+    @Transactional(readOnly = true)
+    public BoxStats getStats(Long boxId) {
+        return boxStatsRepository.findById(boxId)
+                .orElseGet(() -> countNow(boxId));
+    }
+
+    @Override
+    public void onMessageCreated(Long boxId) {
+        applyDelta(boxId, 1, 1, 0);
+    }
+
+    @Override
+    public void onMessageHidden(Long boxId) {
+        applyDelta(boxId, 0, -1, 0);
+    }
+
+    @Override
+    public void onReplyAdded(Long boxId) {
+        applyDelta(boxId, 0, 0, 1);
+    }
+
+    @Override
+    public void onRepliesAdded(Long boxId, int count) {
+        if (count <= 0) return;
+        applyDelta(boxId, 0, 0, count);
+    }
+
+    @Override
+    public void onReplyCleared(Long boxId) {
+        applyDelta(boxId, 0, 0, -1);
+    }
+
+    @Override
+    public void onMessageDeleted(Long boxId, boolean wasHidden, boolean hadReply) {
+        applyDelta(boxId, -1, wasHidden ? 0 : -1, hadReply ? -1 : 0);
+    }
+
+    @Override
+    public void delete(Long boxId) {
+        boxStatsRepository.deleteById(boxId);
+    }
+
+    @Override
+    public void recompute(List<Long> boxIds) {
+        if (boxIds.isEmpty()) return;
+
+        // 1) 기존 행 잠금 → 재계산 도중 들어오는 증감은 커밋까지 대기
+        Map<Long, BoxStats> rows = boxStatsRepository.lockAllByBoxIdIn(boxIds).stream()
+                .collect(Collectors.toMap(BoxStats::getBoxId, Function.identity()));
+
+        // 2) 실제 메시지 기준 카운트 (박스 여러 개를 GROUP BY 한 번으로)
+        Map<Long, MessageRepository.BoxMessageCounts> counts = messageRepository.countGroupByBoxIdIn(boxIds).stream()
+                .collect(Collectors.toMap(MessageRepository.BoxMessageCounts::getBoxId, Function.identity()));
+
+        // 3) 덮어쓰기 (메시지 없는 박스는 0)
+        for (Long boxId : boxIds) {
+            BoxStats row = rows.computeIfAbsent(boxId, id -> BoxStats.builder().boxId(id).build());
+            MessageRepository.BoxMessageCounts c = counts.get(boxId);
+
+            row.setTotalMessageCount(c == null ? 0 : c.getTotalMessageCount());
+            row.setUnreadMessageCount(c == null ? 0 : c.getUnreadMessageCount());
+            row.setReplyCount(c == null ? 0 : c.getReplyCount());
+        }
+        boxStatsRepository.saveAll(rows.values());
+    }
+
+    private BoxStats countNow(Long boxId) {
+        MessageRepository.BoxMessageCounts c = messageRepository.countGroupByBoxIdIn(List.of(boxId)).stream()
+                .findFirst()
+                .orElse(null);
+
+        return BoxStats.builder()
+                .boxId(boxId)
+                .totalMessageCount(c == null ? 0 : c.getTotalMessageCount())
+                .unreadMessageCount(c == null ? 0 : c.getUnreadMessageCount())
+                .replyCount(c == null ? 0 : c.getReplyCount())
+                .build();
+    }
+
+    // 행이 아직 없으면(옛날 박스) 0건 갱신으로 끝남 → 조회는 countNow, 재계산 때 행 생성
+    private void applyDelta(Long boxId, long total, long unread, long reply) {
+        boxStatsRepository.applyDelta(boxId, total, unread, reply, LocalDateTime.now());
+    }
+}
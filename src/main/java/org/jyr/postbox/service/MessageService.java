@@ -1,10 +1,16 @@
 package org.jyr.postbox.service;
 
+import org.jyr.postbox.domain.Message;
 import org.jyr.postbox.domain.User;
 import org.jyr.postbox.dto.box.MyBoxResponseDTO;
 import org.jyr.postbox.dto.message.MessageCreateDTO;
+import org.jyr.postbox.dto.message.MessageCursorPageDTO;
 import org.jyr.postbox.dto.message.MessageDetailDTO;
 import org.jyr.postbox.dto.message.MessagePageDTO;
+import org.jyr.postbox.dto.message.MessageSummaryDTO;
+import org.jyr.postbox.security.LoginUser;
+
+import java.util.function.Consumer;
 
 public interface MessageService {
 
@@ -21,6 +27,13 @@ public interface MessageService {
     // 3) 공개 메시지 리스트(페이지)
     MessagePageDTO getPublicMessages(String boxUrlKey, int page, int size);
 
+    // 2~3) 커서 기반 리스트 (깊은 페이지도 첫 페이지와 같은 비용, COUNT 없음)
+    MessageCursorPageDTO getMessagesForOwnerByCursor(User owner, String cursor, int size);
+
+    MessageCursorPageDTO getAnsweredMessagesForOwnerByCursor(User owner, String cursor, int size);
+
+    MessageCursorPageDTO getPublicMessagesByCursor(String boxUrlKey, String cursor, int size);
+
     // 4) 답장 달기
     void replyToMessage(Long messageId, String replyContent, User owner);
     void clearReply(Long messageId, User owner);
@@ -34,14 +47,38 @@ public interface MessageService {
     // 7) MyBox - 메시지 상세 보기
     MessageDetailDTO getMessageDetailForOwner(Long messageId, User owner);
 
-    // 8) MyBox 통합 응답 (박스 정보 + 메시지 리스트)
+    // 8) MyBox 통합 응답 (박스 정보 + 메시지 첫 페이지)
     MyBoxResponseDTO getMyBox(User owner);
 
+    // 8-1) MyBox 전체 메시지를 한 건씩 sink 로 흘려보냄 (메모리 일정, 트랜잭션 안에서 호출됨)
+    void streamMessagesForOwner(User owner, Consumer<MessageSummaryDTO> sink);
+
     // 9) 로그인 유저가 타 계정에 남긴 댓글 수정 삭제
     void updateMessage(Long messageId, String newContent, User loginUser);
     void deleteMessage(Long messageId, User loginUser);
 
     void generateAiReply(Long messageId, String loginUserId);
 
+    // AI 답변 스트리밍 1단계: 검증 + 선점 (실패하면 예외 → 응답 시작 전에 상태 코드로)
+    Message claimAiReply(Long messageId, String loginUserId);
+
+    // 2단계: 선점한 메시지의 답변을 조각씩 onDelta 로 보내고, 다 받으면 저장 (실패하면 선점 해제)
+    String streamClaimedAiReply(Message message, Consumer<String> onDelta);
+
+    // ===== 로그인 principal 기준 (User 재조회 없이, 주인 전용 API 용) =====
+    MessagePageDTO getMessagesForOwner(LoginUser owner, int page, int size);
+    MessagePageDTO getAnsweredMessagesForOwner(LoginUser owner, int page, int size);
+    MessageCursorPageDTO getMessagesForOwnerByCursor(LoginUser owner, String cursor, int size);
+    MessageCursorPageDTO getAnsweredMessagesForOwnerByCursor(LoginUser owner, String cursor, int size);
+    void replyToMessage(Long messageId, String replyContent, LoginUser owner);
+    void clearReply(Long messageId, LoginUser owner);
+    void hideMessage(Long messageId, LoginUser owner);
+    void updateMessage(Long messageId, String newContent, LoginUser loginUser);
+    void deleteMessage(Long messageId, LoginUser owner);
+    void blacklistUserByMessage(Long messageId, LoginUser owner);
+    MessageDetailDTO getMessageDetailForOwner(Long messageId, LoginUser owner);
+    MyBoxResponseDTO getMyBox(LoginUser owner);
+    void streamMessagesForOwner(LoginUser owner, Consumer<MessageSummaryDTO> sink);
+
 
 }
@@ -1,24 +1,37 @@
 package org.jyr.postbox.service;
 
 import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.ai.job.AiReplyJobService;
+import org.jyr.postbox.ai.service.AiReplyClaimService;
+import org.jyr.postbox.ai.service.AiReplySingleFlight;
+import org.jyr.postbox.cache.BoxLookupCache;
+import org.jyr.postbox.cache.BoxSnapshot;
 import org.jyr.postbox.domain.*;
 import org.jyr.postbox.dto.box.BoxHeaderDTO;
 import org.jyr.postbox.dto.box.MyBoxResponseDTO;
 import org.jyr.postbox.dto.message.MessageCreateDTO;
+import org.jyr.postbox.dto.message.MessageCursorPageDTO;
 import org.jyr.postbox.dto.message.MessageDetailDTO;
 import org.jyr.postbox.dto.message.MessagePageDTO;
 import org.jyr.postbox.dto.message.MessageSummaryDTO;
+import org.jyr.postbox.dto.message.MessageSummaryView;
+import org.jyr.postbox.exception.AiReplyInProgressException;
 import org.jyr.postbox.exception.BlockedUserException;
 import org.jyr.postbox.repository.*;
+import org.jyr.postbox.security.LoginUser;
+import org.jyr.postbox.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
@@ -26,13 +39,26 @@ import java.util.stream.Collectors;
 @Transactional
 public class MessageServiceImpl implements MessageService {
 
+    // 커서 페이지 최대 크기
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final BoxRepository boxRepository;
     private final MessageRepository messageRepository;
     private final BlackListRepository blackListRepository;
     private final NotificationRepository notificationRepository;
     private final NotificationService notificationService;
     private final org.jyr.postbox.ai.service.AiReplyService aiReplyService;
+    private final AiReplyJobService aiReplyJobService;
+    private final AiReplyClaimService aiReplyClaimService;
+    private final AiReplySingleFlight aiReplySingleFlight;
     private final UserRepository userRepository;
+    private final AiReplyJobRepository aiReplyJobRepository;
+    private final BoxStatsService boxStatsService;
+    private final BoxLookupCache boxLookupCache;
+
+    // MyBox 첫 화면에 같이 내려주는 메시지 수
+    @Value("${app.mybox.first-page-size:20}")
+    private int myBoxFirstPageSize;
 
     // =============== 메시지 작성 ===============
     @Override
@@ -47,12 +73,13 @@ public class MessageServiceImpl implements MessageService {
             throw new IllegalArgumentException("메시지 내용이 비어 있습니다.");
         }
 
-        // 1) 박스 찾기
-        Box box = boxRepository.findByUrlKey(dto.getBoxUrlKey())
+        // 1) 박스 찾기 (캐시 → 박스는 id 참조만, 추가 SELECT 없음)
+        BoxSnapshot boxInfo = boxLookupCache.findByUrlKey(dto.getBoxUrlKey())
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 박스입니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
 
         // 2) 로그인 필수 박스 → 익명 차단
-        if (!box.isAllowAnonymous() && loginUserOrNull == null) {
+        if (!boxInfo.allowAnonymous() && loginUserOrNull == null) {
             throw new IllegalStateException("이 박스는 로그인한 회원만 메시지를 남길 수 있습니다.");
         }
 
@@ -74,7 +101,7 @@ public class MessageServiceImpl implements MessageService {
         if (loginUserOrNull != null) {
             authorUser = loginUserOrNull;
 
-            if (loginUserOrNull.getId().equals(box.getOwner().getId())) {
+            if (loginUserOrNull.getId().equals(boxInfo.ownerId())) {
                 authorType = AuthorType.OWNER;
             }
         }
@@ -89,39 +116,38 @@ public class MessageServiceImpl implements MessageService {
                         .privateMessage(dto.isPrivateMessage())
                         .build()
         );
+        boxStatsService.onMessageCreated(boxInfo.id());
         // ✅ 4-1) AI 자동답변 (AI 모드 ON + "박스 주인" + "askAi 토글 ON" 일 때만)
-        if (box.isAiMode()
+        //  - AI 호출은 여기서 하지 않고 작업 큐에 등록만 한다 (같은 트랜잭션 → 메시지와 함께 커밋)
+        //  - 실제 답변은 AiReplyJobWorker 가 백그라운드에서 달고 AI_REPLY 알림을 보낸다
+        if (boxInfo.aiMode()
                 && authorType == AuthorType.OWNER
                 && dto.isAskAi()) {
-
-            try {
-                String aiText = aiReplyService.generateReply(saved);
-                saved.writeReply(aiText, ReplyAuthorType.AI);
-                messageRepository.save(saved); // ✅ replyContent 반영
-            } catch (Exception e) {
-                // MVP: AI 실패해도 메시지 작성은 성공해야 함
-                // log.warn("AI reply failed. messageId={}", saved.getId(), e);
-            }
+            aiReplyJobService.enqueue(saved.getId());
         }
 
 
         // 5) 알림 생성 (박스 주인에게)
-        String alertMessage =
-                (authorType == AuthorType.OWNER)
-                        ? "박스 주인이 메시지를 남겼어요."
-                        : "새로운 메시지가 도착했어요!";
-
-        notificationRepository.save(
-                Notification.builder()
-                        .targetUser(box.getOwner())
-                        .type(NotificationType.COMMENT) // 프로젝트 enum에 맞게
-                        .alertMessage(alertMessage)
-                        .message(saved)
-                        .linkUrl("/me/messages/" + saved.getId())
-                        .read(false)
-                        .createdAt(LocalDateTime.now())
-                        .build()
-        );
+        //  - 다른 사람이 쓴 글: 주인이 아직 안 읽은 "새 메시지" 알림이 있으면 거기에 묶음 (개수 +1, 링크 갱신)
+        //  - 저장은 쓰기 버퍼가 커밋 후 batch 로 (이 요청에서는 알림 SQL 없음)
+        if (authorType == AuthorType.OWNER) {
+            notificationService.createNotification(
+                    boxInfo.ownerId(),
+                    NotificationType.COMMENT,
+                    "박스 주인이 메시지를 남겼어요.",
+                    "/me/messages/" + saved.getId(),
+                    saved.getId()
+            );
+        } else {
+            notificationService.createOrCoalesceNotification(
+                    boxInfo.ownerId(),
+                    NotificationType.COMMENT,
+                    "COMMENT:box:" + boxInfo.id(),
+                    "새로운 메시지가 도착했어요!",
+                    "/me/messages/" + saved.getId(),
+                    saved.getId()
+            );
+        }
 
         return saved.getId();
     }
@@ -134,24 +160,16 @@ public class MessageServiceImpl implements MessageService {
     @Transactional(readOnly = true)
     public MessagePageDTO getMessagesForOwner(User owner, int page, int size) {
 
-        Box box = boxRepository.findByOwner(owner)
+        BoxSnapshot boxInfo = boxLookupCache.findByOwnerId(owner.getId())
                 .orElseThrow(() -> new IllegalStateException("해당 유저의 박스가 없습니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
 
         // ✅ 1) 박스 헤더 DTO 생성 (핵심)
-        BoxHeaderDTO boxHeaderDTO = BoxHeaderDTO.builder()
-                .boxId(box.getId())
-                .boxTitle(box.getTitle())
-                .urlKey(box.getUrlKey())
-                .ownerName(owner.getNickname())
-                .profileImageUrl(owner.getProfileImageUrl())
-                .headerImageUrl(owner.getHeaderImageUrl())  // ✅ BoxHeaderDTO에 필드 추가되어 있어야 함
-                .allowAnonymous(box.isAllowAnonymous())
-                .aiMode(box.isAiMode())
-                .build();
+        BoxHeaderDTO boxHeaderDTO = buildOwnerHeader(boxInfo, owner);
 
         PageRequest pageable = PageRequest.of(page, size);
-        Page<Message> result = messageRepository
-                .findByBoxOrderByCreatedAtDesc(box, pageable);
+        Page<MessageSummaryView> result = messageRepository
+                .findSummaryByBox(box, pageable);
 
         return MessagePageDTO.builder()
                 .box(boxHeaderDTO) // ✅ 2) MessagePageDTO에 box 넣기 (핵심)
@@ -164,7 +182,7 @@ public class MessageServiceImpl implements MessageService {
                                 .map(this::toSummaryDTO)
                                 .collect(Collectors.toList())
                 )
-                .allowAnonymous(box.isAllowAnonymous())
+                .allowAnonymous(boxInfo.allowAnonymous())
                 .build();
     }
 
@@ -174,25 +192,17 @@ public class MessageServiceImpl implements MessageService {
     @Transactional(readOnly = true)
     public MessagePageDTO getAnsweredMessagesForOwner(User owner, int page, int size) {
 
-        Box box = boxRepository.findByOwner(owner)
+        BoxSnapshot boxInfo = boxLookupCache.findByOwnerId(owner.getId())
                 .orElseThrow(() -> new IllegalStateException("해당 유저의 박스가 없습니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
 
         // 여기 추가: boxHeaderDTO 생성
-        BoxHeaderDTO boxHeaderDTO = BoxHeaderDTO.builder()
-                .boxId(box.getId())
-                .boxTitle(box.getTitle())
-                .urlKey(box.getUrlKey())
-                .ownerName(owner.getNickname())
-                .profileImageUrl(owner.getProfileImageUrl())
-                .headerImageUrl(owner.getHeaderImageUrl())   // BoxHeaderDTO에 필드 있어야 함
-                .allowAnonymous(box.isAllowAnonymous())
-                .aiMode(box.isAiMode())
-                .build();
+        BoxHeaderDTO boxHeaderDTO = buildOwnerHeader(boxInfo, owner);
 
         PageRequest pageable = PageRequest.of(page, size);
 
-        Page<Message> result = messageRepository
-                .findByBoxAndReplyContentIsNotNullOrderByCreatedAtDesc(box, pageable);
+        Page<MessageSummaryView> result = messageRepository
+                .findAnsweredSummaryByBox(box, pageable);
 
         return MessagePageDTO.builder()
                 .box(boxHeaderDTO) // 이제 빨간줄 사라짐
@@ -205,7 +215,7 @@ public class MessageServiceImpl implements MessageService {
                                 .map(this::toSummaryDTO)
                                 .collect(Collectors.toList())
                 )
-                .allowAnonymous(box.isAllowAnonymous())
+                .allowAnonymous(boxInfo.allowAnonymous())
                 .build();
     }
 
@@ -217,17 +227,16 @@ public class MessageServiceImpl implements MessageService {
     @Transactional(readOnly = true)
     public MessagePageDTO getPublicMessages(String boxUrlKey, int page, int size) {
 
-        Box box = boxRepository.findByUrlKey(boxUrlKey)
+        BoxSnapshot boxInfo = boxLookupCache.findByUrlKey(boxUrlKey)
                 .orElseThrow(() -> new IllegalArgumentException("박스를 찾을 수 없습니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
 
-        // ✅ 정렬을 Pageable에 명시(안정성 ↑)
-        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        // 정렬은 쿼리에 고정 (createdAt desc, id desc)
+        PageRequest pageable = PageRequest.of(page, size);
 
         // 숨김 제외 + 최신순
-        Page<Message> result = messageRepository
-                .findByBoxAndHiddenFalseAndSystemMessageFalseAndPrivateMessageFalseOrderByCreatedAtDesc(
-                        box, pageable
-                );
+        Page<MessageSummaryView> result = messageRepository
+                .findPublicSummaryByBox(box, pageable);
 
 
         return MessagePageDTO.builder()
@@ -235,7 +244,7 @@ public class MessageServiceImpl implements MessageService {
                 .size(result.getSize())
                 .totalPages(result.getTotalPages())
                 .totalElements(result.getTotalElements())
-                .allowAnonymous(box.isAllowAnonymous()) // ✅ 핵심: 공개 페이지에서 글쓰기 조건 판단용
+                .allowAnonymous(boxInfo.allowAnonymous()) // ✅ 핵심: 공개 페이지에서 글쓰기 조건 판단용
                 .content(
                         result.getContent().stream()
                                 .map(this::toSummaryDTO)
@@ -246,18 +255,118 @@ public class MessageServiceImpl implements MessageService {
 
 
 
+    // =============== 커서 기반 리스트 ===============
+    @Override
+    @Transactional(readOnly = true)
+    public MessageCursorPageDTO getMessagesForOwnerByCursor(User owner, String cursor, int size) {
+
+        BoxSnapshot boxInfo = boxLookupCache.findByOwnerId(owner.getId())
+                .orElseThrow(() -> new IllegalStateException("해당 유저의 박스가 없습니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
+
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor);
+        int limit = clampPageSize(size);
+
+        List<MessageSummaryView> rows = messageRepository.findOwnerPageAfter(
+                box, after.createdAt(), after.id(), PageRequest.of(0, limit + 1));
+
+        return toCursorPage(rows, limit, after.isFirst() ? buildOwnerHeader(boxInfo, owner) : null, boxInfo);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageCursorPageDTO getAnsweredMessagesForOwnerByCursor(User owner, String cursor, int size) {
+
+        BoxSnapshot boxInfo = boxLookupCache.findByOwnerId(owner.getId())
+                .orElseThrow(() -> new IllegalStateException("해당 유저의 박스가 없습니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
+
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor);
+        int limit = clampPageSize(size);
+
+        List<MessageSummaryView> rows = messageRepository.findAnsweredPageAfter(
+                box, after.createdAt(), after.id(), PageRequest.of(0, limit + 1));
+
+        return toCursorPage(rows, limit, after.isFirst() ? buildOwnerHeader(boxInfo, owner) : null, boxInfo);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageCursorPageDTO getPublicMessagesByCursor(String boxUrlKey, String cursor, int size) {
+
+        BoxSnapshot boxInfo = boxLookupCache.findByUrlKey(boxUrlKey)
+                .orElseThrow(() -> new IllegalArgumentException("박스를 찾을 수 없습니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
+
+        KeysetCursor after = KeysetCursor.decodeOrFirst(cursor);
+        int limit = clampPageSize(size);
+
+        List<MessageSummaryView> rows = messageRepository.findPublicPageAfter(
+                box, after.createdAt(), after.id(), PageRequest.of(0, limit + 1));
+
+        return toCursorPage(rows, limit, null, boxInfo);
+    }
+
+    // limit + 1 개를 읽어서 넘치면 다음 페이지가 있는 것
+    private MessageCursorPageDTO toCursorPage(List<MessageSummaryView> rows, int limit, BoxHeaderDTO header, BoxSnapshot boxInfo) {
+        boolean hasNext = rows.size() > limit;
+        List<MessageSummaryView> page = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            MessageSummaryView last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.of(last.createdAt(), last.id()).encode();
+        }
+
+        return MessageCursorPageDTO.builder()
+                .size(limit)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .box(header)   // 헤더는 첫 페이지에만
+                .allowAnonymous(boxInfo.allowAnonymous())
+                .content(page.stream().map(this::toSummaryDTO).toList())
+                .build();
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private BoxHeaderDTO buildOwnerHeader(BoxSnapshot boxInfo, User owner) {
+        return BoxHeaderDTO.builder()
+                .boxId(boxInfo.id())
+                .boxTitle(boxInfo.title())
+                .urlKey(boxInfo.urlKey())
+                .ownerName(owner.getNickname())
+                .profileImageUrl(owner.getProfileImageUrl())
+                .headerImageUrl(owner.getHeaderImageUrl())
+                .allowAnonymous(boxInfo.allowAnonymous())
+                .aiMode(boxInfo.aiMode())
+                .build();
+    }
+
+
     // =============== 답장 / 숨김 / 블랙리스트 ===============
     @Override
     public void replyToMessage(Long messageId, String replyContent, User owner) {
-        Message message = messageRepository.findById(messageId)
+        Message message = messageRepository.findWithBoxById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다."));
 
         if (!message.getBox().getOwner().getId().equals(owner.getId())) {
             throw new IllegalStateException("이 메시지에 답변할 권한이 없습니다.");
         }
 
-        // 1) 답장 쓰기
-        message.writeReply(replyContent);
+        // 1) 답장 쓰기 (처음 달리는 답장이면 박스 답장 수 +1)
+        //    답장 유무 확인과 저장을 조건부 UPDATE 로 → 동시에 쓰거나 지워도 카운트가 어긋나지 않음
+        Long boxId = message.getBox().getId();
+        LocalDateTime now = LocalDateTime.now();
+        if (messageRepository.writeReplyIfAbsent(messageId, replyContent, ReplyAuthorType.OWNER, now) == 1) {
+            boxStatsService.onReplyAdded(boxId);
+        } else if (messageRepository.overwriteReply(messageId, replyContent, ReplyAuthorType.OWNER, now) == 0
+                && messageRepository.writeReplyIfAbsent(messageId, replyContent, ReplyAuthorType.OWNER, now) == 1) {
+            // 고치려는 사이에 지워졌으면 새 답장으로
+            boxStatsService.onReplyAdded(boxId);
+        }
 
         // 2) 알림 대상 = 원래 메시지를 쓴 회원 (익명이면 null)
         User authorUser = message.getAuthorUser();
@@ -276,7 +385,7 @@ public class MessageServiceImpl implements MessageService {
 
     @Transactional
     public void clearReply(Long messageId, User owner) {
-        Message message = messageRepository.findById(messageId)
+        Message message = messageRepository.findWithBoxById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 메시지입니다."));
 
         // 이 메시지가 진짜 이 사람(post box 주인)의 것인지 확인
@@ -284,34 +393,30 @@ public class MessageServiceImpl implements MessageService {
             throw new IllegalStateException("내 박스의 메시지가 아닙니다.");
         }
 
-        // 답장 내용/시간 비우기
-        message.setReplyContent(null);
-        message.setReplyCreatedAt(null);
-
-        // 🔥 지금은 OWNER 답변만 있으니까, 이걸 지우면 "답변 없음" 상태
-        message.setHasAnyAnswer(false);
-
-        messageRepository.save(message);
+        // 답장 내용/시간 비우기 + "답변 없음" 상태로 (실제로 지운 경우에만 박스 답장 수 -1)
+        if (messageRepository.clearReplyIfPresent(messageId) == 1) {
+            boxStatsService.onReplyCleared(message.getBox().getId());
+        }
     }
 
 
     @Override
     public void hideMessage(Long messageId, User owner) {
-        Message message = messageRepository.findById(messageId)
+        Message message = messageRepository.findWithBoxById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다."));
 
         if (!message.getBox().getOwner().getId().equals(owner.getId())) {
             throw new IllegalStateException("이 메시지를 숨길 권한이 없습니다.");
         }
 
-        message.hide();
+        hideAndCount(messageId, message.getBox());
     }
 
     @Transactional
     @Override
     public void blacklistUserByMessage(Long messageId, User owner) {
 
-        Message message = messageRepository.findById(messageId)
+        Message message = messageRepository.findWithBoxById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다."));
 
         Box box = message.getBox();
@@ -325,8 +430,7 @@ public class MessageServiceImpl implements MessageService {
 
         // 1) 익명인 경우 - 유저 차단 불가 → 메시지만 숨기기
         if (blockedUser == null) {
-            message.hide();
-            messageRepository.save(message);
+            hideAndCount(messageId, box);
             return;
         }
 
@@ -341,26 +445,32 @@ public class MessageServiceImpl implements MessageService {
         }
 
         // 3) 원본 메시지 숨김
-        message.hide();
-        messageRepository.save(message);
+        hideAndCount(messageId, box);
 
     }
 
+    // 조건부 UPDATE 가 1 일 때만 박스 안 읽은 수 -1 (동시 숨김 / 차단 요청이 겹쳐도 한 번만)
+    private void hideAndCount(Long messageId, Box box) {
+        if (messageRepository.hideIfVisible(messageId) == 1) {
+            boxStatsService.onMessageHidden(box.getId());
+        }
+    }
+
 
     // =========================
     // 내부 변환 메서드들
     // =========================
 
-    private String calculateAuthorLabel(Message m) {
-        switch (m.getAuthorType()) {
+    private String calculateAuthorLabel(MessageSummaryView v) {
+        switch (v.authorType()) {
 
             case ANONYMOUS:
                 return "익명";
 
             case OWNER:
             default:
-                return m.getAuthorUser() != null
-                        ? m.getAuthorUser().getNickname()
+                return v.authorNickname() != null
+                        ? v.authorNickname()
                         : "계정주";
         }
     }
@@ -368,36 +478,30 @@ public class MessageServiceImpl implements MessageService {
 
 
     // =============== 내부 변환 메서드 ===============
-    private MessageSummaryDTO toSummaryDTO(Message m) {
+    private MessageSummaryDTO toSummaryDTO(MessageSummaryView v) {
 
-        boolean fromOwner = (m.getAuthorType() == AuthorType.OWNER);
+        boolean fromOwner = (v.authorType() == AuthorType.OWNER);
 
         return MessageSummaryDTO.builder()
-                .id(m.getId())
-                .shortContent(shorten(m.getContent(), 20))
+                .id(v.id())
+                .shortContent(v.truncated() ? v.preview() + "..." : v.preview())
                 .fromOwner(fromOwner)
-                .hasReply(m.getReplyContent() != null)
-                .hidden(m.isHidden())
+                .hasReply(v.hasReply())
+                .hidden(v.hidden())
 
-                .createdAt(m.getCreatedAt())
-                .authorType(m.getAuthorType().name())
-                .authorLabel(calculateAuthorLabel(m))
+                .createdAt(v.createdAt())
+                .authorType(v.authorType().name())
+                .authorLabel(calculateAuthorLabel(v))
 
                 .build();
     }
 
-    private String shorten(String content, int max) {
-        if (content == null) return "";
-        if (content.length() <= max) return content;
-        return content.substring(0, max) + "...";
-    }
-
     @Override
     @Transactional(readOnly = true)
     public MessageDetailDTO getMessageDetailForOwner(Long messageId, User loginUser) {
 
         // 1) 메시지 조회
-        Message m = messageRepository.findById(messageId)
+        Message m = messageRepository.findWithBoxById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다."));
 
         Long loginId = loginUser.getId();
@@ -433,33 +537,35 @@ public class MessageServiceImpl implements MessageService {
     public MyBoxResponseDTO getMyBox(User owner) {
 
         // 1) 박스 찾기
-        Box box = boxRepository.findByOwner(owner)
+        BoxSnapshot boxInfo = boxLookupCache.findByOwnerId(owner.getId())
                 .orElseThrow(() -> new IllegalStateException("박스가 없습니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
 
-        // 2) 박스 헤더 정보용 카운트 값 계산
-        long totalMessageCount  = messageRepository.countByBox(box);
-        long unreadMessageCount = messageRepository.countByBoxAndHiddenFalse(box);
-        long replyCount         = messageRepository.countByBoxAndReplyContentIsNotNull(box);
+        // 2) 박스 헤더 정보용 카운트 값 (box_stats PK 조회 1번)
+        BoxStats stats = boxStatsService.getStats(box.getId());
 
         // 3) 박스 헤더 DTO 생성
         BoxHeaderDTO boxHeaderDTO = BoxHeaderDTO.builder()
-                .boxId(box.getId())
-                .boxTitle(box.getTitle())
-                .urlKey(box.getUrlKey())
+                .boxId(boxInfo.id())
+                .boxTitle(boxInfo.title())
+                .urlKey(boxInfo.urlKey())
                 .ownerName(owner.getNickname())          // 🔥 최신 nickname 반영
                 .profileImageUrl(owner.getProfileImageUrl())
-                .totalMessageCount(totalMessageCount)
-                .unreadMessageCount(unreadMessageCount)
-                .replyCount(replyCount)
-                .allowAnonymous(box.isAllowAnonymous())
+                .totalMessageCount(stats.getTotalMessageCount())
+                .unreadMessageCount(stats.getUnreadMessageCount())
+                .replyCount(stats.getReplyCount())
+                .allowAnonymous(boxInfo.allowAnonymous())
                 .build();
 
-        // 4) 메시지 요약 리스트
-        List<MessageSummaryDTO> summaryList = messageRepository
-                .findByBoxOrderByCreatedAtDesc(box)
-                .stream()
-                .map(this::toSummaryDTO)
-                .toList();
+        // 4) 메시지 요약 리스트 (첫 페이지만, 나머지는 커서 API / 스트리밍 API 로)
+        KeysetCursor first = KeysetCursor.first();
+        MessageCursorPageDTO firstPage = toCursorPage(
+                messageRepository.findOwnerPageAfter(
+                        box, first.createdAt(), first.id(), PageRequest.of(0, myBoxFirstPageSize + 1)),
+                myBoxFirstPageSize,
+                null,
+                boxInfo
+        );
 
         // 5) ⭐ MyBoxResponseDTO 전부 채워서 리턴
         return MyBoxResponseDTO.builder()
@@ -467,16 +573,33 @@ public class MessageServiceImpl implements MessageService {
                 .profileImageUrl(owner.getProfileImageUrl())
                 .headerImageUrl(owner.getHeaderImageUrl())
                 .box(boxHeaderDTO)
-                .messages(summaryList)
-                .allowAnonymous(box.isAllowAnonymous())
-                .aiMode(box.isAiMode())
+                .messages(firstPage.getContent())
+                .nextCursor(firstPage.getNextCursor())
+                .hasNext(firstPage.isHasNext())
+                .allowAnonymous(boxInfo.allowAnonymous())
+                .aiMode(boxInfo.aiMode())
                 .build();
     }
 
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamMessagesForOwner(User owner, Consumer<MessageSummaryDTO> sink) {
+
+        BoxSnapshot boxInfo = boxLookupCache.findByOwnerId(owner.getId())
+                .orElseThrow(() -> new IllegalStateException("박스가 없습니다."));
+        Box box = boxRepository.getReferenceById(boxInfo.id());
+
+        // 엔티티가 아닌 프로젝션이라 영속성 컨텍스트에 쌓이지 않음
+        try (Stream<MessageSummaryView> stream = messageRepository.streamSummaryByBox(box)) {
+            stream.map(this::toSummaryDTO).forEach(sink);
+        }
+    }
+
+
     @Override
     public void updateMessage(Long messageId, String newContent, User loginUser) {
-        Message message = messageRepository.findById(messageId)
+        Message message = messageRepository.findWithBoxById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다."));
 
         // 1) 작성자가 로그인 유저여야 하고
@@ -492,7 +615,7 @@ public class MessageServiceImpl implements MessageService {
 
 //    @Override
 //    public void deleteMessage(Long messageId, User loginUser) {
-//        Message message = messageRepository.findById(messageId)
+//        Message message = messageRepository.findWithBoxById(messageId)
 //                .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다."));
 //
 //        if (message.getAuthorUser() == null ||
@@ -506,7 +629,8 @@ public class MessageServiceImpl implements MessageService {
 
     @Override
     public void deleteMessage(Long messageId, User loginUser) {
-        Message message = messageRepository.findById(messageId)
+        // 행 잠금: 읽은 뒤 삭제 전에 답장 / 숨김이 끼어들면 카운트 차감이 어긋나므로
+        Message message = messageRepository.findWithBoxByIdForUpdate(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다."));
 
         // ✅ 박스 주인만 삭제 가능 (받은 메시지 관리)
@@ -514,16 +638,53 @@ public class MessageServiceImpl implements MessageService {
             throw new IllegalStateException("이 메시지를 삭제할 권한이 없습니다.");
         }
 
+        aiReplyJobRepository.deleteAllByMessageIdIn(List.of(message.getId()));
+        notificationRepository.deleteAllByMessage_IdIn(List.of(message.getId()));
+        boxStatsService.onMessageDeleted(
+                message.getBox().getId(),
+                message.isHidden(),
+                message.getReplyContent() != null
+        );
         messageRepository.delete(message);
     }
 
 
     //Ai
-    @Transactional
+    // AI 호출은 트랜잭션 밖에서 (수 초 동안 커넥션을 잡지 않도록), 선점/저장만 짧은 트랜잭션
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
     public void generateAiReply(Long messageId, String loginUserId) {
+        Message message = loadForAiReply(messageId, loginUserId);
+
+        // 같은 노드의 동시 요청(더블클릭/재시도)은 AI 호출 한 번의 결과를 같이 받는다
+        aiReplySingleFlight.execute(messageId, () -> generateClaimedAiReply(message));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public Message claimAiReply(Long messageId, String loginUserId) {
+        Message message = loadForAiReply(messageId, loginUserId);
+        claimOrThrow(messageId);
+        return message;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public String streamClaimedAiReply(Message message, Consumer<String> onDelta) {
+        try {
+            // 다 받은 뒤에만 저장 (중간에 끊기면 아무것도 남기지 않음)
+            String aiText = aiReplyService.streamReply(message, onDelta);
+            aiReplyClaimService.complete(message.getId(), aiText);
+            return aiText;
+        } catch (RuntimeException e) {
+            aiReplyClaimService.release(message.getId());
+            throw e;
+        }
+    }
 
-        Message message = messageRepository.findById(messageId)
+    // 주인 / AI 모드 / 답변 없음 검증 (box 같이 로딩)
+    private Message loadForAiReply(Long messageId, String loginUserId) {
+        Message message = messageRepository.findWithBoxById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("메시지를 찾을 수 없습니다."));
 
         User owner = userRepository.findByUserId(loginUserId)
@@ -543,11 +704,108 @@ public class MessageServiceImpl implements MessageService {
         if (message.getReplyContent() != null && !message.getReplyContent().isBlank()) {
             throw new IllegalStateException("이미 답변이 존재합니다.");
         }
+        return message;
+    }
+
+    // DB 선점에 성공한 요청만 AI 를 부른다 (다른 노드 / AI 작업 큐와의 경쟁은 여기서 막힘)
+    private void claimOrThrow(Long messageId) {
+        switch (aiReplyClaimService.tryClaim(messageId)) {
+            case ANSWERED -> throw new IllegalStateException("이미 답변이 존재합니다.");
+            case IN_PROGRESS -> throw new AiReplyInProgressException("다른 요청에서 AI 답변을 만드는 중입니다.");
+            case CLAIMED -> { }
+        }
+    }
+
+    private String generateClaimedAiReply(Message message) {
+        claimOrThrow(message.getId());
 
-        String aiText = aiReplyService.generateReply(message);
-        message.writeReply(aiText, ReplyAuthorType.AI);
-        messageRepository.save(message);
+        try {
+            String aiText = aiReplyService.generateReply(message);
+            aiReplyClaimService.complete(message.getId(), aiText);
+            return aiText;
+        } catch (RuntimeException e) {
+            aiReplyClaimService.release(message.getId());
+            throw e;
+        }
     }
 
+    // ===================== 로그인 principal 기준 =====================
+    // 주인 검증/조회에는 PK 만 필요하므로 User 는 프록시 참조로 넘긴다
+    // (닉네임 등이 필요한 헤더 응답에서만 실제 SELECT 1번)
+
+    private User ownerOf(LoginUser loginUser) {
+        return userRepository.getReferenceById(loginUser.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessagePageDTO getMessagesForOwner(LoginUser owner, int page, int size) {
+        return getMessagesForOwner(ownerOf(owner), page, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessagePageDTO getAnsweredMessagesForOwner(LoginUser owner, int page, int size) {
+        return getAnsweredMessagesForOwner(ownerOf(owner), page, size);
+    }
 
-}
\ No newline at end of file
+    @Override
+    @Transactional(readOnly = true)
+    public MessageCursorPageDTO getMessagesForOwnerByCursor(LoginUser owner, String cursor, int size) {
+        return getMessagesForOwnerByCursor(ownerOf(owner), cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageCursorPageDTO getAnsweredMessagesForOwnerByCursor(LoginUser owner, String cursor, int size) {
+        return getAnsweredMessagesForOwnerByCursor(ownerOf(owner), cursor, size);
+    }
+
+    @Override
+    public void replyToMessage(Long messageId, String replyContent, LoginUser owner) {
+        replyToMessage(messageId, replyContent, ownerOf(owner));
+    }
+
+    @Override
+    public void clearReply(Long messageId, LoginUser owner) {
+        clearReply(messageId, ownerOf(owner));
+    }
+
+    @Override
+    public void hideMessage(Long messageId, LoginUser owner) {
+        hideMessage(messageId, ownerOf(owner));
+    }
+
+    @Override
+    public void updateMessage(Long messageId, String newContent, LoginUser loginUser) {
+        updateMessage(messageId, newContent, ownerOf(loginUser));
+    }
+
+    @Override
+    public void deleteMessage(Long messageId, LoginUser owner) {
+        deleteMessage(messageId, ownerOf(owner));
+    }
+
+    @Override
+    public void blacklistUserByMessage(Long messageId, LoginUser owner) {
+        blacklistUserByMessage(messageId, ownerOf(owner));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageDetailDTO getMessageDetailForOwner(Long messageId, LoginUser owner) {
+        return getMessageDetailForOwner(messageId, ownerOf(owner));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MyBoxResponseDTO getMyBox(LoginUser owner) {
+        return getMyBox(ownerOf(owner));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamMessagesForOwner(LoginUser owner, Consumer<MessageSummaryDTO> sink) {
+        streamMessagesForOwner(ownerOf(owner), sink);
+    }
+}
@@ -2,6 +2,7 @@ package org.jyr.postbox.service;
 
 import org.jyr.postbox.domain.NotificationType;
 import org.jyr.postbox.dto.NotificationDTO;
+import org.jyr.postbox.dto.notification.NotificationCursorPageDTO;
 
 import java.util.List;
 
@@ -16,11 +17,33 @@ public interface NotificationService {
             String linkUrl,
             Long messageId
     );
+    // 묶음 알림: 같은 coalesceKey 의 안 읽은 알림이 있으면 개수만 올리고, 없으면 새로 만든다
+    void createOrCoalesceNotification(
+            Long targetUserId,
+            NotificationType type,
+            String coalesceKey,
+            String alertMessage,
+            String linkUrl,
+            Long messageId
+    );
+
     // 시스템 알림 공지 보내기
     void sendSystemNotice(Long targetUserId, String alertMessage, String linkUrl);
 
-    // 알림 목록 조회
+    // 전체 공지 발행 (유저 수와 상관없이 1행, 공지 id 반환)
+    Long publishBroadcastNotice(String alertMessage, String linkUrl);
+
+    // 전체 공지 읽음 처리 (유저별 읽음 기록은 이때 생성)
+    void markNoticeAsRead(Long userId, Long noticeId);
+
+    // 알림 목록 조회 (최신 일부만, 전체는 커서 기반 목록으로)
     List<NotificationDTO> getUserNotifications(Long userId);
+
+    // 커서 기반 알림 목록 (최신순, 계정이 오래돼도 같은 비용)
+    NotificationCursorPageDTO getUserNotificationsByCursor(Long userId, String cursor, int size);
+
+    // 새로고침: since 커서 이후 새 알림만
+    NotificationCursorPageDTO getUserNotificationsSince(Long userId, String sinceCursor, int size);
     // 알림 읽음 처리
     void markAsRead(Long userId, Long notificationId);
 
@@ -28,4 +51,7 @@ public interface NotificationService {
 
     void markAllAsRead(Long userId);
 
+    // 선택한 알림들 한 번에 읽음 처리 (새로 읽음 처리된 수 반환)
+    int markAsRead(Long userId, List<Long> notificationIds);
+
 }
@@ -4,30 +4,55 @@ package org.jyr.postbox.service;
 import lombok.RequiredArgsConstructor;
 import org.jyr.postbox.domain.*;
 import org.jyr.postbox.dto.NotificationDTO;
+import org.jyr.postbox.dto.notification.NotificationCursorPageDTO;
 import org.jyr.postbox.dto.message.MessageCreateDTO;
-import org.jyr.postbox.repository.BoxRepository;
-import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.notification.BroadcastNoticePublishedEvent;
+import org.jyr.postbox.notification.NotificationDraft;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.UnreadCountChangedEvent;
+import org.jyr.postbox.repository.BroadcastNoticeReadRepository;
+import org.jyr.postbox.repository.BroadcastNoticeRepository;
 import org.jyr.postbox.repository.NotificationRepository;
-import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
 
+    // 커서 피드 최대 크기
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
-    private final MessageRepository messageRepository;
-    private final BoxRepository boxRepository;
+    private final BroadcastNoticeRepository broadcastNoticeRepository;
+    private final BroadcastNoticeReadRepository broadcastNoticeReadRepository;
+    private final NotificationWriteBuffer notificationWriteBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.notification.page-size:20}")
+    private int defaultPageSize;
+
+    // 전체 공지 노출 기간 (이보다 오래된 공지는 목록/개수에서 빠지고 정리 job 이 삭제)
+    @Value("${app.notification.notice.visible-days:30}")
+    private int noticeVisibleDays;
 
 
     // (1) 공통 알림 생성
+    //  - 바로 저장하지 않고 쓰기 버퍼에 넣음 (커밋 후 백그라운드에서 batch 저장 → SSE push)
     @Override
     public void createNotification(
             Long targetUserId,
@@ -36,28 +61,22 @@ public class NotificationServiceImpl implements NotificationService {
             String linkUrl,
             Long messageId
     ) {
-        User targetUser = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new IllegalArgumentException("알림 대상 유저가 없습니다. id=" + targetUserId));
-
-        Message message = null;
-        if (messageId != null) {
-            message = messageRepository.findById(messageId).orElse(null);
-        }
-
-        System.out.println("[NOTI-CREATE] targetUser=" + targetUser.getNickname()
-                + ", type=" + type
-                + ", linkUrl=" + linkUrl
-                + ", messageId=" + messageId);
-
-        Notification notification = Notification.builder()
-                .targetUser(targetUser)
-                .type(type)
-                .alertMessage(alertMessage)
-                .linkUrl(linkUrl)
-                .message(message)
-                .build();
+        notificationWriteBuffer.enqueue(
+                new NotificationDraft(targetUserId, type, null, alertMessage, linkUrl, messageId));
+    }
 
-        notificationRepository.save(notification);
+    // (1-1) 묶음 알림 생성/갱신 (저장은 버퍼에서 upsert)
+    @Override
+    public void createOrCoalesceNotification(
+            Long targetUserId,
+            NotificationType type,
+            String coalesceKey,
+            String alertMessage,
+            String linkUrl,
+            Long messageId
+    ) {
+        notificationWriteBuffer.enqueue(
+                new NotificationDraft(targetUserId, type, coalesceKey, alertMessage, linkUrl, messageId));
     }
 
     // 시스템알림_관리상자
@@ -72,13 +91,112 @@ public class NotificationServiceImpl implements NotificationService {
         );
     }
 
-    // 알림 목록 조회
+    // 전체 공지 발행: 유저 수와 상관없이 1행만 저장 (읽음 기록은 유저가 읽을 때 생김)
     @Override
+    @Transactional
+    public Long publishBroadcastNotice(String alertMessage, String linkUrl) {
+        if (alertMessage == null || alertMessage.isBlank()) {
+            throw new IllegalArgumentException("공지 내용이 비어 있습니다.");
+        }
+
+        BroadcastNotice saved = broadcastNoticeRepository.save(BroadcastNotice.builder()
+                .alertMessage(alertMessage)
+                .linkUrl(linkUrl)
+                .build());
+
+        eventPublisher.publishEvent(new BroadcastNoticePublishedEvent(NotificationDTO.fromNotice(saved, false)));
+        return saved.getId();
+    }
+
+    // 알림 목록 조회 (개인 알림 + 노출 기간 안의 전체 공지, 최신순)
+    // 예전 목록 API 용: 커서 피드의 첫 페이지와 같은 범위(최신 MAX_PAGE_SIZE 개)만, 그 이전은 /cursor 로
+    @Override
+    @Transactional(readOnly = true)
     public List<NotificationDTO> getUserNotifications(Long userId) {
-        return notificationRepository.findByTargetUser_IdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(NotificationDTO::from)
-                .toList();
+        KeysetCursor first = KeysetCursor.first();
+        List<NotificationDTO> result = new ArrayList<>(
+                notificationRepository.findPageBefore(
+                                userId, first.createdAt(), first.id(), PageRequest.of(0, MAX_PAGE_SIZE))
+                        .stream()
+                        .map(NotificationDTO::from)
+                        .toList());
+
+        result.addAll(visibleNotices(userId, noticeWindowStart()));
+        result.sort(Comparator.comparing(NotificationDTO::getCreatedAt).reversed());
+        return result;
+    }
+
+    // 커서 기반 알림 목록
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationCursorPageDTO getUserNotificationsByCursor(Long userId, String cursor, int size) {
+        int limit = clampPageSize(size);
+        KeysetCursor before = KeysetCursor.decodeOrFirst(cursor);
+
+        List<Notification> rows = notificationRepository.findPageBefore(
+                userId, before.createdAt(), before.id(), PageRequest.of(0, limit + 1));
+
+        boolean hasNext = rows.size() > limit;
+        List<Notification> page = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = hasNext ? cursorOf(page.get(page.size() - 1)) : null;
+
+        // 전체 공지는 첫 페이지에만 (수가 적고 노출 기간이 정해져 있음)
+        List<NotificationDTO> notices = before.isFirst()
+                ? visibleNotices(userId, noticeWindowStart())
+                : List.of();
+
+        // 첫 페이지의 맨 앞이 가장 최신 → 이후 새로고침 기준
+        String latestCursor = null;
+        if (before.isFirst()) {
+            latestCursor = latestCursorOf(page.isEmpty() ? null : page.get(0), notices, null);
+        }
+
+        return NotificationCursorPageDTO.builder()
+                .size(limit)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .latestCursor(latestCursor)
+                .content(page.stream().map(NotificationDTO::from).toList())
+                .notices(notices)
+                .build();
+    }
+
+    // since 커서 이후 새 알림 (응답은 다른 목록과 같이 최신순)
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationCursorPageDTO getUserNotificationsSince(Long userId, String sinceCursor, int size) {
+        if (sinceCursor == null || sinceCursor.isBlank()) {
+            throw new IllegalArgumentException("since 커서가 비어 있습니다.");
+        }
+        int limit = clampPageSize(size);
+        KeysetCursor since = KeysetCursor.decodeOrFirst(sinceCursor);
+
+        List<Notification> rows = notificationRepository.findPageSince(
+                userId, since.createdAt(), since.id(), PageRequest.of(0, limit + 1));
+
+        boolean hasNext = rows.size() > limit;   // 새 알림이 더 있음 → latestCursor 로 다시 요청
+        List<Notification> page = hasNext ? rows.subList(0, limit) : rows;
+
+        // since 이후 새 공지 (노출 기간 시작보다 이전이면 노출 기간 기준)
+        LocalDateTime noticeAfter = since.isFirst() || since.createdAt().isBefore(noticeWindowStart())
+                ? noticeWindowStart()
+                : since.createdAt();
+        List<NotificationDTO> notices = visibleNotices(userId, noticeAfter);
+
+        String latestCursor = latestCursorOf(
+                page.isEmpty() ? null : page.get(page.size() - 1), notices, sinceCursor);
+
+        List<NotificationDTO> content = new ArrayList<>(page.stream().map(NotificationDTO::from).toList());
+        Collections.reverse(content);
+
+        return NotificationCursorPageDTO.builder()
+                .size(limit)
+                .hasNext(hasNext)
+                .latestCursor(latestCursor)
+                .content(content)
+                .notices(notices)
+                .build();
     }
 
     // ✅ 단일 알림 읽음 처리
@@ -94,8 +212,37 @@ public class NotificationServiceImpl implements NotificationService {
             throw new IllegalStateException("본인 알림만 읽음 처리할 수 있습니다.");
         }
 
+        boolean wasUnread = !n.isRead();
         n.markAsRead();              // 엔티티에 있는 메서드 (아래 참고)
         notificationRepository.save(n);
+
+        if (wasUnread) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.delta(userId, -1));
+        }
+    }
+
+    // 전체 공지 읽음 처리 (이 유저의 읽음 기록을 이때 처음 만든다)
+    @Override
+    @Transactional
+    public void markNoticeAsRead(Long userId, Long noticeId) {
+
+        BroadcastNotice notice = broadcastNoticeRepository.findById(noticeId)
+                .orElseThrow(() -> new IllegalArgumentException("공지가 없습니다. id=" + noticeId));
+
+        if (broadcastNoticeReadRepository.existsByUserIdAndNoticeId(userId, notice.getId())) {
+            return;
+        }
+
+        broadcastNoticeReadRepository.save(BroadcastNoticeRead.builder()
+                .userId(userId)
+                .noticeId(notice.getId())
+                .readAt(LocalDateTime.now())
+                .build());
+
+        // 노출 기간이 지난 공지는 원래 개수에 안 들어가 있음
+        if (notice.getCreatedAt().isAfter(noticeWindowStart())) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.delta(userId, -1));
+        }
     }
 
     //  전체 알림 읽음 처리
@@ -103,20 +250,90 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional
     public void markAllAsRead(Long userId) {
 
-        List<Notification> list =
-                notificationRepository.findByTargetUser_IdAndReadFalse(userId);
+        // 엔티티를 읽지 않고 UPDATE 한 번으로 처리
+        LocalDateTime now = LocalDateTime.now();
+        int updated = notificationRepository.markAllReadByTargetUserId(userId, now);
+
+        // 아직 안 읽은 공지만 읽음 기록 생성 (공지 수와 상관없이 INSERT 한 번)
+        updated += broadcastNoticeRepository.insertReadsForUnread(userId, noticeWindowStart(), now);
+
+        if (updated > 0) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.reset(userId));
+        }
+    }
+
+    //  선택한 알림들 읽음 처리
+    @Override
+    @Transactional
+    public int markAsRead(Long userId, List<Long> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
+        }
+
+        int updated = notificationRepository.markReadByIds(userId, notificationIds, LocalDateTime.now());
+
+        if (updated > 0) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.delta(userId, -updated));
+        }
+        return updated;
+    }
+
+    // ===================== private =====================
+
+    private int clampPageSize(int size) {
+        if (size <= 0) return defaultPageSize;
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private String cursorOf(Notification n) {
+        return KeysetCursor.of(n.getCreatedAt(), n.getId()).encode();
+    }
+
+    private LocalDateTime noticeWindowStart() {
+        return LocalDateTime.now().minusDays(noticeVisibleDays);
+    }
 
-        for (Notification n : list) {
-            n.markAsRead();
+    // after 이후 공지 + 이 유저의 읽음 여부 (쿼리 2번)
+    private List<NotificationDTO> visibleNotices(Long userId, LocalDateTime after) {
+        List<BroadcastNotice> notices = broadcastNoticeRepository
+                .findByCreatedAtAfterOrderByCreatedAtDescIdDesc(after, PageRequest.of(0, MAX_PAGE_SIZE));
+        if (notices.isEmpty()) {
+            return List.of();
         }
 
-        notificationRepository.saveAll(list);
+        Set<Long> readIds = new HashSet<>(broadcastNoticeReadRepository.findReadNoticeIds(
+                userId, notices.stream().map(BroadcastNotice::getId).toList()));
+
+        return notices.stream()
+                .map(n -> NotificationDTO.fromNotice(n, readIds.contains(n.getId())))
+                .toList();
+    }
+
+    /**
+     * 새로고침 기준 커서: 개인 알림 / 공지 중 더 최신 쪽.
+     * 공지가 더 최신이면 (공지 시각, id 0) → 같은 시각의 개인 알림은 다시 올 수 있어도 빠지지는 않음.
+     */
+    private String latestCursorOf(Notification latest, List<NotificationDTO> notices, String fallback) {
+        LocalDateTime noticeAt = notices.isEmpty() ? null : notices.get(0).getCreatedAt();
+
+        if (latest == null && noticeAt == null) return fallback;
+        if (noticeAt == null || (latest != null && !noticeAt.isAfter(latest.getCreatedAt()))) {
+            return cursorOf(latest);
+        }
+        if (fallback != null) {
+            // since 모드: 기존 커서보다 뒤로 가지 않게
+            KeysetCursor prev = KeysetCursor.decodeOrFirst(fallback);
+            if (!prev.isFirst() && !noticeAt.isAfter(prev.createdAt())) return fallback;
+        }
+        return KeysetCursor.of(noticeAt, 0L).encode();
     }
 
-    // ✅ 안 읽은 개수
+    // ✅ 안 읽은 개수 (개인 알림 + 안 읽은 공지)
     @Override
+    @Transactional(readOnly = true)
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByTargetUser_IdAndReadFalse(userId);
+        return notificationRepository.countByTargetUser_IdAndReadFalse(userId)
+                + broadcastNoticeRepository.countUnread(userId, noticeWindowStart());
     }
 
 
@@ -1,6 +1,7 @@
 package org.jyr.postbox.service;
 
 import lombok.RequiredArgsConstructor;
+import org.jyr.postbox.account.AccountDeletionJobService;
 import org.jyr.postbox.domain.*;
 import org.jyr.postbox.dto.user.*;
 import org.jyr.postbox.repository.*;
@@ -22,9 +23,7 @@ public class UserServiceImpl implements UserService {
     private final BoxService boxService;
     private final UserRepository userRepository;
     private final BoxRepository boxRepository;
-    private final MessageRepository messageRepository;
-    private final NotificationRepository notificationRepository;
-    private final BlackListRepository blackListRepository;
+    private final AccountDeletionJobService accountDeletionJobService;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
 
@@ -102,6 +101,9 @@ public class UserServiceImpl implements UserService {
         if (user.getStatus() == UserStatus.BANNED) {
             throw new IllegalStateException("운영 정책 위반으로 해당 계정의 이용이 제한되었습니다.");
         }
+        if (user.getStatus() == UserStatus.DELETING) {
+            throw new IllegalStateException("탈퇴 처리 중인 계정입니다.");
+        }
 
         // 2) 비밀번호 검증
         if (!passwordEncoder.matches(dto.getPassword(), user.getPassword())) {
@@ -264,60 +266,18 @@ public class UserServiceImpl implements UserService {
 
     // =========================
     // 계정 삭제 (박스/메시지/알림/블랙리스트 포함)
+    //  - 여기서는 DELETING 표시 + 삭제 작업 등록만 (바로 응답)
+    //  - 실제 삭제는 AccountDeletionJobWorker 가 chunk 단위 짧은 트랜잭션으로 진행
     // =========================
 
     @Override
     @Transactional
     public void deleteUserByUserId(String userId) {
 
-        // 1) 유저 찾기
         User user = userRepository.findByUserId(userId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 userId 입니다."));
 
-        // 2) 이 유저의 박스 (1:1 관계)
-        Optional<Box> optionalBox = boxRepository.findByOwner(user);
-
-        // 3) 메시지 ID들을 한 곳에 모아두기 (중복 방지용)
-        Set<Long> messageIdSet = new HashSet<>();
-
-        // 3-1) 내 박스에 달린 모든 메시지들
-        optionalBox.ifPresent(box -> {
-            List<Message> boxMessages = messageRepository.findByBox(box);
-            for (Message m : boxMessages) {
-                messageIdSet.add(m.getId());
-            }
-        });
-
-        // 3-2) 내가 작성한 모든 메시지들 (다른 사람 박스도 포함)
-        List<Message> authoredMessages = messageRepository.findByAuthorUser(user);
-        for (Message m : authoredMessages) {
-            messageIdSet.add(m.getId());
-        }
-
-        // 4) 메시지들에 연결된 알림 먼저 삭제
-        if (!messageIdSet.isEmpty()) {
-            List<Long> allMessageIds = new ArrayList<>(messageIdSet);
-
-            // 이 메시지들에 대한 알림 제거
-            notificationRepository.deleteAllByMessage_IdIn(allMessageIds);
-
-            // 메시지 삭제
-            messageRepository.deleteAllById(allMessageIds);
-        }
-
-        // 5-1) 내 박스에서 내가 차단해둔 유저들 기록 삭제 (owner 입장)
-        optionalBox.ifPresent(box -> {
-            blackListRepository.deleteAllByBox(box);
-        });
-
-        // 5-2) 내가 '차단당한 쪽(blockedUser)'으로 들어간 블랙리스트 전부 삭제
-        blackListRepository.deleteAllByBlockedUser(user);
-
-        // 6) 박스 삭제
-        optionalBox.ifPresent(boxRepository::delete);
-
-        // 7) 마지막으로 사용자 삭제
-        userRepository.delete(user);
+        accountDeletionJobService.begin(user);
     }
 
     // =========================
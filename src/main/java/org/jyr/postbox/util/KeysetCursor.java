@@ -0,0 +1,52 @@
+package org.jyr.postbox.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * (createdAt, id) 기준 커서 페이지네이션용 커서.
+ * 클라이언트에는 의미를 알 수 없는 문자열(base64url)로만 내려준다.
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    // 첫 페이지: 어떤 행보다도 "뒤"에 있는 위치
+    private static final KeysetCursor FIRST =
+            new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public static KeysetCursor first() {
+        return FIRST;
+    }
+
+    public static KeysetCursor of(LocalDateTime createdAt, Long id) {
+        return new KeysetCursor(createdAt, id);
+    }
+
+    // null/빈 문자열이면 첫 페이지
+    public static KeysetCursor decodeOrFirst(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return this.equals(FIRST);
+    }
+}
@@ -0,0 +1,9 @@
+-- =========================================================
+-- V10: 관리자 유저 목록 (id 커서 + 상태/권한 필터 + 앞부분 검색)
+--  - 필터 컬럼 뒤에 id 를 둬서 "필터 + id desc 커서" 가 인덱스 범위 스캔으로 끝나도록
+--  - userId / email 은 unique 인덱스(uk_users_user_id / uk_users_email)가 이미 prefix 검색을 받음
+-- =========================================================
+
+create index idx_users_status_id on users (status, id);
+create index idx_users_role_id on users (role, id);
+create index idx_users_nickname on users (nickname);
@@ -0,0 +1,6 @@
+-- =========================================================
+-- V11: 박스별 AI 답변 캐시 사용 여부 (기본 사용)
+-- =========================================================
+
+alter table box
+    add column ai_reply_cache_enabled bit not null default 1;
@@ -0,0 +1,8 @@
+-- =========================================================
+-- V12: 메시지 단위 AI 답변 선점 (여러 요청/노드가 같은 메시지로 AI 를 동시에 부르지 않도록)
+--  - 조건부 UPDATE (reply_content is null and 선점 없음/오래됨) 한 번으로 한 곳만 성공
+--  - PK 조건이라 추가 인덱스 불필요
+-- =========================================================
+
+alter table message
+    add column ai_reply_claimed_at datetime(6);
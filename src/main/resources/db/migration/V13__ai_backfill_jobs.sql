@@ -0,0 +1,30 @@
+-- =========================================================
+-- V13: 박스 단위 AI 답변 일괄 작성 작업
+--  - ai_backfill_jobs: 박스당 1행, 마지막 처리 메시지 id(last_id) 로 진행 위치 기록 → 취소 / 중단돼도 이어서
+-- =========================================================
+
+create table ai_backfill_jobs (
+    id bigint not null auto_increment,
+    box_id bigint not null,
+    owner_id bigint not null,
+    status enum ('CANCELLED','DONE','PENDING','RUNNING') not null,
+    last_id bigint not null,
+    total_count bigint not null,
+    answered_count bigint not null,
+    skipped_count bigint not null,
+    failed_count bigint not null,
+    locked_at datetime(6),
+    last_error varchar(500),
+    created_at datetime(6),
+    updated_at datetime(6),
+    finished_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table ai_backfill_jobs add constraint uk_ai_backfill_jobs_box_id unique (box_id);
+
+-- 워커 선점 조회 (status, locked_at)
+create index idx_ai_backfill_jobs_status_locked on ai_backfill_jobs (status, locked_at);
+
+-- chunk 조회(박스의 답변 없는 메시지 id 순)는 FK 인덱스 (box_id) 로 충분
+-- (InnoDB 보조 인덱스 끝에 PK 가 붙어 있어 box_id 고정 + id 범위 조회가 그대로 인덱스를 탐)
@@ -0,0 +1,107 @@
+-- =========================================================
+-- V1: 기준 스키마 (ddl-auto=update 로 만들어지던 테이블 그대로)
+--  - 이미 테이블이 있는 DB 는 baseline-on-migrate 로 이 버전을 건너뜀
+-- =========================================================
+
+create table users (
+    ai_consulting_enabled bit not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    address_id varchar(30) not null,
+    user_id varchar(30) not null,
+    nickname varchar(50) not null,
+    email varchar(100) not null,
+    today_message varchar(120),
+    password varchar(200) not null,
+    header_image_url varchar(300),
+    profile_image_url varchar(300),
+    role enum ('ADMIN','USER') not null,
+    status enum ('ACTIVE','BANNED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table box (
+    ai_mode bit not null,
+    allow_anonymous bit not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    url_key varchar(50) not null,
+    title varchar(100) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table message (
+    has_any_answer bit not null,
+    hidden bit not null,
+    private_message bit not null,
+    system_message bit not null,
+    author_user_id bigint,
+    box_id bigint not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    reply_created_at datetime(6),
+    content varchar(1000) not null,
+    reply_content varchar(1000),
+    author_type enum ('ANONYMOUS','OWNER') not null,
+    reply_author_type enum ('AI','OWNER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table notifications (
+    isread bit not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    message_id bigint,
+    read_at datetime(6),
+    target_user_id bigint not null,
+    alert_message varchar(500) not null,
+    link_url varchar(255),
+    type enum ('AI_REPLY','COMMENT','OWNER_REPLY','SYSTEM_ALERT','SYSTEM_NOTICE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table black_list (
+    blocked_user_id bigint not null,
+    box_id bigint not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    primary key (id)
+) engine=InnoDB;
+
+create table replies (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    message_id bigint not null,
+    content TEXT not null,
+    author_type enum ('ANONYMOUS','OWNER') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table users add constraint uk_users_address_id unique (address_id);
+alter table users add constraint uk_users_user_id unique (user_id);
+alter table users add constraint uk_users_email unique (email);
+
+alter table box add constraint uk_box_user_id unique (user_id);
+alter table box add constraint uk_box_url_key unique (url_key);
+
+alter table box
+    add constraint fk_box_user foreign key (user_id) references users (id);
+
+alter table message
+    add constraint fk_message_author_user foreign key (author_user_id) references users (id);
+alter table message
+    add constraint fk_message_box foreign key (box_id) references box (id);
+
+alter table notifications
+    add constraint fk_notifications_message foreign key (message_id) references message (id);
+alter table notifications
+    add constraint fk_notifications_target_user foreign key (target_user_id) references users (id);
+
+alter table black_list
+    add constraint fk_black_list_blocked_user foreign key (blocked_user_id) references users (id);
+alter table black_list
+    add constraint fk_black_list_box foreign key (box_id) references box (id);
+
+alter table replies
+    add constraint fk_replies_message foreign key (message_id) references message (id);
@@ -0,0 +1,37 @@
+-- =========================================================
+-- V2: AI 답변 작업 큐 + 박스 카운트 테이블
+--  - ddl-auto=update 시절에 이미 생긴 DB 도 있으므로 if not exists
+-- =========================================================
+
+create table if not exists ai_reply_jobs (
+    attempts integer not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    locked_at datetime(6),
+    message_id bigint not null,
+    next_attempt_at datetime(6) not null,
+    updated_at datetime(6),
+    last_error varchar(500),
+    status enum ('DONE','FAILED','PENDING','RUNNING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists box_stats (
+    box_id bigint not null,
+    reply_count bigint not null,
+    total_message_count bigint not null,
+    unread_message_count bigint not null,
+    updated_at datetime(6),
+    primary key (box_id)
+) engine=InnoDB;
+
+-- 기존 박스 카운트 채우기 (이미 있는 행은 그대로)
+insert ignore into box_stats (box_id, total_message_count, unread_message_count, reply_count, updated_at)
+select b.id,
+       count(m.id),
+       coalesce(sum(case when m.hidden = 0 then 1 else 0 end), 0),
+       coalesce(sum(case when m.reply_content is not null then 1 else 0 end), 0),
+       now(6)
+  from box b
+  left join message m on m.box_id = b.id
+ group by b.id;
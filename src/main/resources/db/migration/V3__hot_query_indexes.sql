@@ -0,0 +1,36 @@
+-- =========================================================
+-- V3: 자주 쓰는 조회용 복합 인덱스
+--  - 정렬까지 인덱스로 끝나도록 (조건 컬럼..., created_at, id) 순서
+-- =========================================================
+
+-- ---------- message ----------
+-- 박스 주인 목록 / 커서 / 스트리밍 / 답변 목록 / countByBox / box_stats 재계산
+create index idx_message_box_created on message (box_id, created_at, id);
+
+-- 공개 목록: findByBoxAndHiddenFalseAndSystemMessageFalseAndPrivateMessageFalseOrderByCreatedAtDesc, 공개 커서
+create index idx_message_box_public_created on message (box_id, hidden, system_message, private_message, created_at, id);
+
+-- findByBoxAndHiddenFalseOrderByCreatedAtDesc / countByBoxAndHiddenFalse
+create index idx_message_box_hidden_created on message (box_id, hidden, created_at);
+
+-- findByBoxAndHasAnyAnswerTrueOrderByCreatedAtDesc
+create index idx_message_box_answer_created on message (box_id, has_any_answer, created_at);
+
+-- ---------- notifications ----------
+-- findByTargetUser_IdOrderByCreatedAtDesc
+create index idx_notifications_target_created on notifications (target_user_id, created_at);
+
+-- countByTargetUser_IdAndReadFalse / findByTargetUser_IdAndReadFalse
+create index idx_notifications_target_read on notifications (target_user_id, isread);
+
+-- ---------- black_list ----------
+-- existsByBoxAndBlockedUser / deleteByBoxAndBlockedUser / findByBox
+create index idx_black_list_box_blocked on black_list (box_id, blocked_user_id);
+
+-- ---------- ai_reply_jobs ----------
+-- 폴링: status = PENDING and next_attempt_at <= now order by id
+create index idx_ai_reply_jobs_status_next on ai_reply_jobs (status, next_attempt_at, id);
+-- 멈춘 작업 복구: status = RUNNING and locked_at < ?
+create index idx_ai_reply_jobs_status_locked on ai_reply_jobs (status, locked_at);
+-- 메시지 삭제 시 정리
+create index idx_ai_reply_jobs_message on ai_reply_jobs (message_id);
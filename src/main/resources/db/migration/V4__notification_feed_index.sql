@@ -0,0 +1,9 @@
+-- =========================================================
+-- V4: 알림 커서 피드용 인덱스
+--  - where target_user_id = ? and (created_at, id) < / > (?, ?) order by created_at, id
+--  - 정렬 + 커서 비교까지 인덱스로 끝나도록 id 까지 포함 (V3 의 (target_user_id, created_at) 대체)
+-- =========================================================
+
+create index idx_notifications_target_created_id on notifications (target_user_id, created_at, id);
+
+drop index idx_notifications_target_created on notifications;
@@ -0,0 +1,6 @@
+-- =========================================================
+-- V5: 알림 보관 기간 정리용 인덱스
+--  - where isread = ? and created_at < ? limit N → 오래된 것부터 범위 스캔
+-- =========================================================
+
+create index idx_notifications_read_created on notifications (isread, created_at);
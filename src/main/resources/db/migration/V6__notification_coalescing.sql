@@ -0,0 +1,11 @@
+-- =========================================================
+-- V6: 알림 묶음 (박스에 새 메시지가 몰려도 안 읽은 "새 메시지" 알림은 1행)
+--  - coalesce_key: 안 읽은 묶음 알림에만 값, 읽으면 null (null 은 유니크 제약에 걸리지 않음)
+--  - aggregate_count: 묶인 알림 수
+-- =========================================================
+
+alter table notifications
+    add column coalesce_key varchar(100),
+    add column aggregate_count integer not null default 1;
+
+create unique index uk_notifications_coalesce_key on notifications (coalesce_key);
@@ -0,0 +1,26 @@
+-- =========================================================
+-- V7: 전체 공지 (공지 1행 + 유저가 읽을 때만 생기는 읽음 기록)
+--  - 공지 발행은 유저 수와 상관없이 insert 1번
+-- =========================================================
+
+create table broadcast_notices (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    alert_message varchar(500) not null,
+    link_url varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table broadcast_notice_reads (
+    id bigint not null auto_increment,
+    notice_id bigint not null,
+    read_at datetime(6),
+    user_id bigint not null,
+    primary key (id),
+    constraint uk_broadcast_notice_reads_user_notice unique (user_id, notice_id)
+) engine=InnoDB;
+
+-- 노출 기간 안의 공지 조회 / 보관 기간 정리
+create index idx_broadcast_notices_created on broadcast_notices (created_at);
+-- 공지 삭제 시 읽음 기록 정리
+create index idx_broadcast_notice_reads_notice on broadcast_notice_reads (notice_id);
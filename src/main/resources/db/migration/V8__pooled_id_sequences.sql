@@ -0,0 +1,25 @@
+-- =========================================================
+-- V8: id 생성 IDENTITY → 테이블 시퀀스 (pooled-lo, allocationSize 50)
+--  - MySQL 에는 시퀀스가 없어 Hibernate 가 <테이블>_seq 테이블(next_val 1행)로 흉내 냄
+--  - 노드마다 50개씩 범위를 받아 메모리에서 나눠 씀 → 여러 노드에서도 겹치지 않음
+--  - id 를 INSERT 전에 알 수 있으니 Hibernate 가 INSERT 를 JDBC batch 로 묶을 수 있음
+--  - 기존 id 다음 번호부터 시작 (auto_increment 속성은 남겨두지만 애플리케이션은 id 를 직접 넣음)
+-- =========================================================
+
+create table users_seq (next_val bigint);
+insert into users_seq select coalesce(max(id), 0) + 1 from users;
+
+create table box_seq (next_val bigint);
+insert into box_seq select coalesce(max(id), 0) + 1 from box;
+
+create table message_seq (next_val bigint);
+insert into message_seq select coalesce(max(id), 0) + 1 from message;
+
+create table notifications_seq (next_val bigint);
+insert into notifications_seq select coalesce(max(id), 0) + 1 from notifications;
+
+create table black_list_seq (next_val bigint);
+insert into black_list_seq select coalesce(max(id), 0) + 1 from black_list;
+
+create table replies_seq (next_val bigint);
+insert into replies_seq select coalesce(max(id), 0) + 1 from replies;
@@ -0,0 +1,33 @@
+-- =========================================================
+-- V9: 계정 삭제를 백그라운드 작업으로
+--  - users.status 에 DELETING (탈퇴 처리 중: 로그인/박스 노출 차단)
+--  - account_deletion_jobs: 단계(phase) + 마지막 처리 id 로 chunk 진행 위치 기록 → 중단돼도 이어서
+-- =========================================================
+
+alter table users
+    modify status enum ('ACTIVE','BANNED','DELETING') not null;
+
+create table account_deletion_jobs (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    box_id bigint,
+    status enum ('DONE','PENDING','RUNNING') not null,
+    phase enum ('AUTHORED_MESSAGES','BOX_MESSAGES','FINALIZE','NOTIFICATIONS') not null,
+    last_id bigint not null,
+    deleted_messages bigint not null,
+    deleted_notifications bigint not null,
+    locked_at datetime(6),
+    last_error varchar(500),
+    created_at datetime(6),
+    updated_at datetime(6),
+    finished_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table account_deletion_jobs add constraint uk_account_deletion_jobs_user_id unique (user_id);
+
+-- 워커 선점 조회 (status, locked_at)
+create index idx_account_deletion_jobs_status_locked on account_deletion_jobs (status, locked_at);
+
+-- chunk 조회(작성자 / 대상 유저 기준 id 순)는 FK 인덱스 (author_user_id) / (target_user_id) 로 충분
+-- (InnoDB 보조 인덱스 끝에 PK 가 붙어 있어 id 순 범위 조회가 그대로 인덱스를 탐)
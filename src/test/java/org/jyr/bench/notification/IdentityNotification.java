@@ -0,0 +1,65 @@
+package org.jyr.bench.notification;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.jyr.postbox.domain.Message;
+import org.jyr.postbox.domain.NotificationType;
+import org.jyr.postbox.domain.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 벤치마크 비교용: Notification 과 컬럼은 같고 id 만 IDENTITY (시퀀스로 바꾸기 전 매핑).
+ * 앱 패키지(org.jyr.postbox) 밖에 둬서 다른 JPA 테스트 / 스키마 검증에는 잡히지 않고,
+ * NotificationInsertBenchmarkTest 의 @EntityScan 으로만 등록된다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "identity_notifications")
+public class IdentityNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "target_user_id", nullable = false)
+    private User targetUser;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private NotificationType type;
+
+    @Column(length = 500, nullable = false)
+    private String alertMessage;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "message_id")
+    private Message message;
+
+    private String linkUrl;
+
+    @Column(name = "isread", nullable = false)
+    private boolean read;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime readAt;
+
+    @Column(length = 100, unique = true)
+    private String coalesceKey;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int aggregateCount = 1;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        this.read = false;
+    }
+}
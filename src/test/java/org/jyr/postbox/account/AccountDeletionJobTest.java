@@ -0,0 +1,187 @@
+package org.jyr.postbox.account;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.ai.backfill.AiBackfillJobService;
+import org.jyr.postbox.cache.BoxLookupCache;
+import org.jyr.postbox.cache.UserAuthCache;
+import org.jyr.postbox.domain.*;
+import org.jyr.postbox.repository.AiBackfillJobRepository;
+import org.jyr.postbox.repository.BlackListRepository;
+import org.jyr.postbox.repository.BoxRepository;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.service.BoxServiceImpl;
+import org.jyr.postbox.service.BoxStatsService;
+import org.jyr.postbox.service.BoxStatsServiceImpl;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 탈퇴 요청은 표시만 하고, 삭제는 chunk 단위로 진행 위치를 남기며 끝까지 가는지 확인
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.account.deletion.chunk-size=2"
+})
+@Import({
+        AccountDeletionJobService.class,
+        BoxServiceImpl.class,
+        AiBackfillJobService.class,
+        BoxStatsServiceImpl.class,
+        BoxLookupCache.class,
+        UserAuthCache.class,
+        SimpleMeterRegistry.class
+})
+class AccountDeletionJobTest {
+
+    @Autowired EntityManager entityManager;
+    @Autowired UserRepository userRepository;
+    @Autowired BoxRepository boxRepository;
+    @Autowired MessageRepository messageRepository;
+    @Autowired NotificationRepository notificationRepository;
+    @Autowired BlackListRepository blackListRepository;
+    @Autowired BoxServiceImpl boxService;
+    @Autowired BoxStatsService boxStatsService;
+    @Autowired AccountDeletionJobService accountDeletionJobService;
+    @Autowired AiBackfillJobRepository aiBackfillJobRepository;
+
+    @Test
+    void deletion_runsInChunks_andCanResumeFromStoredProgress() {
+        User leaving = TestUsers.save(userRepository, "leaving");
+        User friend = TestUsers.save(userRepository, "friend");
+        Box leavingBox = boxService.createBoxForUser(leaving);
+        Box friendBox = boxService.createBoxForUser(friend);
+
+        for (int i = 0; i < 5; i++) {
+            Message m = saveMessage(leavingBox, friend);
+            saveNotification(leaving, m);
+        }
+        for (int i = 0; i < 3; i++) {
+            saveMessage(friendBox, leaving);
+            boxStatsService.onMessageCreated(friendBox.getId());
+        }
+        Message friendsOwn = saveMessage(friendBox, friend);
+        boxStatsService.onMessageCreated(friendBox.getId());
+        saveNotification(leaving, null);
+        blackListRepository.save(BlackList.builder().box(friendBox).blockedUser(leaving).build());
+        flushAndClear();
+
+        // 1) 탈퇴 요청: 표시 + 작업 등록만
+        AccountDeletionJob job = accountDeletionJobService.begin(userRepository.findById(leaving.getId()).orElseThrow());
+        flushAndClear();
+        assertThat(userRepository.findById(leaving.getId()).orElseThrow().getStatus()).isEqualTo(UserStatus.DELETING);
+        assertThat(boxRepository.findSnapshotByUrlKey(leavingBox.getUrlKey())).isEmpty();
+        assertThat(messageRepository.count()).isEqualTo(9);
+
+        // 2) chunk 몇 번 → 진행 위치가 DB 에 남음 (여기서 서버가 죽었다고 가정)
+        accountDeletionJobService.runChunk(job.getId());
+        accountDeletionJobService.runChunk(job.getId());
+        flushAndClear();
+        AccountDeletionJob midway = accountDeletionJobService.findByUserId(leaving.getId()).orElseThrow();
+        assertThat(midway.getPhase()).isEqualTo(AccountDeletionPhase.BOX_MESSAGES);
+        assertThat(midway.getDeletedMessages()).isEqualTo(4);
+        assertThat(midway.getLastId()).isPositive();
+
+        // 3) 저장된 위치부터 이어서 끝까지
+        int chunks = 2;
+        while (!accountDeletionJobService.runChunk(job.getId())) {
+            chunks++;
+            flushAndClear();
+            assertThat(chunks).isLessThan(50);
+        }
+        flushAndClear();
+
+        AccountDeletionJob done = accountDeletionJobService.findByUserId(leaving.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(AccountDeletionJobStatus.DONE);
+        assertThat(done.getDeletedMessages()).isEqualTo(8);
+        assertThat(done.getDeletedNotifications()).isEqualTo(1);   // 메시지와 무관한 알림 (메시지 알림은 메시지와 함께)
+
+        assertThat(userRepository.findById(leaving.getId())).isEmpty();
+        assertThat(boxRepository.findById(leavingBox.getId())).isEmpty();
+        assertThat(notificationRepository.count()).isZero();
+        assertThat(blackListRepository.count()).isZero();
+        assertThat(messageRepository.findAll()).extracting(Message::getId).containsExactly(friendsOwn.getId());
+        assertThat(boxStatsService.getStats(friendBox.getId()).getTotalMessageCount()).isEqualTo(1);
+    }
+
+    @Test
+    void lateNotification_afterNotificationPhase_isSweptBeforeUserDelete() {
+        User leaving = TestUsers.save(userRepository, "late");
+        boxService.createBoxForUser(leaving);
+        saveNotification(leaving, null);
+        flushAndClear();
+
+        AccountDeletionJob job = accountDeletionJobService.begin(userRepository.findById(leaving.getId()).orElseThrow());
+        flushAndClear();
+        for (int i = 0; i < 10 && accountDeletionJobService.findByUserId(leaving.getId()).orElseThrow().getPhase()
+                != AccountDeletionPhase.FINALIZE; i++) {
+            accountDeletionJobService.runChunk(job.getId());
+            flushAndClear();
+        }
+        assertThat(accountDeletionJobService.findByUserId(leaving.getId()).orElseThrow().getPhase())
+                .isEqualTo(AccountDeletionPhase.FINALIZE);
+
+        // 알림 단계가 끝난 뒤 늦게 저장된 알림
+        saveNotification(userRepository.findById(leaving.getId()).orElseThrow(), null);
+        flushAndClear();
+
+        int chunks = 0;
+        while (!accountDeletionJobService.runChunk(job.getId())) {
+            chunks++;
+            flushAndClear();
+            assertThat(chunks).isLessThan(10);
+        }
+        flushAndClear();
+
+        AccountDeletionJob done = accountDeletionJobService.findByUserId(leaving.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(AccountDeletionJobStatus.DONE);
+        assertThat(done.getDeletedNotifications()).isEqualTo(2);
+        assertThat(userRepository.findById(leaving.getId())).isEmpty();
+        assertThat(notificationRepository.count()).isZero();
+    }
+
+    @Test
+    void begin_cancelsActiveAiBackfill() {
+        User leaving = TestUsers.save(userRepository, "ai-owner");
+        Box box = boxService.createBoxForUser(leaving);
+        saveMessage(box, null);
+        boxService.updateAiMode("ai-owner", true);
+        flushAndClear();
+        assertThat(aiBackfillJobRepository.findByBoxId(box.getId()).orElseThrow().isActive()).isTrue();
+
+        accountDeletionJobService.begin(userRepository.findById(leaving.getId()).orElseThrow());
+        flushAndClear();
+
+        assertThat(aiBackfillJobRepository.findByBoxId(box.getId()).orElseThrow().getStatus())
+                .isEqualTo(AiBackfillJobStatus.CANCELLED);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Message saveMessage(Box box, User author) {
+        return messageRepository.save(Message.builder()
+                .box(box)
+                .content("안녕하세요")
+                .authorUser(author)
+                .authorType(AuthorType.ANONYMOUS)
+                .build());
+    }
+
+    private void saveNotification(User target, Message message) {
+        notificationRepository.save(Notification.builder()
+                .targetUser(target)
+                .type(NotificationType.COMMENT)
+                .alertMessage("새로운 메시지가 도착했어요!")
+                .message(message)
+                .build());
+    }
+}
@@ -0,0 +1,239 @@
+package org.jyr.postbox.ai.backfill;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.ai.client.AiClient;
+import org.jyr.postbox.ai.service.AiReplyService;
+import org.jyr.postbox.cache.AiReplyCache;
+import org.jyr.postbox.cache.BoxLookupCache;
+import org.jyr.postbox.domain.*;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.NotificationWriter;
+import org.jyr.postbox.repository.AiBackfillJobRepository;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.service.BoxService;
+import org.jyr.postbox.service.BoxServiceImpl;
+import org.jyr.postbox.service.BoxStatsService;
+import org.jyr.postbox.service.BoxStatsServiceImpl;
+import org.jyr.postbox.service.NotificationServiceImpl;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// AI 모드를 켜면 답변 없는 메시지에 chunk 단위로 답변을 달고, 취소 후 재개하면 커서부터 이어서 가는지 확인
+// chunk 마다 실제로 커밋돼야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.notification.buffer.enabled=false",
+        "app.ai.reply-cache.enabled=false",
+        "app.ai.backfill.chunk-size=10",
+        "app.ai.backfill.parallelism=3",
+        "app.ai.backfill.pause-ms=0"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        AiBackfillJobService.class,
+        AiBackfillWorker.class,
+        BoxServiceImpl.class,
+        BoxStatsServiceImpl.class,
+        NotificationServiceImpl.class,
+        NotificationWriteBuffer.class,
+        NotificationWriter.class,
+        AiReplyService.class,
+        AiReplyCache.class,
+        BoxLookupCache.class,
+        SimpleMeterRegistry.class,
+        AiBackfillJobTest.CountingAiClientConfig.class
+})
+class AiBackfillJobTest {
+
+    @TestConfiguration
+    static class CountingAiClientConfig {
+        static final AtomicInteger calls = new AtomicInteger();
+        static final AtomicInteger inFlight = new AtomicInteger();
+        static final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Bean
+        AiClient aiClient() {
+            return prompt -> {
+                calls.incrementAndGet();
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(30);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                return "AI 답변";
+            };
+        }
+    }
+
+    @Autowired UserRepository userRepository;
+    @Autowired MessageRepository messageRepository;
+    @Autowired AiBackfillJobRepository aiBackfillJobRepository;
+    @Autowired BoxService boxService;
+    @Autowired BoxStatsService boxStatsService;
+    @Autowired AiBackfillWorker aiBackfillWorker;
+    @Autowired AiBackfillJobService aiBackfillJobService;
+
+    @Test
+    void enablingAiMode_answersUnansweredMessages_withBoundedParallelism() {
+        Box box = saveBox("backfill");
+        List<Long> unanswered = saveMessages(box, 25);
+        Message hidden = saveMessage(box, "숨김");
+        hidden.hide();
+        messageRepository.save(hidden);
+        Message replied = saveMessage(box, "답변 있음");
+        replied.writeReply("주인 답변");
+        messageRepository.save(replied);
+        resetCounters();
+
+        boxService.updateAiMode("backfill", true);
+        runWorker();
+
+        AiBackfillJob job = aiBackfillJobRepository.findByBoxId(box.getId()).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(AiBackfillJobStatus.DONE);
+        assertThat(job.getTotalCount()).isEqualTo(25);
+        assertThat(job.getAnsweredCount()).isEqualTo(25);
+        assertThat(job.getLastId()).isEqualTo(unanswered.get(unanswered.size() - 1));
+
+        assertThat(messageRepository.findAllById(unanswered))
+                .allSatisfy(m -> {
+                    assertThat(m.getReplyContent()).isEqualTo("AI 답변");
+                    assertThat(m.getReplyAuthorType()).isEqualTo(ReplyAuthorType.AI);
+                    assertThat(m.getAiReplyClaimedAt()).isNull();
+                });
+        assertThat(messageRepository.findById(hidden.getId()).orElseThrow().getReplyContent()).isNull();
+        assertThat(messageRepository.findById(replied.getId()).orElseThrow().getReplyContent()).isEqualTo("주인 답변");
+
+        assertThat(CountingAiClientConfig.calls).hasValue(25);
+        assertThat(CountingAiClientConfig.maxInFlight.get()).isBetween(2, 3);
+        assertThat(boxStatsService.getStats(box.getId()).getReplyCount()).isEqualTo(25);
+    }
+
+    @Test
+    void cancelThenResume_continuesFromCursor() {
+        Box box = saveBox("resume");
+        List<Long> unanswered = saveMessages(box, 30);
+        resetCounters();
+
+        // 한 번에 chunk 1개씩만
+        ReflectionTestUtils.setField(aiBackfillWorker, "maxChunksPerRun", 1);
+        try {
+            boxService.updateAiMode("resume", true);
+            runWorker();
+
+            AiBackfillJob job = aiBackfillJobRepository.findByBoxId(box.getId()).orElseThrow();
+            assertThat(job.getAnsweredCount()).isEqualTo(10);
+            assertThat(job.getLastId()).isEqualTo(unanswered.get(9));
+
+            // AI 모드를 끄면 취소 → 워커가 더 가져가지 않음
+            boxService.updateAiMode("resume", false);
+            runWorker();
+            job = aiBackfillJobRepository.findByBoxId(box.getId()).orElseThrow();
+            assertThat(job.getStatus()).isEqualTo(AiBackfillJobStatus.CANCELLED);
+            assertThat(job.getAnsweredCount()).isEqualTo(10);
+
+            // 다시 켜면 커서부터 이어서
+            ReflectionTestUtils.setField(aiBackfillWorker, "maxChunksPerRun", 100);
+            boxService.updateAiMode("resume", true);
+            runWorker();
+        } finally {
+            ReflectionTestUtils.setField(aiBackfillWorker, "maxChunksPerRun", 50);
+        }
+
+        AiBackfillJob job = aiBackfillJobRepository.findByBoxId(box.getId()).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(AiBackfillJobStatus.DONE);
+        assertThat(job.getAnsweredCount()).isEqualTo(30);
+        // 이미 답한 메시지로 AI 를 다시 부르지 않음
+        assertThat(CountingAiClientConfig.calls).hasValue(30);
+        assertThat(messageRepository.findAllById(unanswered))
+                .allSatisfy(m -> assertThat(m.getReplyContent()).isEqualTo("AI 답변"));
+    }
+
+    @Test
+    void ownerReplyDuringChunk_isKept_andNotCounted() {
+        Box box = saveBox("owner-wins");
+        List<Long> unanswered = saveMessages(box, 3);
+        boxService.updateAiMode("owner-wins", true);
+
+        Long jobId = aiBackfillJobService.claim(1, LocalDateTime.now().minusMinutes(5)).get(0);
+        AiBackfillJobService.Chunk chunk = aiBackfillJobService.nextChunk(jobId);
+        assertThat(chunk.messages()).hasSize(3);
+
+        // AI 호출 중에 주인이 첫 메시지에 직접 답변
+        Message first = messageRepository.findById(unanswered.get(0)).orElseThrow();
+        first.writeReply("주인 답변");
+        messageRepository.saveAndFlush(first);
+
+        Map<Long, String> replies = new HashMap<>();
+        unanswered.forEach(id -> replies.put(id, "AI 답변"));
+        AiBackfillJobService.Applied applied = aiBackfillJobService.applyChunk(jobId, chunk, replies, List.of(), null);
+        assertThat(applied.answered()).isEqualTo(2);
+        assertThat(applied.skipped()).isEqualTo(1);
+
+        AiBackfillJob job = aiBackfillJobRepository.findByBoxId(box.getId()).orElseThrow();
+        assertThat(job.getAnsweredCount()).isEqualTo(2);
+        assertThat(job.getSkippedCount()).isEqualTo(1);
+        Message kept = messageRepository.findById(first.getId()).orElseThrow();
+        assertThat(kept.getReplyContent()).isEqualTo("주인 답변");
+        assertThat(kept.getAiReplyClaimedAt()).isNull();
+        assertThat(boxStatsService.getStats(box.getId()).getReplyCount()).isEqualTo(2);
+    }
+
+    // poll 은 작업을 워커 스레드로 넘기기만 하므로 끝날 때까지 기다림
+    private void runWorker() {
+        for (Future<?> f : aiBackfillWorker.dispatch()) {
+            try {
+                f.get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private void resetCounters() {
+        CountingAiClientConfig.calls.set(0);
+        CountingAiClientConfig.maxInFlight.set(0);
+    }
+
+    private Box saveBox(String userId) {
+        User owner = TestUsers.save(userRepository, userId);
+        return boxService.createBoxForUser(owner);
+    }
+
+    private List<Long> saveMessages(Box box, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> saveMessage(box, "고민 " + i).getId())
+                .toList();
+    }
+
+    private Message saveMessage(Box box, String content) {
+        return messageRepository.saveAndFlush(Message.builder()
+                .box(box)
+                .content(content)
+                .authorType(AuthorType.ANONYMOUS)
+                .build());
+    }
+}
@@ -0,0 +1,136 @@
+package org.jyr.postbox.ai.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.ai.stub.StubAiServer;
+import org.jyr.postbox.exception.AiUnavailableException;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 로컬 stub 서버에 실제 HTTP 로 붙여서: 정상 응답 / 마감 시간 / 동시 요청 제한 / 서킷 확인
+class HttpAiClientTest {
+
+    private StubAiServer stub;
+    private HttpAiClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubAiServer(0, 0, 0, 0.0);
+        stub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        stub.stop();
+    }
+
+    @Test
+    void returnsUpstreamReply() {
+        client = newClient(2_000, 4, 3);
+
+        assertThat(client.generateReply("힘들어")).contains("사자왕자(stub)");
+        assertThat(stub.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void streamReply_deliversDeltasAsTheyArrive() {
+        client = newClient(2_000, 4, 3);
+        stub.setTokenDelayMs(100);
+
+        List<String> deltas = new ArrayList<>();
+        long start = System.nanoTime();
+        long[] firstDeltaAt = new long[1];
+
+        String reply = client.streamReply("힘들어", delta -> {
+            if (deltas.isEmpty()) firstDeltaAt[0] = System.nanoTime();
+            deltas.add(delta);
+        });
+        long total = System.nanoTime() - start;
+
+        assertThat(deltas).hasSizeGreaterThan(3);
+        assertThat(String.join("", deltas)).isEqualTo(reply);
+        assertThat(reply).contains("사자왕자(stub)");
+        // 첫 조각은 전체 생성 시간보다 훨씬 먼저 도착
+        assertThat(firstDeltaAt[0] - start).isLessThan(total / 2);
+    }
+
+    @Test
+    void slowUpstream_failsAtDeadline() {
+        client = newClient(200, 4, 3);
+        stub.setLatencyMs(2_000);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.generateReply("힘들어")).isInstanceOf(AiUnavailableException.class);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(1_500);
+    }
+
+    @Test
+    void inFlightIsBounded_extraCallersFailFast() throws Exception {
+        client = newClient(2_000, 2, 10);
+        stub.setLatencyMs(500);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(5)) {
+            for (int i = 0; i < 5; i++) {
+                results.add(pool.submit((Callable<String>) () -> client.generateReply("힘들어")));
+            }
+        }
+
+        int ok = 0;
+        for (Future<String> f : results) {
+            try {
+                f.get();
+                ok++;
+            } catch (Exception e) {
+                assertThat(e.getCause()).isInstanceOf(AiUnavailableException.class);
+            }
+        }
+        assertThat(ok).isEqualTo(2);
+        assertThat(stub.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedUpstreamErrors_openCircuit_andSkipUpstream() {
+        client = newClient(2_000, 4, 3);
+        stub.setErrorRate(1.0);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.generateReply("힘들어")).isInstanceOf(AiUnavailableException.class);
+        }
+        assertThat(stub.requestCount()).isEqualTo(3);
+
+        // 서킷 열림 → 업스트림까지 가지 않고 바로 실패
+        assertThatThrownBy(() -> client.generateReply("힘들어")).isInstanceOf(AiUnavailableException.class);
+        assertThat(stub.requestCount()).isEqualTo(3);
+    }
+
+    private HttpAiClient newClient(long requestTimeoutMs, int maxInFlight, int failureThreshold) {
+        HttpAiClient c = new HttpAiClient(JsonMapper.builder().build(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(c, "baseUrl", stub.baseUrl());
+        ReflectionTestUtils.setField(c, "apiKey", "test");
+        ReflectionTestUtils.setField(c, "model", "stub");
+        ReflectionTestUtils.setField(c, "maxTokens", 100);
+        ReflectionTestUtils.setField(c, "connectTimeoutMs", 1_000L);
+        ReflectionTestUtils.setField(c, "requestTimeoutMs", requestTimeoutMs);
+        ReflectionTestUtils.setField(c, "streamTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(c, "maxInFlight", maxInFlight);
+        ReflectionTestUtils.setField(c, "acquireTimeoutMs", 50L);
+        ReflectionTestUtils.setField(c, "failureThreshold", failureThreshold);
+        ReflectionTestUtils.setField(c, "circuitOpenMs", 60_000L);
+        c.init();
+        return c;
+    }
+}
@@ -0,0 +1,66 @@
+package org.jyr.postbox.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.ai.service.AiReplyService;
+import org.jyr.postbox.domain.Box;
+import org.jyr.postbox.domain.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 공백만 다른 같은 글은 AI 를 한 번만 부르고, 박스가 끄면 매번 부르고, 무게 한도를 넘으면 오래된 것부터 밀려나는지
+class AiReplyCacheTest {
+
+    @Test
+    void samePromptAfterNormalization_callsUpstreamOnce_unlessBoxOptsOut() {
+        AtomicInteger calls = new AtomicInteger();
+        AiReplyCache cache = newCache(1_000, 1_000_000);
+        AiReplyService service = new AiReplyService(prompt -> "답변" + calls.incrementAndGet(), cache);
+
+        Box cached = Box.builder().build();
+        String first = service.generateReply(message(cached, "힘들어"));
+        String second = service.generateReply(message(cached, "  힘들어 \n"));
+
+        assertThat(calls).hasValue(1);
+        assertThat(second).isEqualTo(first);
+
+        Box optedOut = Box.builder().aiReplyCacheEnabled(false).build();
+        service.generateReply(message(optedOut, "힘들어"));
+        service.generateReply(message(optedOut, "힘들어"));
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void weightLimit_evictsLeastRecentlyUsed() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>(100, 60_000, 10, String::length);
+        cache.put("a", "1234");
+        cache.put("b", "1234");
+        cache.getIfPresent("a");          // a 를 최근 사용으로
+        cache.put("c", "1234");           // 12 > 10 → b 가 밀려남
+
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("a")).isEqualTo("1234");
+        assertThat(cache.weight()).isEqualTo(8);
+
+        cache.put("huge", "12345678901"); // 혼자서 한도 초과 → 넣지 않음
+        assertThat(cache.getIfPresent("huge")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private AiReplyCache newCache(int maxEntries, long maxWeightBytes) {
+        AiReplyCache cache = new AiReplyCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(cache, "maxWeightBytes", maxWeightBytes);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        cache.init();
+        return cache;
+    }
+
+    private Message message(Box box, String content) {
+        return Message.builder().box(box).content(content).build();
+    }
+}
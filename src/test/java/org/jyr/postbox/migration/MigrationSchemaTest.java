@@ -0,0 +1,38 @@
+package org.jyr.postbox.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 실제 MySQL 에 V1 ~ 마지막 마이그레이션을 순서대로 적용한 스키마가 엔티티 매핑과 맞는지 확인
+// (다른 테스트는 H2 + create-drop 이라 마이그레이션 SQL 자체는 돌려보지 않음)
+// Docker 가 없는 환경에서는 건너뜀
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MigrationSchemaTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer mysql = new MySQLContainer("mysql:8.0");
+
+    @Autowired Flyway flyway;
+
+    // ddl-auto=validate 라서 스키마가 엔티티와 다르면 컨텍스트가 뜨지 않음
+    @Test
+    void migrationsApplyCleanly_andMatchEntities() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().applied()).isNotEmpty();
+    }
+}
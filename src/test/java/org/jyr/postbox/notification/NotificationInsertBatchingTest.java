@@ -0,0 +1,80 @@
+package org.jyr.postbox.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.domain.NotificationType;
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.JdbcStatementCounter;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 알림 batch 저장이 JDBC batch 로 나가는지 (INSERT 가 한 행씩 나가지 않고 batch_size 단위로 묶이는지)
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({NotificationWriter.class, SimpleMeterRegistry.class, JdbcStatementCounter.class})
+class NotificationInsertBatchingTest {
+
+    static final int BATCH_SIZE = 50;
+    static final String INSERT = "insert into notifications";
+    static final String NEXT_ID = "select next value for notifications_seq";
+
+    @Autowired EntityManager entityManager;
+    @Autowired UserRepository userRepository;
+    @Autowired NotificationRepository notificationRepository;
+    @Autowired NotificationWriter notificationWriter;
+    @Autowired JdbcStatementCounter jdbc;
+
+    @Test
+    void writerBatch_usesJdbcBatching() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) users.add(TestUsers.save(userRepository, "batch" + i));
+
+        for (int rows : new int[]{1_000, 5_000}) {
+            List<NotificationDraft> drafts = drafts(users, rows);
+            entityManager.flush();
+            entityManager.clear();
+            statistics.clear();
+            jdbc.reset();
+
+            notificationWriter.write(drafts);
+
+            // 행마다 INSERT 한 번이 아니라 batch_size 개씩 executeBatch 한 번
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(rows);
+            assertThat(jdbc.singleCount(INSERT)).isZero();
+            assertThat(jdbc.batchedRows(INSERT)).isEqualTo(rows);
+            assertThat(jdbc.batchCount(INSERT)).isEqualTo(rows / BATCH_SIZE);
+            // id 는 시퀀스에서 allocationSize(50)개씩 → 50행마다 한 번
+            assertThat(jdbc.singleCount(NEXT_ID)).isLessThanOrEqualTo(rows / BATCH_SIZE + 1);
+        }
+
+        assertThat(notificationRepository.count()).isEqualTo(6_000);
+    }
+
+    static List<NotificationDraft> drafts(List<User> users, int rows) {
+        List<NotificationDraft> drafts = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            drafts.add(new NotificationDraft(users.get(i % users.size()).getId(),
+                    NotificationType.COMMENT, null, "새로운 메시지가 도착했어요!", "/me/messages/" + i, null));
+        }
+        return drafts;
+    }
+}
@@ -0,0 +1,121 @@
+package org.jyr.postbox.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.jyr.bench.notification.IdentityNotification;
+import org.jyr.postbox.PostBoxApplication;
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.JdbcStatementCounter;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 알림 INSERT 처리량: IDENTITY id (행마다 INSERT + 생성 키 조회) vs 시퀀스 id + JDBC batch (NotificationWriter).
+ * - 같은 컬럼의 IDENTITY 매핑 복사본(IdentityNotification)에 같은 draft 를 저장해서 비교
+ * - 크기별로 warm-up 1번 뒤 ROUNDS 번 재서 가장 빠른 값을 출력 (H2 in-memory 라 네트워크 왕복 비용은 빠져 있음)
+ * - 시간이 들어서 기본 test 에선 빠지고 ./gradlew bench 로만 실행
+ */
+@Tag("bench")
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import({
+        NotificationWriter.class,
+        SimpleMeterRegistry.class,
+        JdbcStatementCounter.class,
+        NotificationInsertBenchmarkTest.BenchEntities.class
+})
+class NotificationInsertBenchmarkTest {
+
+    private static final int ROUNDS = 3;
+
+    @TestConfiguration
+    @EntityScan(basePackageClasses = {PostBoxApplication.class, IdentityNotification.class})
+    static class BenchEntities {
+    }
+
+    @Autowired EntityManager entityManager;
+    @Autowired UserRepository userRepository;
+    @Autowired NotificationWriter notificationWriter;
+    @Autowired JdbcStatementCounter jdbc;
+
+    @Test
+    void identityVsSequenceBatch() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) users.add(TestUsers.save(userRepository, "bench" + i));
+
+        System.out.printf("%-8s %12s %12s %10s%n", "rows", "IDENTITY", "SEQUENCE", "speedup");
+        for (int rows : new int[]{1_000, 5_000}) {
+            List<NotificationDraft> drafts = NotificationInsertBatchingTest.drafts(users, rows);
+
+            writeIdentity(drafts);
+            writeSequence(drafts);
+            long identityNanos = Long.MAX_VALUE;
+            long sequenceNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                identityNanos = Math.min(identityNanos, writeIdentity(drafts));
+                sequenceNanos = Math.min(sequenceNanos, writeSequence(drafts));
+            }
+
+            System.out.printf("%-8d %9.0f r/s %9.0f r/s %9.1fx%n", rows,
+                    rowsPerSecond(rows, identityNanos), rowsPerSecond(rows, sequenceNanos),
+                    (double) identityNanos / sequenceNanos);
+        }
+    }
+
+    // 행마다 INSERT 한 번 (IDENTITY 는 id 를 받아야 하므로 batch 불가)
+    private long writeIdentity(List<NotificationDraft> drafts) {
+        prepare();
+        long start = System.nanoTime();
+        for (NotificationDraft d : drafts) {
+            entityManager.persist(IdentityNotification.builder()
+                    .targetUser(entityManager.getReference(User.class, d.targetUserId()))
+                    .type(d.type())
+                    .alertMessage(d.alertMessage())
+                    .linkUrl(d.linkUrl())
+                    .build());
+        }
+        entityManager.flush();
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(jdbc.batchCount("insert into identity_notifications")).isZero();
+        assertThat(jdbc.singleCount("insert into identity_notifications")).isEqualTo(drafts.size());
+        return elapsed;
+    }
+
+    // 시퀀스 id → batch_size 개씩 executeBatch
+    private long writeSequence(List<NotificationDraft> drafts) {
+        prepare();
+        long start = System.nanoTime();
+        notificationWriter.write(drafts);
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(jdbc.singleCount("insert into notifications")).isZero();
+        assertThat(jdbc.batchedRows("insert into notifications")).isEqualTo(drafts.size());
+        return elapsed;
+    }
+
+    private void prepare() {
+        entityManager.flush();
+        entityManager.clear();
+        jdbc.reset();
+    }
+
+    private static double rowsPerSecond(int rows, long nanos) {
+        return rows * 1_000_000_000.0 / nanos;
+    }
+}
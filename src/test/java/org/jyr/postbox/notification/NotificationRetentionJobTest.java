@@ -0,0 +1,67 @@
+package org.jyr.postbox.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.domain.Notification;
+import org.jyr.postbox.domain.NotificationType;
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 보관 기간이 지난 알림만 batch 단위로 지우는지 확인
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.notification.retention.batch-size=2",
+        "app.notification.retention.pause-ms=0",
+        "app.notification.retention.read-max-age-days=30",
+        "app.notification.retention.unread-max-age-days=180"
+})
+@Import({NotificationRetentionJob.class, SimpleMeterRegistry.class})
+class NotificationRetentionJobTest {
+
+    @Autowired EntityManager entityManager;
+    @Autowired UserRepository userRepository;
+    @Autowired NotificationRepository notificationRepository;
+    @Autowired NotificationRetentionJob retentionJob;
+    @Autowired SimpleMeterRegistry meterRegistry;
+
+    @Test
+    void purge_removesOnlyExpiredNotifications() {
+        User user = TestUsers.save(userRepository, "old");
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) save(user, true, now.minusDays(40));    // 지움
+        save(user, true, now.minusDays(10));                               // 남김
+        save(user, false, now.minusDays(40));                              // 남김 (안 읽음, 상한 전)
+        for (int i = 0; i < 3; i++) save(user, false, now.minusDays(200)); // 지움
+        entityManager.flush();
+        entityManager.clear();
+
+        retentionJob.purge();
+
+        assertThat(notificationRepository.count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("notification.purged", "kind", "read").count()).isEqualTo(5);
+        assertThat(meterRegistry.counter("notification.purged", "kind", "unread").count()).isEqualTo(3);
+    }
+
+    private void save(User user, boolean read, LocalDateTime createdAt) {
+        Notification n = notificationRepository.save(Notification.builder()
+                .targetUser(user)
+                .type(NotificationType.COMMENT)
+                .alertMessage("알림")
+                .build());
+        // 생성 시각은 @PrePersist 가 현재 시각으로 넣으므로 저장 후 과거로 돌림
+        n.setRead(read);
+        n.setCreatedAt(createdAt);
+    }
+}
@@ -0,0 +1,76 @@
+package org.jyr.postbox.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.domain.NotificationType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 버퍼가 batch-size / flush-interval 기준으로 모아 쓰고, 종료 시 남은 것까지 저장하는지 확인 (DB 없이)
+class NotificationWriteBufferTest {
+
+    @Test
+    void drainsInBatchesUpToBatchSize() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        NotificationWriteBuffer buffer = newBuffer(writer, 10, 50);
+
+        for (int i = 0; i < 25; i++) buffer.enqueue(draft(i));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (writer.total() < 25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        buffer.shutdown();
+
+        assertThat(writer.total()).isEqualTo(25);
+        assertThat(writer.batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+    }
+
+    @Test
+    void shutdown_flushesPendingDrafts() {
+        RecordingWriter writer = new RecordingWriter();
+        // 크기 기준으로는 안 나가는 설정 (writer 가 모으는 중이던 것 + 큐에 남은 것 모두 저장돼야 함)
+        NotificationWriteBuffer buffer = newBuffer(writer, 1_000, 500);
+
+        for (int i = 0; i < 3; i++) buffer.enqueue(draft(i));
+        buffer.shutdown();
+
+        assertThat(writer.total()).isEqualTo(3);
+    }
+
+    private NotificationWriteBuffer newBuffer(NotificationWriter writer, int batchSize, long flushIntervalMs) {
+        NotificationWriteBuffer buffer = new NotificationWriteBuffer(writer, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "capacity", 1_000);
+        ReflectionTestUtils.setField(buffer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(buffer, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(buffer, "shutdownTimeoutSeconds", 5);
+        buffer.init();
+        return buffer;
+    }
+
+    private NotificationDraft draft(int i) {
+        return new NotificationDraft((long) i, NotificationType.COMMENT, null, "알림 " + i, null, null);
+    }
+
+    private static class RecordingWriter extends NotificationWriter {
+        final List<List<NotificationDraft>> batches = new CopyOnWriteArrayList<>();
+
+        RecordingWriter() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public void writeInNewTransaction(List<NotificationDraft> drafts) {
+            batches.add(List.copyOf(drafts));
+        }
+
+        int total() {
+            return batches.stream().mapToInt(List::size).sum();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.jyr.postbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.cache.UserAuthCache;
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.domain.UserRole;
+import org.jyr.postbox.domain.UserStatus;
+import org.jyr.postbox.dto.admin.AdminUserListItemDTO;
+import org.jyr.postbox.dto.admin.AdminUserPageDTO;
+import org.jyr.postbox.dto.admin.AdminUserSearchField;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 관리자 유저 목록: id 커서로 끝까지 넘기면 빠짐/중복 없이 전부, 검색/필터 조합, 내보내기 스트림
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({AdminUserServiceImpl.class, UserAuthCache.class, SimpleMeterRegistry.class})
+class AdminUserDirectoryTest {
+
+    @Autowired UserRepository userRepository;
+    @Autowired AdminUserService adminUserService;
+
+    @Test
+    void cursorPaging_searchAndFilters_andExport() {
+        for (int i = 0; i < 7; i++) {
+            saveUser("kim" + i, "nick" + i, UserStatus.ACTIVE, UserRole.USER);
+        }
+        saveUser("lee", "kimchi", UserStatus.BANNED, UserRole.USER);
+        saveUser("park", "admin", UserStatus.ACTIVE, UserRole.ADMIN);
+        saveUser("under_score", "us", UserStatus.ACTIVE, UserRole.USER);
+        userRepository.flush();
+
+        // 1) 필터 없이 3개씩 끝까지 → 전부, id 내림차순
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            AdminUserPageDTO page = adminUserService.getUsers(null, null, null, null, cursor, 3);
+            page.getContent().forEach(u -> seen.add(u.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        assertThat(pages).isEqualTo(4);
+        assertThat(seen).hasSize(10).doesNotHaveDuplicates().isSortedAccordingTo((a, b) -> Long.compare(b, a));
+
+        // 2) 앞부분 검색: userId "kim*" 7명 + nickname "kimchi" 1명
+        assertThat(adminUserService.getUsers("kim", null, null, null, null, 50).getContent()).hasSize(8);
+        // 검색어의 '_' 는 와일드카드가 아니라 문자 그대로
+        assertThat(adminUserService.getUsers("under_", null, null, null, null, 50).getContent())
+                .extracting(AdminUserListItemDTO::getUserId).containsExactly("under_score");
+        assertThat(adminUserService.getUsers("k_m", null, null, null, null, 50).getContent()).isEmpty();
+
+        // 3) 검색 + 상태 / 권한 필터
+        assertThat(adminUserService.getUsers("kim", null, UserStatus.BANNED, null, null, 50).getContent())
+                .extracting(AdminUserListItemDTO::getUserId).containsExactly("lee");
+        assertThat(adminUserService.getUsers(null, null, null, UserRole.ADMIN, null, 50).getContent())
+                .extracting(AdminUserListItemDTO::getUserId).containsExactly("park");
+
+        // 4) 내보내기: 같은 조건, 전체를 한 행씩
+        List<String> exported = new ArrayList<>();
+        adminUserService.exportUsers("kim", null, UserStatus.ACTIVE, null, u -> exported.add(u.getUserId()));
+        assertThat(exported).hasSize(7).allMatch(id -> id.startsWith("kim"));
+
+        // 5) 컬럼 지정 검색 → 그 컬럼만
+        assertThat(adminUserService.getUsers("kim", AdminUserSearchField.NICKNAME, null, null, null, 50).getContent())
+                .extracting(AdminUserListItemDTO::getUserId).containsExactly("lee");
+        assertThat(adminUserService.getUsers("kim", AdminUserSearchField.USER_ID, null, null, null, 50).getContent())
+                .hasSize(7);
+
+        // 6) 여러 컬럼 검색도 커서로 끝까지 → 빠짐/중복 없이 id 내림차순
+        List<Long> searched = new ArrayList<>();
+        cursor = null;
+        do {
+            AdminUserPageDTO page = adminUserService.getUsers("kim", null, null, null, cursor, 3);
+            page.getContent().forEach(u -> searched.add(u.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(searched).hasSize(8).doesNotHaveDuplicates().isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    @Test
+    void banAndUnban_doNotTouchDeletingAccounts() {
+        User active = saveUser("active", "a", UserStatus.ACTIVE, UserRole.USER);
+        User deleting = saveUser("deleting", "d", UserStatus.DELETING, UserRole.USER);
+        userRepository.flush();
+
+        adminUserService.banUser(active.getId());
+        assertThat(userRepository.findById(active.getId()).orElseThrow().getStatus()).isEqualTo(UserStatus.BANNED);
+        adminUserService.unbanUser(active.getId());
+        assertThat(userRepository.findById(active.getId()).orElseThrow().getStatus()).isEqualTo(UserStatus.ACTIVE);
+
+        // 탈퇴 처리 중인 계정은 해제로 되살아나지 않음
+        assertThatThrownBy(() -> adminUserService.unbanUser(deleting.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> adminUserService.banUser(deleting.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(userRepository.findById(deleting.getId()).orElseThrow().getStatus()).isEqualTo(UserStatus.DELETING);
+    }
+
+    private User saveUser(String userId, String nickname, UserStatus status, UserRole role) {
+        return userRepository.save(TestUsers.builder(userId)
+                .nickname(nickname)
+                .role(role)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,213 @@
+package org.jyr.postbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.ai.backfill.AiBackfillJobService;
+import org.jyr.postbox.ai.client.AiClient;
+import org.jyr.postbox.ai.job.AiReplyJobService;
+import org.jyr.postbox.ai.service.AiReplyClaim;
+import org.jyr.postbox.ai.service.AiReplyClaimService;
+import org.jyr.postbox.ai.service.AiReplyService;
+import org.jyr.postbox.ai.service.AiReplySingleFlight;
+import org.jyr.postbox.cache.AiReplyCache;
+import org.jyr.postbox.cache.BoxLookupCache;
+import org.jyr.postbox.domain.*;
+import org.jyr.postbox.exception.AiReplyInProgressException;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.NotificationWriter;
+import org.jyr.postbox.repository.BoxRepository;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 같은 메시지로 동시에 들어온 AI 답변 요청은 AI 를 한 번만 부르고, 다른 노드가 선점 중이면 409
+// 요청마다 실제로 커밋돼야 다른 스레드가 선점을 보므로 테스트 트랜잭션 없이 실행
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.notification.buffer.enabled=false",
+        "app.ai.reply-cache.enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        MessageServiceImpl.class,
+        BoxServiceImpl.class,
+        AiBackfillJobService.class,
+        BoxStatsServiceImpl.class,
+        NotificationServiceImpl.class,
+        NotificationWriteBuffer.class,
+        NotificationWriter.class,
+        AiReplyJobService.class,
+        AiReplyService.class,
+        AiReplyClaimService.class,
+        AiReplySingleFlight.class,
+        AiReplyCache.class,
+        BoxLookupCache.class,
+        SimpleMeterRegistry.class,
+        AiReplySingleFlightTest.SlowAiClientConfig.class
+})
+class AiReplySingleFlightTest {
+
+    @TestConfiguration
+    static class SlowAiClientConfig {
+        static final AtomicInteger calls = new AtomicInteger();
+        static volatile CountDownLatch release = new CountDownLatch(0);
+
+        @Bean
+        AiClient aiClient() {
+            return prompt -> {
+                calls.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "AI 답변";
+            };
+        }
+    }
+
+    @Autowired UserRepository userRepository;
+    @Autowired BoxRepository boxRepository;
+    @Autowired MessageRepository messageRepository;
+    @Autowired BoxService boxService;
+    @Autowired MessageService messageService;
+    @Autowired AiReplyClaimService aiReplyClaimService;
+    @Autowired AiReplySingleFlight aiReplySingleFlight;
+    @Autowired BoxStatsService boxStatsService;
+
+    @Test
+    void concurrentRequests_shareOneUpstreamCall() throws Exception {
+        Long messageId = saveMessageInAiBox("flight");
+        SlowAiClientConfig.calls.set(0);
+        SlowAiClientConfig.release = new CountDownLatch(1);
+
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> messageService.generateAiReply(messageId, "flight")));
+            }
+            // 첫 요청이 AI 를 부르는 동안 나머지가 붙을 시간
+            Thread.sleep(300);
+            SlowAiClientConfig.release.countDown();
+
+            int succeeded = 0;
+            for (Future<?> f : results) {
+                try {
+                    f.get(5, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (Exception e) {
+                    // 선두가 끝난 뒤에 도착한 요청은 "이미 답변 있음"
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                }
+            }
+            assertThat(succeeded).isPositive();
+        }
+
+        assertThat(SlowAiClientConfig.calls).hasValue(1);
+        assertThat(aiReplySingleFlight.inFlightCount()).isZero();
+        Message saved = messageRepository.findById(messageId).orElseThrow();
+        assertThat(saved.getReplyContent()).isEqualTo("AI 답변");
+        assertThat(saved.getAiReplyClaimedAt()).isNull();
+    }
+
+    @Test
+    void claimHeldElsewhere_rejectsWithoutCallingUpstream() {
+        Long messageId = saveMessageInAiBox("other");
+        SlowAiClientConfig.calls.set(0);
+        SlowAiClientConfig.release = new CountDownLatch(0);
+
+        // 다른 노드가 선점했다고 가정
+        assertThat(aiReplyClaimService.tryClaim(messageId)).isEqualTo(AiReplyClaim.CLAIMED);
+
+        assertThatThrownBy(() -> messageService.generateAiReply(messageId, "other"))
+                .isInstanceOf(AiReplyInProgressException.class);
+        assertThat(SlowAiClientConfig.calls).hasValue(0);
+
+        // 풀리면 정상 생성, 이후엔 "이미 답변 있음"
+        aiReplyClaimService.release(messageId);
+        messageService.generateAiReply(messageId, "other");
+        assertThat(SlowAiClientConfig.calls).hasValue(1);
+        assertThat(aiReplyClaimService.tryClaim(messageId)).isEqualTo(AiReplyClaim.ANSWERED);
+    }
+
+    @Test
+    void ownerReplyWhileAiRunning_isKept_andCountedOnce() {
+        Long messageId = saveMessageInAiBox("owner-first");
+        Box box = messageRepository.findWithBoxById(messageId).orElseThrow().getBox();
+        User owner = userRepository.findByUserId("owner-first").orElseThrow();
+
+        // AI 가 선점한 사이에 주인이 먼저 답변
+        assertThat(aiReplyClaimService.tryClaim(messageId)).isEqualTo(AiReplyClaim.CLAIMED);
+        messageService.replyToMessage(messageId, "주인 답변", owner);
+
+        assertThat(aiReplyClaimService.complete(messageId, "AI 답변")).isFalse();
+
+        Message saved = messageRepository.findById(messageId).orElseThrow();
+        assertThat(saved.getReplyContent()).isEqualTo("주인 답변");
+        assertThat(saved.getReplyAuthorType()).isEqualTo(ReplyAuthorType.OWNER);
+        assertThat(saved.getAiReplyClaimedAt()).isNull();
+        assertThat(boxStatsService.getStats(box.getId()).getReplyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void leaderError_isPassedToWaitingRequests() throws Exception {
+        Long messageId = -1L;
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<String> leader = pool.submit(() -> aiReplySingleFlight.execute(messageId, () -> {
+                leaderStarted.countDown();
+                try {
+                    joined.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new AssertionError("AI 클라이언트 오류");
+            }));
+            assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<String> waiter = pool.submit(() -> aiReplySingleFlight.execute(messageId, () -> "다시 호출됨"));
+            // 붙은 요청이 join 에 들어갈 시간
+            Thread.sleep(200);
+            joined.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        }
+        assertThat(aiReplySingleFlight.inFlightCount()).isZero();
+    }
+
+    private Long saveMessageInAiBox(String userId) {
+        User owner = TestUsers.save(userRepository, userId);
+        Box box = boxService.createBoxForUser(owner);
+        box.setAiMode(true);
+        boxRepository.save(box);
+
+        return messageRepository.saveAndFlush(Message.builder()
+                .box(box)
+                .content("힘들어")
+                .authorType(AuthorType.ANONYMOUS)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,79 @@
+package org.jyr.postbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.domain.Notification;
+import org.jyr.postbox.domain.NotificationType;
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.dto.NotificationDTO;
+import org.jyr.postbox.dto.notification.NotificationCursorPageDTO;
+import org.jyr.postbox.repository.BroadcastNoticeReadRepository;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.NotificationWriter;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 전체 공지가 유저 수와 상관없이 1행으로 저장되고, 목록/안 읽은 개수에 합쳐지는지 확인
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({
+        NotificationServiceImpl.class,
+        NotificationWriteBuffer.class,
+        NotificationWriter.class,
+        SimpleMeterRegistry.class
+})
+class BroadcastNoticeTest {
+
+    @Autowired UserRepository userRepository;
+    @Autowired NotificationRepository notificationRepository;
+    @Autowired BroadcastNoticeReadRepository broadcastNoticeReadRepository;
+    @Autowired NotificationService notificationService;
+
+    @Test
+    void publish_storesOneRow_andMergesIntoFeedAndUnreadCount() {
+        User alice = TestUsers.save(userRepository, "alice");
+        User bob = TestUsers.save(userRepository, "bob");
+        notificationRepository.save(Notification.builder()
+                .targetUser(alice)
+                .type(NotificationType.COMMENT)
+                .alertMessage("새로운 메시지가 도착했어요!")
+                .build());
+
+        Long noticeId = notificationService.publishBroadcastNotice("점검 안내", "/notice/1");
+
+        // 개인 알림 테이블은 그대로, 읽음 기록도 아직 없음
+        assertThat(notificationRepository.count()).isEqualTo(1);
+        assertThat(broadcastNoticeReadRepository.count()).isZero();
+
+        assertThat(notificationService.getUnreadCount(alice.getId())).isEqualTo(2);
+        assertThat(notificationService.getUnreadCount(bob.getId())).isEqualTo(1);
+
+        NotificationCursorPageDTO page = notificationService.getUserNotificationsByCursor(bob.getId(), null, 10);
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getNotices()).extracting(NotificationDTO::getId).containsExactly(noticeId);
+        assertThat(page.getNotices().get(0).isBroadcast()).isTrue();
+        assertThat(page.getLatestCursor()).isNotNull();
+
+        // 한 번 읽으면 그 유저만 읽음 (두 번 읽어도 기록 1개)
+        notificationService.markNoticeAsRead(bob.getId(), noticeId);
+        notificationService.markNoticeAsRead(bob.getId(), noticeId);
+        assertThat(broadcastNoticeReadRepository.count()).isEqualTo(1);
+        assertThat(notificationService.getUnreadCount(bob.getId())).isZero();
+        assertThat(notificationService.getUserNotifications(bob.getId()))
+                .singleElement()
+                .satisfies(n -> assertThat(n.isRead()).isTrue());
+
+        // 모두 읽음 → 개인 알림 + 공지 모두
+        notificationService.markAllAsRead(alice.getId());
+        assertThat(notificationService.getUnreadCount(alice.getId())).isZero();
+        assertThat(broadcastNoticeReadRepository.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,191 @@
+package org.jyr.postbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.ai.backfill.AiBackfillJobService;
+import org.jyr.postbox.ai.client.HttpAiClient;
+import org.jyr.postbox.ai.job.AiReplyJobService;
+import org.jyr.postbox.ai.service.AiReplyClaimService;
+import org.jyr.postbox.ai.service.AiReplyService;
+import org.jyr.postbox.ai.service.AiReplySingleFlight;
+import org.jyr.postbox.cache.AiReplyCache;
+import org.jyr.postbox.cache.BoxLookupCache;
+import org.jyr.postbox.domain.*;
+import org.jyr.postbox.dto.message.MessageCreateDTO;
+import org.jyr.postbox.dto.message.MessageCursorPageDTO;
+import org.jyr.postbox.dto.user.BlackListDTO;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.NotificationWriter;
+import org.jyr.postbox.repository.BlackListRepository;
+import org.jyr.postbox.repository.BoxRepository;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.security.LoginUser;
+import org.jyr.postbox.support.QueryCountGuard;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 목록/상세 경로가 행 수와 상관없이 정해진 SQL 문 수 안에서 끝나는지 확인
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({
+        MessageServiceImpl.class,
+        BlackListServiceImpl.class,
+        BoxServiceImpl.class,
+        AiBackfillJobService.class,
+        BoxStatsServiceImpl.class,
+        NotificationServiceImpl.class,
+        NotificationWriteBuffer.class,
+        NotificationWriter.class,
+        AiReplyJobService.class,
+        AiReplyService.class,
+        AiReplyClaimService.class,
+        AiReplySingleFlight.class,
+        AiReplyCache.class,
+        HttpAiClient.class,
+        JsonMapper.class,
+        BoxLookupCache.class,
+        SimpleMeterRegistry.class
+})
+class MessageQueryCountTest {
+
+    private static final int MESSAGE_COUNT = 30;
+
+    @Autowired EntityManager entityManager;
+    @Autowired UserRepository userRepository;
+    @Autowired BoxRepository boxRepository;
+    @Autowired MessageRepository messageRepository;
+    @Autowired BlackListRepository blackListRepository;
+    @Autowired NotificationRepository notificationRepository;
+
+    @Autowired MessageService messageService;
+    @Autowired BlackListService blackListService;
+    @Autowired BoxService boxService;
+
+    private QueryCountGuard guard;
+    private User owner;
+    private Box box;
+    private Long lastMessageId;
+
+    @BeforeEach
+    void setUp() {
+        guard = new QueryCountGuard(entityManager);
+
+        owner = TestUsers.save(userRepository, "owner");
+        box = boxService.createBoxForUser(owner);
+
+        // 작성자가 전부 다른 회원 → 지연 로딩이면 행마다 SELECT 가 나감
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            User author = TestUsers.save(userRepository, "author" + i);
+            lastMessageId = messageRepository.save(Message.builder()
+                    .box(box)
+                    .content("메시지 본문입니다. 미리보기보다 길게 씁니다. #" + i)
+                    .authorUser(author)
+                    .authorType(AuthorType.OWNER)
+                    .build()).getId();
+            blackListRepository.save(BlackList.builder().box(box).blockedUser(author).build());
+        }
+    }
+
+    @Test
+    void ownerCursorList_isBounded() {
+        MessageCursorPageDTO page = guard.assertMaxStatements(2,
+                () -> messageService.getMessagesForOwnerByCursor(owner, null, MESSAGE_COUNT));
+
+        assertThat(page.getContent()).hasSize(MESSAGE_COUNT);
+        assertThat(page.getContent().get(0).getAuthorLabel()).startsWith("author");
+    }
+
+    @Test
+    void ownerOffsetList_isBounded() {
+        // 박스 + 목록 + COUNT
+        guard.assertMaxStatements(3, () -> messageService.getMessagesForOwner(owner, 0, MESSAGE_COUNT));
+    }
+
+    @Test
+    void publicList_isBounded() {
+        guard.assertMaxStatements(2,
+                () -> messageService.getPublicMessagesByCursor(box.getUrlKey(), null, MESSAGE_COUNT));
+    }
+
+    @Test
+    void myBox_isBounded() {
+        // 박스 + box_stats + 첫 페이지
+        guard.assertMaxStatements(3, () -> messageService.getMyBox(owner));
+    }
+
+    @Test
+    void messageDetail_isSingleSelect() {
+        guard.assertMaxStatements(1, () -> messageService.getMessageDetailForOwner(lastMessageId, owner));
+    }
+
+    @Test
+    void boxHeader_isBounded() {
+        // 박스+주인 join + box_stats
+        guard.assertMaxStatements(2, () -> boxService.getBoxHeaderByUrlKey(box.getUrlKey()));
+    }
+
+    @Test
+    void blackList_isBounded() {
+        List<BlackListDTO> list = guard.assertMaxStatements(2,
+                () -> blackListService.getBlackListForOwner(owner));
+
+        assertThat(list).hasSize(MESSAGE_COUNT);
+    }
+
+    @Test
+    void myBox_byLoginUser_isBounded() {
+        LoginUser loginUser = loginUserOf(owner, box);
+        messageService.getMyBox(loginUser); // 박스 캐시 채우기
+
+        // 유저(닉네임 등) + box_stats + 첫 페이지
+        guard.assertMaxStatements(3, () -> messageService.getMyBox(loginUser));
+    }
+
+    @Test
+    void blackList_byLoginUser_isSingleSelect() {
+        List<BlackListDTO> list = guard.assertMaxStatements(1,
+                () -> blackListService.getBlackListForOwner(loginUserOf(owner, box)));
+
+        assertThat(list).hasSize(MESSAGE_COUNT);
+    }
+
+    @Test
+    void createMessage_writesNoNotificationInline() {
+        messageService.createMessage(newMessage("캐시 채우기"), null);
+
+        // 메시지 INSERT + box_stats UPDATE (알림은 커밋 후 쓰기 버퍼에서 저장)
+        guard.assertMaxStatements(2, () -> messageService.createMessage(newMessage("안녕하세요"), null));
+        assertThat(notificationRepository.count()).isZero();
+    }
+
+    private MessageCreateDTO newMessage(String content) {
+        MessageCreateDTO dto = new MessageCreateDTO();
+        dto.setBoxUrlKey(box.getUrlKey());
+        dto.setContent(content);
+        return dto;
+    }
+
+    private LoginUser loginUserOf(User user, Box userBox) {
+        return LoginUser.builder()
+                .id(user.getId())
+                .userId(user.getUserId())
+                .role(user.getRole())
+                .status(user.getStatus())
+                .boxId(userBox.getId())
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package org.jyr.postbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.ai.backfill.AiBackfillJobService;
+import org.jyr.postbox.ai.client.HttpAiClient;
+import org.jyr.postbox.ai.job.AiReplyJobService;
+import org.jyr.postbox.ai.service.AiReplyClaimService;
+import org.jyr.postbox.ai.service.AiReplyService;
+import org.jyr.postbox.ai.service.AiReplySingleFlight;
+import org.jyr.postbox.cache.AiReplyCache;
+import org.jyr.postbox.cache.BoxLookupCache;
+import org.jyr.postbox.domain.*;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.NotificationWriter;
+import org.jyr.postbox.repository.MessageRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 같은 메시지에 답장 쓰기 / 지우기 / 숨기기가 동시에 여러 번 들어와도 박스 카운트는 실제 상태만큼만 바뀌는지 확인
+// 요청마다 실제로 커밋돼야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.notification.buffer.enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        MessageServiceImpl.class,
+        BoxServiceImpl.class,
+        AiBackfillJobService.class,
+        BoxStatsServiceImpl.class,
+        NotificationServiceImpl.class,
+        NotificationWriteBuffer.class,
+        NotificationWriter.class,
+        AiReplyJobService.class,
+        AiReplyService.class,
+        AiReplyClaimService.class,
+        AiReplySingleFlight.class,
+        AiReplyCache.class,
+        HttpAiClient.class,
+        JsonMapper.class,
+        BoxLookupCache.class,
+        SimpleMeterRegistry.class
+})
+class MessageReplyCountTest {
+
+    private static final int THREADS = 6;
+
+    @Autowired UserRepository userRepository;
+    @Autowired MessageRepository messageRepository;
+    @Autowired MessageService messageService;
+    @Autowired BoxService boxService;
+    @Autowired BoxStatsService boxStatsService;
+
+    @Test
+    void concurrentRepliesAndClears_moveCountOnlyOnStateChange() throws Exception {
+        User owner = TestUsers.save(userRepository, "replier");
+        Box box = boxService.createBoxForUser(owner);
+        Long messageId = messageRepository.saveAndFlush(Message.builder()
+                .box(box)
+                .content("안녕하세요")
+                .authorType(AuthorType.ANONYMOUS)
+                .build()).getId();
+
+        // 1) 동시에 답장 여러 번 → 처음 것만 +1
+        runConcurrently(i -> messageService.replyToMessage(messageId, "답장 " + i, owner));
+        assertThat(messageRepository.findById(messageId).orElseThrow().getReplyContent()).startsWith("답장 ");
+        assertThat(boxStatsService.getStats(box.getId()).getReplyCount()).isEqualTo(1);
+
+        // 2) 동시에 지우기 여러 번 → 한 번만 -1
+        runConcurrently(i -> messageService.clearReply(messageId, owner));
+        Message cleared = messageRepository.findById(messageId).orElseThrow();
+        assertThat(cleared.getReplyContent()).isNull();
+        assertThat(cleared.isHasAnyAnswer()).isFalse();
+        assertThat(boxStatsService.getStats(box.getId()).getReplyCount()).isZero();
+    }
+
+    @Test
+    void concurrentHides_decrementUnreadOnce() throws Exception {
+        User owner = TestUsers.save(userRepository, "hider");
+        Box box = boxService.createBoxForUser(owner);
+        Long messageId = messageRepository.saveAndFlush(Message.builder()
+                .box(box)
+                .content("숨길 메시지")
+                .authorType(AuthorType.ANONYMOUS)
+                .build()).getId();
+        boxStatsService.onMessageCreated(box.getId());
+        long unreadBefore = boxStatsService.getStats(box.getId()).getUnreadMessageCount();
+
+        // 숨기기 / 차단이 겹쳐도 실제로 숨긴 한 번만 -1
+        runConcurrently(i -> {
+            if (i % 2 == 0) messageService.hideMessage(messageId, owner);
+            else messageService.blacklistUserByMessage(messageId, owner);
+        });
+
+        assertThat(messageRepository.findById(messageId).orElseThrow().isHidden()).isTrue();
+        assertThat(boxStatsService.getStats(box.getId()).getUnreadMessageCount()).isEqualTo(unreadBefore - 1);
+    }
+
+    private void runConcurrently(IntConsumer task) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                int n = i;
+                results.add(pool.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    task.accept(n);
+                    return null;
+                }));
+            }
+            for (Future<?> f : results) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.jyr.postbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.domain.Notification;
+import org.jyr.postbox.domain.NotificationType;
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.NotificationWriter;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.QueryCountGuard;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 읽음 처리가 안 읽은 알림 수와 상관없이 UPDATE 한 번으로 끝나는지 확인
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({
+        NotificationServiceImpl.class,
+        NotificationWriteBuffer.class,
+        NotificationWriter.class,
+        SimpleMeterRegistry.class
+})
+class NotificationBulkReadTest {
+
+    @Autowired EntityManager entityManager;
+    @Autowired UserRepository userRepository;
+    @Autowired NotificationRepository notificationRepository;
+    @Autowired NotificationService notificationService;
+
+    private QueryCountGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new QueryCountGuard(entityManager);
+    }
+
+    @Test
+    void markAllAsRead_isSingleStatement_regardlessOfVolume() {
+        for (int unread : new int[]{10, 1_000}) {
+            User user = TestUsers.save(userRepository, "reader" + unread);
+            saveUnread(user, unread);
+
+            // 개인 알림 UPDATE 1번 + 전체 공지 읽음 기록 INSERT ... SELECT 1번
+            guard.assertMaxStatements(2, () -> notificationService.markAllAsRead(user.getId()));
+
+            assertThat(notificationRepository.countByTargetUser_IdAndReadFalse(user.getId())).isZero();
+        }
+    }
+
+    @Test
+    void markAsReadByIds_touchesOnlyOwnUnread() {
+        User me = TestUsers.save(userRepository, "me");
+        User other = TestUsers.save(userRepository, "other");
+        List<Long> mine = saveUnread(me, 5);
+        List<Long> others = saveUnread(other, 3);
+
+        List<Long> ids = new ArrayList<>(mine.subList(0, 3));
+        ids.addAll(others);
+
+        int updated = guard.assertMaxStatements(1, () -> notificationService.markAsRead(me.getId(), ids));
+
+        assertThat(updated).isEqualTo(3);
+        assertThat(notificationRepository.countByTargetUser_IdAndReadFalse(me.getId())).isEqualTo(2);
+        assertThat(notificationRepository.countByTargetUser_IdAndReadFalse(other.getId())).isEqualTo(3);
+        assertThat(notificationRepository.findById(mine.get(0)).orElseThrow().getReadAt()).isNotNull();
+    }
+
+    private List<Long> saveUnread(User user, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(notificationRepository.save(Notification.builder()
+                    .targetUser(user)
+                    .type(NotificationType.COMMENT)
+                    .alertMessage("새로운 메시지가 도착했어요!")
+                    .build()).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,129 @@
+package org.jyr.postbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.domain.Notification;
+import org.jyr.postbox.domain.NotificationType;
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.NotificationWriter;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 안 읽은 묶음 알림이 있는 동안은 행이 늘지 않고 개수만 오르는지 확인
+// (insert ... on duplicate key update 를 쓰므로 H2 를 MySQL 모드로 띄움)
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:coalesce;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // 버퍼 없이 테스트 트랜잭션 안에서 바로 upsert
+        "app.notification.buffer.enabled=false"
+})
+@Import({
+        NotificationServiceImpl.class,
+        NotificationWriteBuffer.class,
+        NotificationWriter.class,
+        SimpleMeterRegistry.class
+})
+class NotificationCoalescingTest {
+
+    private static final String KEY = "COMMENT:box:1";
+
+    @Autowired EntityManager entityManager;
+    @Autowired UserRepository userRepository;
+    @Autowired NotificationRepository notificationRepository;
+    @Autowired NotificationService notificationService;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    void burstOfMessages_collapsesIntoOneUnreadRow_untilRead() {
+        User owner = TestUsers.save(userRepository, "viral");
+
+        for (int i = 1; i <= 3; i++) {
+            notify(owner, "/me/messages/" + i);
+        }
+        entityManager.clear();
+
+        List<Notification> rows = notificationRepository.findByTargetUser_IdOrderByCreatedAtDesc(owner.getId());
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getAggregateCount()).isEqualTo(3);
+        assertThat(rows.get(0).getLinkUrl()).isEqualTo("/me/messages/3");
+        assertThat(notificationRepository.countByTargetUser_IdAndReadFalse(owner.getId())).isEqualTo(1);
+
+        // 읽고 나면 다음 메시지는 새 알림
+        notificationService.markAllAsRead(owner.getId());
+        notify(owner, "/me/messages/4");
+        entityManager.clear();
+
+        assertThat(notificationRepository.findByTargetUser_IdOrderByCreatedAtDesc(owner.getId())).hasSize(2);
+        assertThat(notificationRepository.findByCoalesceKey(KEY).orElseThrow().getAggregateCount()).isEqualTo(1);
+    }
+
+    // 방문자 글 작성처럼 호출한 쪽 트랜잭션 안에서 동시에 같은 키로 쓰면
+    // 둘 다 "행 없음"을 보고 INSERT 해서 유니크 키에 걸리는 일 없이 행 1개 + 정확한 개수
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentWriters_inCallerTransactions_endUpWithOneRow() throws Exception {
+        User owner = TestUsers.save(userRepository, "race");
+        String key = "COMMENT:box:race";
+        int writers = 8;
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CyclicBarrier start = new CyclicBarrier(writers);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(writers)) {
+            for (int i = 0; i < writers; i++) {
+                int n = i;
+                results.add(pool.submit(() -> tx.executeWithoutResult(status -> {
+                    await(start);
+                    notificationService.createOrCoalesceNotification(
+                            owner.getId(), NotificationType.COMMENT, key, "새로운 메시지가 도착했어요!",
+                            "/me/messages/" + n, null);
+                })));
+            }
+            for (Future<?> f : results) {
+                f.get(10, TimeUnit.SECONDS);   // 유니크 키 충돌로 롤백된 쓰기가 있으면 여기서 실패
+            }
+        }
+
+        List<Notification> rows = notificationRepository.findByTargetUser_IdOrderByCreatedAtDesc(owner.getId());
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getAggregateCount()).isEqualTo(writers);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void notify(User owner, String linkUrl) {
+        notificationService.createOrCoalesceNotification(
+                owner.getId(), NotificationType.COMMENT, KEY, "새로운 메시지가 도착했어요!", linkUrl, null);
+    }
+}
@@ -0,0 +1,101 @@
+package org.jyr.postbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.jyr.postbox.domain.Notification;
+import org.jyr.postbox.domain.NotificationType;
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.dto.NotificationDTO;
+import org.jyr.postbox.dto.notification.NotificationCursorPageDTO;
+import org.jyr.postbox.notification.NotificationWriteBuffer;
+import org.jyr.postbox.notification.NotificationWriter;
+import org.jyr.postbox.repository.NotificationRepository;
+import org.jyr.postbox.repository.UserRepository;
+import org.jyr.postbox.support.TestUsers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 커서 피드가 빠짐/중복 없이 끝까지 넘어가고, since 로 새 알림만 받는지 확인
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({
+        NotificationServiceImpl.class,
+        NotificationWriteBuffer.class,
+        NotificationWriter.class,
+        SimpleMeterRegistry.class
+})
+class NotificationFeedTest {
+
+    @Autowired UserRepository userRepository;
+    @Autowired NotificationRepository notificationRepository;
+    @Autowired NotificationService notificationService;
+
+    @Test
+    void cursorFeed_walksAllPagesNewestFirst() {
+        User user = TestUsers.save(userRepository, "feed");
+        List<Long> ids = saveNotifications(user, 25);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            NotificationCursorPageDTO page = notificationService.getUserNotificationsByCursor(user.getId(), cursor, 10);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(10);
+            page.getContent().forEach(n -> seen.add(n.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(ids.reversed());
+    }
+
+    @Test
+    void since_returnsOnlyNewerNotifications() {
+        User user = TestUsers.save(userRepository, "since");
+        saveNotifications(user, 5);
+
+        NotificationCursorPageDTO first = notificationService.getUserNotificationsByCursor(user.getId(), null, 10);
+        String latest = first.getLatestCursor();
+
+        // 새 알림 없음 → 빈 목록, 커서 그대로
+        NotificationCursorPageDTO empty = notificationService.getUserNotificationsSince(user.getId(), latest, 10);
+        assertThat(empty.getContent()).isEmpty();
+        assertThat(empty.getLatestCursor()).isEqualTo(latest);
+
+        List<Long> newer = saveNotifications(user, 3);
+        NotificationCursorPageDTO delta = notificationService.getUserNotificationsSince(user.getId(), latest, 10);
+
+        assertThat(delta.getContent()).extracting(NotificationDTO::getId)
+                .containsExactlyElementsOf(newer.reversed());
+        assertThat(delta.isHasNext()).isFalse();
+    }
+
+    @Test
+    void legacyList_returnsOnlyTheNewestPage() {
+        User user = TestUsers.save(userRepository, "legacy");
+        List<Long> ids = saveNotifications(user, 105);
+
+        List<NotificationDTO> list = notificationService.getUserNotifications(user.getId());
+
+        assertThat(list).extracting(NotificationDTO::getId)
+                .containsExactlyElementsOf(ids.reversed().subList(0, 100));
+    }
+
+    private List<Long> saveNotifications(User user, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(notificationRepository.save(Notification.builder()
+                    .targetUser(user)
+                    .type(NotificationType.COMMENT)
+                    .alertMessage("알림 #" + i)
+                    .build()).getId());
+        }
+        return ids;
+    }
+}
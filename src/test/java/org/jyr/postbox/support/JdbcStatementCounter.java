@@ -0,0 +1,121 @@
+package org.jyr.postbox.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource 를 감싸서 JDBC 호출을 SQL 앞부분 기준으로 센다 (@Import 로 등록).
+ * Hibernate 통계의 prepare 수는 batch 가 같은 PreparedStatement 를 재사용하면 1 로 남으므로,
+ * batch 로 나갔는지는 executeBatch / addBatch 를 직접 세서 확인한다.
+ * - batchCount : executeBatch 호출 수 (= DB 왕복)
+ * - batchedRows: addBatch 로 쌓인 행 수
+ * - singleCount: batch 없이 한 문장씩 실행한 수
+ */
+public class JdbcStatementCounter implements BeanPostProcessor {
+
+    private final Map<String, AtomicInteger> batches = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> batchedRows = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> singles = new ConcurrentHashMap<>();
+
+    public void reset() {
+        batches.clear();
+        batchedRows.clear();
+        singles.clear();
+    }
+
+    public int batchCount(String sqlPrefix) {
+        return sum(batches, sqlPrefix);
+    }
+
+    public int batchedRows(String sqlPrefix) {
+        return sum(batchedRows, sqlPrefix);
+    }
+
+    public int singleCount(String sqlPrefix) {
+        return sum(singles, sqlPrefix);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(dataSource, (method, args) -> {
+                Object result = method.invoke(dataSource, args);
+                return result instanceof Connection c ? wrapConnection(c) : result;
+            });
+        }
+        return bean;
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) proxy(connection, (method, args) -> {
+            Object result = method.invoke(connection, args);
+            if (result instanceof PreparedStatement ps && method.getName().startsWith("prepare")) {
+                return wrapStatement(ps, (String) args[0]);
+            }
+            if (result instanceof Statement s && method.getName().equals("createStatement")) {
+                return wrapStatement(s, null);
+            }
+            return result;
+        });
+    }
+
+    private Statement wrapStatement(Statement statement, String preparedSql) {
+        return (Statement) proxy(statement, (method, args) -> {
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            switch (method.getName()) {
+                case "addBatch" -> count(batchedRows, sql);
+                case "executeBatch", "executeLargeBatch" -> count(batches, sql);
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" -> count(singles, sql);
+                default -> { }
+            }
+            return method.invoke(statement, args);
+        });
+    }
+
+    private static void count(Map<String, AtomicInteger> counts, String sql) {
+        if (sql == null) return;
+        counts.computeIfAbsent(normalize(sql), k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static int sum(Map<String, AtomicInteger> counts, String sqlPrefix) {
+        String prefix = normalize(sqlPrefix);
+        return counts.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix))
+                .mapToInt(e -> e.getValue().get())
+                .sum();
+    }
+
+    private static String normalize(String sql) {
+        return sql.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private interface Invoker {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+
+    // 원래 객체의 인터페이스를 전부 유지 (EmbeddedDatabase 등 구체 타입으로 주입받는 곳이 있어도 그대로)
+    private static Object proxy(Object target, Invoker invoker) {
+        return Proxy.newProxyInstance(
+                target.getClass().getClassLoader(),
+                ClassUtils.getAllInterfaces(target),
+                (p, method, args) -> {
+                    try {
+                        return invoker.invoke(method, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
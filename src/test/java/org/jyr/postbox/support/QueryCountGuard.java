@@ -0,0 +1,50 @@
+package org.jyr.postbox.support;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate 통계로 한 번의 호출이 실행한 SQL 문 수를 세고, 상한을 넘으면 테스트를 실패시킨다.
+ * (N+1 지연 로딩이 다시 생기면 여기서 걸림)
+ */
+public class QueryCountGuard {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public QueryCountGuard(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public <T> T assertMaxStatements(int max, Supplier<T> action) {
+        // 준비 단계에서 쌓인 엔티티가 1차 캐시로 재사용되지 않도록 비우고 시작
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        T result = action.get();
+        entityManager.flush();
+
+        long executed = statistics.getPrepareStatementCount();
+        assertThat(executed)
+                .as("SQL 문 수 상한 초과 (max=%d)", max)
+                .isLessThanOrEqualTo(max);
+        return result;
+    }
+
+    public void assertMaxStatements(int max, Runnable action) {
+        assertMaxStatements(max, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
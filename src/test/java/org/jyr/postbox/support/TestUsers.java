@@ -0,0 +1,31 @@
+package org.jyr.postbox.support;
+
+import org.jyr.postbox.domain.User;
+import org.jyr.postbox.domain.UserRole;
+import org.jyr.postbox.domain.UserStatus;
+import org.jyr.postbox.repository.UserRepository;
+
+/**
+ * 테스트용 유저. userId 하나로 email / addressId / nickname 을 채운 ACTIVE 일반 유저.
+ * (다른 값이 필요하면 builder 로 받아서 덮어쓰기)
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    public static User save(UserRepository userRepository, String userId) {
+        return userRepository.save(builder(userId).build());
+    }
+
+    public static User.UserBuilder builder(String userId) {
+        return User.builder()
+                .userId(userId)
+                .email(userId + "@test.com")
+                .addressId(userId)
+                .password("pw")
+                .nickname(userId)
+                .role(UserRole.USER)
+                .status(UserStatus.ACTIVE);
+    }
+}